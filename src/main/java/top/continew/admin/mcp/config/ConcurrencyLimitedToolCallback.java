@@ -0,0 +1,70 @@
+package top.continew.admin.mcp.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import org.springframework.ai.tool.metadata.ToolMetadata;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 限制并发调用数的工具回调
+ * <p>使用 Semaphore 限流（等待期间不会钉住虚拟线程的载体线程），
+ * 避免个别耗时工具（如 analyzeBusinessRelation）占满数据库连接与请求线程</p>
+ *
+ * @author AI Generator
+ */
+@Slf4j
+public class ConcurrencyLimitedToolCallback implements ToolCallback {
+
+    private final ToolCallback delegate;
+    private final Semaphore permits;
+    private final int maxConcurrency;
+    private final Duration acquireTimeout;
+
+    public ConcurrencyLimitedToolCallback(ToolCallback delegate, int maxConcurrency, Duration acquireTimeout) {
+        this.delegate = delegate;
+        this.permits = new Semaphore(maxConcurrency, true);
+        this.maxConcurrency = maxConcurrency;
+        this.acquireTimeout = acquireTimeout;
+    }
+
+    @Override
+    public ToolDefinition getToolDefinition() {
+        return delegate.getToolDefinition();
+    }
+
+    @Override
+    public ToolMetadata getToolMetadata() {
+        return delegate.getToolMetadata();
+    }
+
+    @Override
+    public String call(String toolInput) {
+        return call(toolInput, null);
+    }
+
+    @Override
+    public String call(String toolInput, ToolContext toolContext) {
+        String toolName = delegate.getToolDefinition().name();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return "工具调用被中断: " + toolName;
+        }
+        if (!acquired) {
+            log.warn("工具 {} 并发调用达到上限 {}，等待 {} 后放弃", toolName, maxConcurrency, acquireTimeout);
+            return "服务繁忙：工具 " + toolName + " 当前并发调用已达上限（" + maxConcurrency + "），请稍后重试";
+        }
+        try {
+            return toolContext != null ? delegate.call(toolInput, toolContext) : delegate.call(toolInput);
+        } finally {
+            permits.release();
+        }
+    }
+}
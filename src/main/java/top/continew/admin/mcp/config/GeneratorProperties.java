@@ -0,0 +1,165 @@
+package top.continew.admin.mcp.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 代码生成器配置属性
+ *
+ * @author AI Generator
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "continew-generator")
+public class GeneratorProperties {
+
+    /**
+     * 元数据缓存配置
+     */
+    private Cache cache = new Cache();
+
+    /**
+     * 会话配置
+     */
+    private Session session = new Session();
+
+    /**
+     * 工具执行配置
+     */
+    private Execution execution = new Execution();
+
+    /**
+     * 元数据预取配置
+     */
+    private Prefetch prefetch = new Prefetch();
+
+    /**
+     * 字段数据画像配置
+     */
+    private Profile profile = new Profile();
+
+    /**
+     * 字段推断规则文件（YAML 决策表），支持 classpath: 与 file: 前缀
+     */
+    private String inferenceRules = "classpath:inference-rules.yml";
+
+    /**
+     * 元数据缓存配置
+     */
+    @Data
+    public static class Cache {
+
+        /**
+         * 变更检测最小间隔（两次检测之间直接使用内存数据，不访问数据库）
+         */
+        private Duration refreshInterval = Duration.ofSeconds(30);
+    }
+
+    /**
+     * 会话配置（项目路径等按 MCP 会话隔离的状态）
+     */
+    @Data
+    public static class Session {
+
+        /**
+         * 最大会话数，超出时淘汰最近最少使用的会话
+         */
+        private int maxSessions = 200;
+
+        /**
+         * 会话空闲超时时间，超时未访问的会话状态会被淘汰
+         */
+        private Duration idleTimeout = Duration.ofHours(12);
+    }
+
+    /**
+     * 工具执行配置
+     */
+    @Data
+    public static class Execution {
+
+        /**
+         * 单个工具默认最大并发调用数
+         */
+        private int defaultMaxConcurrency = 32;
+
+        /**
+         * 按工具名单独设置的最大并发调用数（如 analyzeBusinessRelation: 4）
+         */
+        private Map<String, Integer> toolMaxConcurrency = new HashMap<>();
+
+        /**
+         * 达到并发上限时的最长等待时间，超时后直接返回繁忙提示
+         */
+        private Duration acquireTimeout = Duration.ofSeconds(30);
+    }
+
+    /**
+     * 元数据预取配置
+     */
+    @Data
+    public static class Prefetch {
+
+        /**
+         * 是否启用（启用后 listTables / analyzeBusinessRelation 之后会在后台预热相关表的字段元数据与字典匹配）
+         */
+        private boolean enabled = false;
+
+        /**
+         * 单次最多预取的表数量
+         */
+        private int maxTables = 20;
+
+        /**
+         * 字段元数据在内存中的保留时间（仅启用预取时缓存，执行 CREATE/ALTER 后清空）
+         */
+        private Duration metadataTtl = Duration.ofMinutes(5);
+    }
+
+    /**
+     * 字段数据画像配置（根据索引基数与抽样数据修正表单/查询推断）
+     */
+    @Data
+    public static class Profile {
+
+        /**
+         * 是否启用（启用后会对业务表执行有限条数的抽样查询）
+         */
+        private boolean enabled = false;
+
+        /**
+         * 每张表最多抽样的行数
+         */
+        private int sampleSize = 1000;
+
+        /**
+         * 抽样查询超时时间（同时作为 MAX_EXECUTION_TIME 提示与 JDBC 查询超时）
+         */
+        private Duration timeout = Duration.ofSeconds(2);
+
+        /**
+         * 画像结果在内存中的保留时间
+         */
+        private Duration ttl = Duration.ofMinutes(30);
+
+        /**
+         * 不同取值数不超过该值时视为枚举类字段
+         */
+        private int lowCardinality = 10;
+
+        /**
+         * 不同取值占比达到该值时视为高基数字段，不作为等值查询条件
+         */
+        private double highCardinalityRatio = 0.5;
+
+        /**
+         * 行数达到该值后才按基数与空值率修正推断，避免小表误判
+         */
+        private int minRows = 100;
+    }
+}
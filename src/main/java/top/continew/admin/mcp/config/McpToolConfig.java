@@ -24,11 +24,14 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import top.continew.admin.mcp.tool.GeneratorTools;
 
+import java.util.Arrays;
 import java.util.List;
 
 /**
  * MCP 工具配置类
  * 负责将带有 @Tool 注解的工具类注册为 MCP 可用的工具
+ * <p>SYNC / ASYNC 两种服务类型共用这里注册的 ToolCallback：ASYNC 模式下由 Spring AI 转换为异步工具，
+ * 工具实现本身仍是阻塞的，只是被切换到 boundedElastic 调度器上执行，不提供单独的 Mono / Flux 实现</p>
  *
  * @author Charles7c
  * @since 2025/12/22
@@ -39,10 +42,11 @@ import java.util.List;
 public class McpToolConfig {
 
     private final GeneratorTools generatorTools;
+    private final GeneratorProperties properties;
 
     /**
      * 注册代码生成器工具
-     * 通过 MethodToolCallbackProvider 将工具类中的方法注册为 MCP Tool
+     * 通过 MethodToolCallbackProvider 将工具类中的方法注册为 MCP Tool，并按工具限制并发调用数
      */
     @Bean
     public List<ToolCallback> generatorToolCallbacks() {
@@ -53,9 +57,16 @@ public class McpToolConfig {
             .build()
             .getToolCallbacks();
         
-        List<ToolCallback> callbacks = List.of(callbackArray);
+        GeneratorProperties.Execution execution = properties.getExecution();
+        List<ToolCallback> callbacks = Arrays.stream(callbackArray)
+            .map(callback -> (ToolCallback) new ConcurrencyLimitedToolCallback(callback,
+                execution.getToolMaxConcurrency().getOrDefault(callback.getToolDefinition().name(),
+                    execution.getDefaultMaxConcurrency()),
+                execution.getAcquireTimeout()))
+            .toList();
         
-        log.info("Registered {} tool callbacks from GeneratorTools", callbacks.size());
+        log.info("Registered {} tool callbacks from GeneratorTools (default max concurrency {}, overrides {})",
+            callbacks.size(), execution.getDefaultMaxConcurrency(), execution.getToolMaxConcurrency());
         
         return callbacks;
     }
@@ -0,0 +1,46 @@
+package top.continew.admin.mcp.model;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 字段数据画像（不同取值数、空值率），用于修正表单/查询推断
+ *
+ * @author AI Generator
+ */
+@Data
+public class ColumnProfile {
+
+    /**
+     * 不同取值数（来自索引基数或抽样）
+     */
+    private long distinctCount;
+
+    /**
+     * 计算基数所依据的行数（索引基数时为表估算行数，抽样时为抽样行数）
+     */
+    private long rowCount;
+
+    /**
+     * 空值率（0 ~ 1，仅抽样时有值）
+     */
+    private Double nullRatio;
+
+    /**
+     * 数据来源：STATISTICS（索引基数）、SAMPLE（抽样）
+     */
+    private String source;
+
+    /**
+     * 抽样中的全部不同取值（仅低基数的整数/短字符串字段，按值排序），用作本地下拉选项
+     */
+    private List<String> sampleValues;
+
+    /**
+     * 不同取值占比
+     */
+    public double distinctRatio() {
+        return rowCount == 0 ? 0 : (double) distinctCount / rowCount;
+    }
+}
@@ -0,0 +1,57 @@
+package top.continew.admin.mcp.model;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 系统字典（sys_dict + sys_dict_item）
+ *
+ * @author AI Generator
+ */
+@Data
+public class DictInfo {
+
+    /**
+     * 字典 ID
+     */
+    private Long id;
+
+    /**
+     * 字典编码
+     */
+    private String code;
+
+    /**
+     * 字典名称
+     */
+    private String name;
+
+    /**
+     * 描述
+     */
+    private String description;
+
+    /**
+     * 字典项列表（已启用，按排序）
+     */
+    private List<Item> items = new ArrayList<>();
+
+    /**
+     * 字典项
+     */
+    @Data
+    public static class Item {
+
+        /**
+         * 标签
+         */
+        private String label;
+
+        /**
+         * 值
+         */
+        private String value;
+    }
+}
@@ -2,6 +2,8 @@ package top.continew.admin.mcp.model;
 
 import lombok.Data;
 
+import java.util.List;
+
 /**
  * 字段配置模型
  *
@@ -75,6 +77,11 @@ public class FieldConfig {
      */
     private String columnType;
 
+    /**
+     * 是否为大字段（text、blob、json 等，列表查询不读取，只在详情中返回）
+     */
+    private boolean largeColumn = false;
+
     /**
      * 字段长度（用于字符串校验）
      */
@@ -91,4 +98,19 @@ public class FieldConfig {
      * 如：statusOptions, typeOptions
      */
     private String localOptionsName;
+
+    /**
+     * 本地选项的取值（来自数据画像抽样，生成前端常量数组）
+     */
+    private List<String> localOptions;
+
+    /**
+     * MySQL enum 字段的取值列表（生成枚举类时使用），如 [pending, paid]
+     */
+    private List<String> enumValues;
+
+    /**
+     * MyBatis-Plus 类型处理器（全限定类名），如 json 字段使用 JacksonTypeHandler
+     */
+    private String typeHandler;
 }
@@ -0,0 +1,120 @@
+package top.continew.admin.mcp.model;
+
+import lombok.Data;
+
+/**
+ * 代码生成选项（与表结构无关、由调用方按场景指定的生成开关）
+ *
+ * @author AI Generator
+ */
+@Data
+public class GenerateOptions {
+
+    /**
+     * 列表分页方式
+     */
+    private PageMode pageMode = PageMode.OFFSET;
+
+    /**
+     * 导出方式
+     */
+    private ExportMode exportMode = ExportMode.DEFAULT;
+
+    /**
+     * 流式导出的 JDBC fetchSize（默认 Integer.MIN_VALUE，MySQL 驱动逐行流式读取；
+     * JDBC URL 开启 useCursorFetch=true 时可设为正数，按批从服务端游标读取）
+     */
+    private int exportFetchSize = Integer.MIN_VALUE;
+
+    /**
+     * 流式导出单次最多导出的行数（xlsx 单个工作表上限约 104 万行）
+     */
+    private int exportMaxRows = 1_000_000;
+
+    /**
+     * 是否在 Service 中生成本地缓存（详情、字典、关联回填），写操作时清除；为空时只根据表数据量与读写比例给出建议
+     */
+    private Boolean cache;
+
+    /**
+     * 本地缓存最大条目数（超出时按 LRU 淘汰）
+     */
+    private int cacheMaxSize = 1000;
+
+    /**
+     * 本地缓存有效期（秒）
+     */
+    private int cacheTtlSeconds = 300;
+
+    /**
+     * 是否生成批量新增、批量修改接口（按批使用批量执行器写入，每批独立提交；批量删除同样分批执行）
+     */
+    private boolean batchApi = false;
+
+    /**
+     * 是否生成对象转换类（按字段展开 getter/setter，Service 的分页、详情、批量写入不再使用反射拷贝）
+     */
+    private boolean converter = false;
+
+    /**
+     * 分页总数统计方式
+     */
+    private CountMode countMode = CountMode.EXACT;
+
+    /**
+     * 分区表（按 create_time 分区）分页、列表、导出未传创建时间范围时，默认查询最近的天数
+     */
+    private int partitionQueryDays = GeneratorContext.DEFAULT_PARTITION_QUERY_DAYS;
+
+    /**
+     * 分页方式枚举
+     */
+    public enum PageMode {
+        /**
+         * OFFSET/LIMIT 分页（默认），支持跳页，但页码越大越慢
+         */
+        OFFSET,
+
+        /**
+         * 游标（keyset）分页：额外生成按 (create_time, id) 游标翻页的列表接口，
+         * 每页都走索引范围扫描，深分页耗时恒定，不支持跳页
+         */
+        KEYSET
+    }
+
+    /**
+     * 导出方式枚举
+     */
+    public enum ExportMode {
+        /**
+         * 使用 BaseServiceImpl 默认导出（一次性查出全部数据后写 Excel）
+         */
+        DEFAULT,
+
+        /**
+         * 流式导出：MyBatis ResultHandler 逐行读取、分批写入 Excel，内存占用与数据量无关；
+         * 同时生成异步导出接口（后台写临时文件，完成后按任务 ID 下载）
+         */
+        STREAM
+    }
+
+    /**
+     * 分页总数统计方式枚举（ESTIMATE、NONE 只在未设置查询条件时生效，有条件时仍精确 COUNT）
+     */
+    public enum CountMode {
+        /**
+         * 精确 COUNT（默认）
+         */
+        EXACT,
+
+        /**
+         * 使用 information_schema.TABLES.TABLE_ROWS 估算总数（带 TTL 缓存），前端显示“约 N 条”
+         */
+        ESTIMATE,
+
+        /**
+         * 不统计总数，只保证能翻到下一页，前端不显示总数
+         */
+        NONE
+    }
+}
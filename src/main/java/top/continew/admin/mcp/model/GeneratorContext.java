@@ -6,6 +6,7 @@ import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.TreeSet;
 
 /**
  * 代码生成上下文模型
@@ -91,7 +92,7 @@ public class GeneratorContext {
     /**
      * 需要 import 的类（额外的，如枚举、特殊类型）
      */
-    private Set<String> imports = new HashSet<>();
+    private Set<String> imports = new TreeSet<>();
 
     /**
      * 是否包含时间类型字段
@@ -103,6 +104,16 @@ public class GeneratorContext {
      */
     private boolean hasBigDecimalField = false;
 
+    /**
+     * 是否包含需要类型处理器的字段（如 json）
+     */
+    private boolean hasTypeHandlerField = false;
+
+    /**
+     * 类型处理器列表（全限定类名，实体类使用）
+     */
+    private Set<String> typeHandlers = new TreeSet<>();
+
     /**
      * 是否包含必填字段
      */
@@ -155,16 +166,122 @@ public class GeneratorContext {
      */
     private List<RelationConfig> joinRelations = new ArrayList<>();
 
+    /**
+     * 分页 SQL 中 LEFT JOIN 的关联列表（fetchMode = JOIN）
+     */
+    private List<RelationConfig> pageJoinRelations = new ArrayList<>();
+
+    /**
+     * 分页后按 ID 批量回填的关联列表（fetchMode = FILL）
+     */
+    private List<RelationConfig> fillRelations = new ArrayList<>();
+
+    /**
+     * 是否有需要回填的关联
+     */
+    private boolean hasFillRelation = false;
+
+    /**
+     * 回填关联中是否有启用进程内缓存的
+     */
+    private boolean hasCacheableFillRelation = false;
+
     /**
      * 一对多关联列表
      */
     private List<RelationConfig> oneToManyRelations = new ArrayList<>();
 
+    /**
+     * 删除主表时需级联删除子表的一对多关联（cascadeDelete = true）
+     */
+    private List<RelationConfig> cascadeDeleteRelations = new ArrayList<>();
+
+    /**
+     * 是否有需要级联删除的子表
+     */
+    private boolean hasCascadeDelete = false;
+
     /**
      * 多对多关联列表
      */
     private List<RelationConfig> manyToManyRelations = new ArrayList<>();
 
+    // ============== 生成选项 ==============
+
+    /**
+     * 生成选项
+     */
+    private GenerateOptions options = new GenerateOptions();
+
+    /**
+     * 表上是否已有以 create_time 开头的索引（游标分页依赖该索引）
+     */
+    private boolean keysetIndexed = false;
+
+    /**
+     * 是否建议生成本地缓存（数据量小且很少写入的表，未显式指定 cache 时给出提示）
+     */
+    private boolean cacheSuggested = false;
+
+    // ============== 分区配置 ==============
+
+    /**
+     * 分区表未传入时间范围时，默认查询最近的天数
+     */
+    public static final int DEFAULT_PARTITION_QUERY_DAYS = 90;
+
+    /**
+     * 是否为按 create_time 分区的表（查询时必须携带 create_time 范围以便分区裁剪）
+     */
+    private boolean partitioned = false;
+
+    /**
+     * 分区表默认查询最近的天数
+     */
+    private int partitionQueryDays = DEFAULT_PARTITION_QUERY_DAYS;
+
+    /**
+     * 是否生成游标分页接口
+     */
+    public boolean isKeysetPagination() {
+        return options.getPageMode() == GenerateOptions.PageMode.KEYSET;
+    }
+
+    /**
+     * 是否生成流式导出
+     */
+    public boolean isStreamExport() {
+        return options.getExportMode() == GenerateOptions.ExportMode.STREAM;
+    }
+
+    /**
+     * 是否生成批量写入接口
+     */
+    public boolean isBatchApi() {
+        return options.isBatchApi();
+    }
+
+    /**
+     * 未设置查询条件时是否跳过精确 COUNT（分区表分页总带创建时间条件，始终精确统计）
+     */
+    public boolean isApproximateCount() {
+        return options.getCountMode() != GenerateOptions.CountMode.EXACT && !partitioned;
+    }
+
+    /**
+     * 是否生成对象转换类
+     */
+    public boolean isConverter() {
+        return options.isConverter();
+    }
+
+    /**
+     * 是否生成本地缓存
+     */
+    public boolean isLocalCache() {
+        return Boolean.TRUE.equals(options.getCache());
+    }
+
     /**
      * 根据字段配置自动计算辅助标记
      */
@@ -180,6 +297,12 @@ public class GeneratorContext {
                 if (type.contains("BigDecimal")) {
                     this.hasBigDecimalField = true;
                 }
+                if (type.equals("BigInteger")) {
+                    this.imports.add("java.math.BigInteger");
+                }
+                if (type.startsWith("Map<")) {
+                    this.imports.add("java.util.Map");
+                }
             }
             if (field.getDictCode() != null && !field.getDictCode().isBlank()) {
                 this.hasDictField = true;
@@ -190,6 +313,10 @@ public class GeneratorContext {
                 this.hasLocalOptions = true;
                 localOptionsSet.add(field.getLocalOptionsName());
             }
+            if (field.getTypeHandler() != null && !field.getTypeHandler().isBlank()) {
+                this.hasTypeHandlerField = true;
+                this.typeHandlers.add(field.getTypeHandler());
+            }
             if (field.isRequired()) {
                 this.hasRequiredField = true;
             }
@@ -203,10 +330,21 @@ public class GeneratorContext {
                 case JOIN -> {
                     this.hasJoinRelation = true;
                     this.joinRelations.add(relation);
+                    if (relation.getFetchMode() == RelationConfig.FetchMode.FILL) {
+                        this.hasFillRelation = true;
+                        this.hasCacheableFillRelation |= relation.isCacheable();
+                        this.fillRelations.add(relation);
+                    } else {
+                        this.pageJoinRelations.add(relation);
+                    }
                 }
                 case ONE_TO_MANY -> {
                     this.hasOneToManyRelation = true;
                     this.oneToManyRelations.add(relation);
+                    if (relation.isCascadeDelete()) {
+                        this.hasCascadeDelete = true;
+                        this.cascadeDeleteRelations.add(relation);
+                    }
                 }
                 case MANY_TO_MANY -> {
                     this.hasManyToManyRelation = true;
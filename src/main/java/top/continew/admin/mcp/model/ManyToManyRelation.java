@@ -0,0 +1,32 @@
+package top.continew.admin.mcp.model;
+
+import lombok.Data;
+
+/**
+ * 多对多关系（通过中间表关联）
+ *
+ * @author AI Generator
+ */
+@Data
+public class ManyToManyRelation {
+
+    /**
+     * 中间表
+     */
+    private String middleTable;
+
+    /**
+     * 中间表中指向当前表的字段（如 role_id）
+     */
+    private String middleSourceColumn;
+
+    /**
+     * 中间表中指向目标表的字段（如 menu_id）
+     */
+    private String middleTargetColumn;
+
+    /**
+     * 目标表
+     */
+    private String targetTable;
+}
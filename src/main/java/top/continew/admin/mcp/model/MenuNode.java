@@ -0,0 +1,47 @@
+package top.continew.admin.mcp.model;
+
+import lombok.Data;
+
+/**
+ * 菜单节点（内存菜单索引使用）
+ *
+ * @author AI Generator
+ */
+@Data
+public class MenuNode {
+
+    /**
+     * 菜单 ID
+     */
+    private Long id;
+
+    /**
+     * 父菜单 ID
+     */
+    private Long parentId;
+
+    /**
+     * 菜单标题
+     */
+    private String title;
+
+    /**
+     * 菜单类型：1-目录，2-菜单
+     */
+    private Integer type;
+
+    /**
+     * 路由地址
+     */
+    private String path;
+
+    /**
+     * 路由名称
+     */
+    private String name;
+
+    /**
+     * 排序
+     */
+    private Integer sort;
+}
@@ -1,16 +1,14 @@
 package top.continew.admin.mcp.model;
 
 import lombok.Data;
-import org.springframework.stereotype.Component;
 
 /**
  * 项目路径配置
- * <p>用于存储用户配置的前后端代码存放路径</p>
+ * <p>用于存储用户配置的前后端代码存放路径，按 MCP 会话隔离（见 ProjectPathSessionService）</p>
  *
  * @author AI Generator
  */
 @Data
-@Component
 public class ProjectPathConfig {
 
     /**
@@ -2,6 +2,8 @@ package top.continew.admin.mcp.model;
 
 import lombok.Data;
 
+import java.util.List;
+
 /**
  * 表关联配置模型
  *
@@ -60,6 +62,46 @@ public class RelationConfig {
      */
     private boolean cascadeDelete = false;
 
+    /**
+     * 关联数据获取方式（仅 JOIN 类型有效，默认 JOIN）
+     */
+    private FetchMode fetchMode = FetchMode.JOIN;
+
+    /**
+     * FILL 方式下是否在进程内缓存关联数据（适合分类、品牌等数据量小且很少变化的表）
+     */
+    private boolean cacheable = false;
+
+    /**
+     * 中间表（仅 MANY_TO_MANY 类型有效，如 biz_article_tag）
+     */
+    private String middleTable;
+
+    /**
+     * 中间表中指向当前表的字段（仅 MANY_TO_MANY 类型有效，如 article_id）
+     */
+    private String middleSourceColumn;
+
+    /**
+     * 中间表中指向目标表的字段（仅 MANY_TO_MANY 类型有效，如 tag_id）
+     */
+    private String middleTargetColumn;
+
+    /**
+     * 当前表关联字段的 Java 类型（仅 FILL 方式有效，生成时按当前表结构解析，如 Long、Integer）
+     */
+    private String sourceFieldType;
+
+    /**
+     * 子表外键字段的 Java 类型（仅 ONE_TO_MANY 类型有效，生成时按子表结构解析，如 Long、Integer）
+     */
+    private String targetFieldType;
+
+    /**
+     * 查询子表时读取的列（仅 ONE_TO_MANY 类型有效，生成时按子表结构解析，与子表 Resp 字段一致）
+     */
+    private List<String> targetSelectColumns;
+
     /**
      * 关联类型枚举
      */
@@ -82,4 +124,20 @@ public class RelationConfig {
          */
         MANY_TO_MANY
     }
+
+    /**
+     * 关联数据获取方式
+     */
+    public enum FetchMode {
+        /**
+         * 分页 SQL 中 LEFT JOIN 目标表，一次查询得到显示字段
+         */
+        JOIN,
+
+        /**
+         * 分页只查主表，再按当前页的外键值 IN 查询目标表回填显示字段
+         * 适合大表：分页和 COUNT 不再跨表，每页只多 1 次按主键的查询
+         */
+        FILL
+    }
 }
@@ -0,0 +1,29 @@
+package top.continew.admin.mcp.model;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 按表关系聚类得到的建议模块
+ *
+ * @author AI Generator
+ */
+@Data
+public class SchemaModule {
+
+    /**
+     * 建议的模块名（取模块内表名出现最多的业务前缀，如 biz_order_item -> order）
+     */
+    private String name;
+
+    /**
+     * 模块内的表（按表名排序）
+     */
+    private List<String> tables;
+
+    /**
+     * 模块内部的关系数
+     */
+    private int relationCount;
+}
@@ -0,0 +1,42 @@
+package top.continew.admin.mcp.model;
+
+import lombok.Data;
+
+/**
+ * 表关系（子表.外键字段 -> 父表.主键），用于内存关系图
+ *
+ * @author AI Generator
+ */
+@Data
+public class TableRelation {
+
+    /**
+     * 持有外键字段的表（子表）
+     */
+    private String sourceTable;
+
+    /**
+     * 外键字段（如 category_id）
+     */
+    private String sourceColumn;
+
+    /**
+     * 外键字段注释
+     */
+    private String comment;
+
+    /**
+     * 被引用的表（父表）
+     */
+    private String targetTable;
+
+    /**
+     * 被引用的字段（如 id）
+     */
+    private String targetColumn;
+
+    /**
+     * 是否为数据库声明的外键（false 表示根据 xxx_id 命名推断）
+     */
+    private boolean declared;
+}
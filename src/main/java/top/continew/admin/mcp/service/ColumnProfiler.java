@@ -0,0 +1,201 @@
+package top.continew.admin.mcp.service;
+
+import cn.hutool.cache.CacheUtil;
+import cn.hutool.cache.impl.TimedCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import top.continew.admin.mcp.config.GeneratorProperties;
+import top.continew.admin.mcp.model.ColumnProfile;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * 字段数据画像服务（需显式启用）
+ * <p>优先使用 information_schema.STATISTICS 中索引首列的基数（不访问业务数据）；
+ * 其余字段对最近 N 行（单列主键时按主键倒序，沿主键索引反向读取，反映当前数据而非最早写入的数据；
+ * 复合主键或无主键时为存储顺序的前 N 行，可能偏向历史数据）做一次聚合抽样（LIMIT 限制行数，
+ * MAX_EXECUTION_TIME 与 JDBC 超时限制耗时），得到不同取值数与空值率；整数/短字符串字段同时取回抽样中的不同取值，
+ * 低基数时用作本地下拉选项。抽样不是均匀随机抽样（ORDER BY RAND() 需要全表扫描）。
+ * 每张表的画像按 TTL 缓存，大表不会被重复扫描</p>
+ *
+ * @author AI Generator
+ */
+@Slf4j
+@Service
+public class ColumnProfiler {
+
+    /**
+     * 不参与抽样的类型（大字段对基数推断无意义，且读取代价高）
+     */
+    private static final Set<String> SKIPPED_TYPES = Set.of("text", "mediumtext", "longtext", "tinytext", "blob",
+        "mediumblob", "longblob", "tinyblob", "json", "geometry", "binary", "varbinary");
+
+    /**
+     * 抽样时取回不同取值的类型（可作为本地下拉选项）
+     */
+    private static final Set<String> OPTION_TYPES = Set.of("tinyint", "smallint", "mediumint", "int", "char",
+        "varchar");
+
+    /**
+     * 抽样取值的分隔符（0x1F，业务数据中基本不会出现）
+     */
+    private static final String VALUE_SEPARATOR = "\u001F";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate sampleJdbcTemplate;
+    private final GeneratorProperties properties;
+
+    /**
+     * 表名 -> 字段名 -> 画像
+     */
+    private final TimedCache<String, Map<String, ColumnProfile>> profileCache;
+
+    /**
+     * 同一张表的并发画像请求只抽样一次
+     */
+    private final SingleFlight<String, Map<String, ColumnProfile>> profileFlight = new SingleFlight<>();
+
+    public ColumnProfiler(JdbcTemplate jdbcTemplate, GeneratorProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+        this.profileCache = CacheUtil.newTimedCache(properties.getProfile().getTtl().toMillis());
+        // 抽样查询使用独立的 JdbcTemplate，带查询超时，不影响其他查询
+        this.sampleJdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.sampleJdbcTemplate.setQueryTimeout((int) Math.max(1, properties.getProfile().getTimeout().toSeconds()));
+    }
+
+    /**
+     * 是否启用
+     */
+    public boolean isEnabled() {
+        return properties.getProfile().isEnabled();
+    }
+
+    /**
+     * 获取表的字段画像（未启用或画像失败时返回空 Map）
+     *
+     * @param tableName 表名
+     * @return 字段名 -> 画像
+     */
+    public Map<String, ColumnProfile> profile(String tableName) {
+        if (!isEnabled() || tableName == null || tableName.contains("`")) {
+            return Map.of();
+        }
+        Map<String, ColumnProfile> cached = profileCache.get(tableName, false);
+        if (cached != null) {
+            return cached;
+        }
+        return profileFlight.execute(tableName, () -> {
+            Map<String, ColumnProfile> profiles;
+            try {
+                profiles = Collections.unmodifiableMap(doProfile(tableName));
+            } catch (Exception e) {
+                log.warn("表 {} 字段画像失败，按字段名推断: {}", tableName, e.getMessage());
+                profiles = Map.of();
+            }
+            // 失败时同样缓存空结果，避免对慢表反复抽样
+            profileCache.put(tableName, profiles);
+            return profiles;
+        });
+    }
+
+    /**
+     * 清空画像缓存（表结构变更后调用）
+     */
+    public void evict() {
+        profileCache.clear();
+    }
+
+    private Map<String, ColumnProfile> doProfile(String tableName) {
+        GeneratorProperties.Profile config = properties.getProfile();
+        Map<String, ColumnProfile> profiles = new HashMap<>();
+
+        // 1. 索引首列的基数（InnoDB 统计信息，不访问业务数据）
+        Long tableRows = jdbcTemplate.queryForObject("SELECT MAX(TABLE_ROWS) FROM information_schema.TABLES " +
+            "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ?", Long.class, tableName);
+        if (tableRows != null && tableRows > 0) {
+            jdbcTemplate.query("SELECT COLUMN_NAME, MAX(CARDINALITY) AS CARDINALITY FROM information_schema.STATISTICS " +
+                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND SEQ_IN_INDEX = 1 AND CARDINALITY IS NOT NULL " +
+                "GROUP BY COLUMN_NAME", rs -> {
+                ColumnProfile profile = new ColumnProfile();
+                profile.setDistinctCount(rs.getLong("CARDINALITY"));
+                profile.setRowCount(tableRows);
+                profile.setSource("STATISTICS");
+                profiles.put(rs.getString("COLUMN_NAME"), profile);
+            }, tableName);
+        }
+
+        // 2. 其余字段：对最近 sampleSize 行做一次聚合抽样
+        List<String> columns = new ArrayList<>();
+        Set<String> optionColumns = new HashSet<>();
+        List<String> primaryKeys = new ArrayList<>();
+        jdbcTemplate.query("SELECT COLUMN_NAME, DATA_TYPE, COLUMN_KEY FROM information_schema.COLUMNS " +
+            "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? ORDER BY ORDINAL_POSITION", rs -> {
+            String columnName = rs.getString("COLUMN_NAME");
+            if (columnName.contains("`")) {
+                return;
+            }
+            if ("PRI".equals(rs.getString("COLUMN_KEY"))) {
+                primaryKeys.add(columnName);
+            } else if (!SKIPPED_TYPES.contains(rs.getString("DATA_TYPE"))) {
+                columns.add(columnName);
+                if (OPTION_TYPES.contains(rs.getString("DATA_TYPE"))) {
+                    optionColumns.add(columnName);
+                }
+            }
+        }, tableName);
+        if (columns.isEmpty()) {
+            return profiles;
+        }
+
+        StringBuilder sql = new StringBuilder("SELECT /*+ MAX_EXECUTION_TIME(")
+            .append(config.getTimeout().toMillis())
+            .append(") */ COUNT(*) AS sample_rows");
+        for (int i = 0; i < columns.size(); i++) {
+            String column = "`" + columns.get(i) + "`";
+            sql.append(", COUNT(DISTINCT ").append(column).append(") AS d").append(i);
+            sql.append(", SUM(").append(column).append(" IS NULL) AS n").append(i);
+            if (optionColumns.contains(columns.get(i))) {
+                // 结果受 group_concat_max_len 截断，解析后的取值数与 COUNT(DISTINCT) 不一致时丢弃
+                sql.append(", GROUP_CONCAT(DISTINCT ").append(column).append(" ORDER BY ").append(column)
+                    .append(" SEPARATOR 0x1F) AS v").append(i);
+            }
+        }
+        sql.append(" FROM (SELECT ").append(String.join(", ", columns.stream().map(c -> "`" + c + "`").toList()));
+        sql.append(" FROM `").append(tableName).append('`');
+        if (primaryKeys.size() == 1) {
+            sql.append(" ORDER BY `").append(primaryKeys.get(0)).append("` DESC");
+        }
+        sql.append(" LIMIT ?) s");
+
+        long start = System.currentTimeMillis();
+        Map<String, Object> row = sampleJdbcTemplate.queryForMap(sql.toString(), config.getSampleSize());
+        long sampleRows = ((Number) row.get("sample_rows")).longValue();
+        for (int i = 0; i < columns.size(); i++) {
+            ColumnProfile profile = profiles.get(columns.get(i));
+            long nullCount = row.get("n" + i) == null ? 0 : ((Number) row.get("n" + i)).longValue();
+            long sampleDistinct = ((Number) row.get("d" + i)).longValue();
+            if (profile == null) {
+                profile = new ColumnProfile();
+                profile.setDistinctCount(sampleDistinct);
+                profile.setRowCount(sampleRows);
+                profile.setSource("SAMPLE");
+                profiles.put(columns.get(i), profile);
+            }
+            profile.setNullRatio(sampleRows == 0 ? null : (double) nullCount / sampleRows);
+            Object joined = row.get("v" + i);
+            if (sampleDistinct > 0 && sampleDistinct <= config.getLowCardinality() && joined != null) {
+                // 整数列的 GROUP_CONCAT 结果可能以二进制串返回
+                String text = joined instanceof byte[] bytes ? new String(bytes, StandardCharsets.UTF_8) : joined.toString();
+                List<String> values = List.of(text.split(VALUE_SEPARATOR, -1));
+                if (values.size() == sampleDistinct) {
+                    profile.setSampleValues(values);
+                }
+            }
+        }
+        log.debug("表 {} 字段画像完成，抽样 {} 行，耗时 {} ms", tableName, sampleRows, System.currentTimeMillis() - start);
+        return profiles;
+    }
+}
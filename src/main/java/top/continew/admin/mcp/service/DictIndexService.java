@@ -0,0 +1,202 @@
+package top.continew.admin.mcp.service;
+
+import cn.hutool.core.util.StrUtil;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import top.continew.admin.mcp.config.GeneratorProperties;
+import top.continew.admin.mcp.model.DictInfo;
+
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * 字典索引服务
+ * <p>通过一次 sys_dict + sys_dict_item 联表查询加载全部字典并在内存中分组，
+ * 仅在字典数据变更时重新加载；listDicts 过滤与字段-字典自动匹配均由此提供</p>
+ *
+ * @author AI Generator
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DictIndexService {
+
+    /**
+     * 常见映射：字段名 -> 字典编码
+     */
+    private static final Map<String, String> COMMON_MAPPINGS = Map.of(
+        "status", "sys_status",
+        "gender", "sys_gender"
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+    private final GeneratorProperties properties;
+
+    /**
+     * 按间隔检测变更（刷新失败时不推进检测时间，下次访问重试）
+     */
+    private final PeriodicRefresher refresher = new PeriodicRefresher("系统字典",
+        this::refreshInterval, this::refresh);
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    /**
+     * 字典快照
+     *
+     * @param dicts          字典列表（按排序）
+     * @param codes          字典编码集合
+     * @param compactCodes   去掉下划线的编码 -> 编码（用于模糊匹配，保持字典排序）
+     * @param fingerprint    变更指纹
+     */
+    private record Snapshot(List<DictInfo> dicts, Set<String> codes, Map<String, String> compactCodes, String fingerprint) {
+        static final Snapshot EMPTY = new Snapshot(List.of(), Set.of(), Map.of(), null);
+    }
+
+    /**
+     * 获取全部字典
+     *
+     * @throws IllegalStateException 字典从未加载成功
+     */
+    public List<DictInfo> listAll() {
+        return current().dicts();
+    }
+
+    /**
+     * 按编码前缀、关键字（编码/名称/描述/字典项标签）过滤字典
+     *
+     * @throws IllegalStateException 字典从未加载成功
+     */
+    public List<DictInfo> list(String codePrefix, String keyword) {
+        List<DictInfo> result = new ArrayList<>();
+        for (DictInfo dict : current().dicts()) {
+            if (StrUtil.isNotBlank(codePrefix) && !StrUtil.startWithIgnoreCase(dict.getCode(), codePrefix.trim())) {
+                continue;
+            }
+            if (StrUtil.isNotBlank(keyword) && !matchesKeyword(dict, keyword.trim())) {
+                continue;
+            }
+            result.add(dict);
+        }
+        return result;
+    }
+
+    /**
+     * 根据字段名自动匹配字典编码
+     * 匹配规则：
+     * 1. 字段名完全等于字典编码
+     * 2. status 字段 -> sys_status，gender 字段 -> sys_gender
+     * 3. 字段名包含字典编码（去掉下划线）
+     */
+    public String matchDictCode(String columnName) {
+        Snapshot current;
+        try {
+            current = current();
+        } catch (IllegalStateException e) {
+            // 自动匹配只是辅助推断，字典不可用时不影响代码生成
+            return null;
+        }
+        if (current.codes().isEmpty()) {
+            return null;
+        }
+        String lowerName = columnName.toLowerCase();
+
+        // 精确匹配：字段名完全等于字典编码
+        if (current.codes().contains(lowerName)) {
+            return lowerName;
+        }
+
+        // 常见映射
+        String mapped = COMMON_MAPPINGS.get(lowerName);
+        if (mapped != null && current.codes().contains(mapped)) {
+            return mapped;
+        }
+
+        // 模糊匹配：字段名包含字典编码
+        for (Map.Entry<String, String> entry : current.compactCodes().entrySet()) {
+            if (lowerName.contains(entry.getKey())) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
+    private boolean matchesKeyword(DictInfo dict, String keyword) {
+        if (StrUtil.containsIgnoreCase(dict.getCode(), keyword) || StrUtil.containsIgnoreCase(dict.getName(), keyword)
+            || StrUtil.containsIgnoreCase(dict.getDescription(), keyword)) {
+            return true;
+        }
+        for (DictInfo.Item item : dict.getItems()) {
+            if (StrUtil.containsIgnoreCase(item.getLabel(), keyword)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 获取当前快照，超过检测间隔时先检测变更
+     */
+    private Snapshot current() {
+        refresher.refreshIfDue();
+        return snapshot;
+    }
+
+    private Duration refreshInterval() {
+        return properties.getCache().getRefreshInterval();
+    }
+
+    /**
+     * 根据两张表的记录数与最近修改时间判断是否变更，变更时通过一次联表查询重新加载
+     */
+    private void refresh() {
+        Map<String, Object> stamp = jdbcTemplate.queryForMap("SELECT " +
+            "(SELECT COUNT(*) FROM sys_dict) AS dict_cnt, " +
+            "(SELECT MAX(COALESCE(update_time, create_time)) FROM sys_dict) AS dict_modified, " +
+            "(SELECT COUNT(*) FROM sys_dict_item) AS item_cnt, " +
+            "(SELECT MAX(COALESCE(update_time, create_time)) FROM sys_dict_item) AS item_modified");
+        String fingerprint = stamp.get("dict_cnt") + "|" + stamp.get("dict_modified") + "|"
+            + stamp.get("item_cnt") + "|" + stamp.get("item_modified");
+        if (fingerprint.equals(snapshot.fingerprint())) {
+            return;
+        }
+
+        String sql = "SELECT d.id, d.code, d.name, d.description, di.label, di.value " +
+            "FROM sys_dict d LEFT JOIN sys_dict_item di ON di.dict_id = d.id AND di.status = 1 " +
+            "WHERE d.status = 1 ORDER BY d.sort, d.id, di.sort";
+        Map<Long, DictInfo> grouped = new LinkedHashMap<>();
+        jdbcTemplate.query(sql, rs -> {
+            long id = rs.getLong("id");
+            DictInfo dict = grouped.get(id);
+            if (dict == null) {
+                dict = new DictInfo();
+                dict.setId(id);
+                dict.setCode(rs.getString("code"));
+                dict.setName(rs.getString("name"));
+                dict.setDescription(rs.getString("description"));
+                grouped.put(id, dict);
+            }
+            String label = rs.getString("label");
+            if (label != null) {
+                DictInfo.Item item = new DictInfo.Item();
+                item.setLabel(label);
+                item.setValue(rs.getString("value"));
+                dict.getItems().add(item);
+            }
+        });
+
+        List<DictInfo> dicts = List.copyOf(grouped.values());
+        Set<String> codes = new HashSet<>();
+        Map<String, String> compactCodes = new LinkedHashMap<>();
+        for (DictInfo dict : dicts) {
+            if (dict.getCode() == null) {
+                continue;
+            }
+            codes.add(dict.getCode());
+            compactCodes.putIfAbsent(dict.getCode().replace("_", ""), dict.getCode());
+        }
+        snapshot = new Snapshot(dicts, Set.copyOf(codes), Collections.unmodifiableMap(compactCodes), fingerprint);
+        log.info("系统字典加载完成，共 {} 个字典", dicts.size());
+    }
+}
@@ -0,0 +1,431 @@
+package top.continew.admin.mcp.service;
+
+import cn.hutool.core.util.StrUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+import org.yaml.snakeyaml.Yaml;
+import top.continew.admin.mcp.config.GeneratorProperties;
+import top.continew.admin.mcp.model.FieldConfig;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * 字段推断规则
+ * <p>从 YAML 决策表（默认 classpath:inference-rules.yml）加载基类字段、表前缀、类型映射、表单/查询规则，
+ * 启动时编译为前缀树（表前缀、基类字段）与 Aho-Corasick 关键字自动机（表单/查询规则），
+ * 逐字段推断只做数组查找，不区分大小写且不创建临时对象</p>
+ *
+ * @author AI Generator
+ */
+@Slf4j
+@Service
+public class InferenceRules {
+
+    private final Trie baseFields;
+    private final List<String> baseFieldNames;
+    private final Trie tablePrefixes;
+    private final Map<String, String> columnTypes;
+    private final Map<String, String> unsignedJavaTypes;
+    private final Map<String, String> javaTypes;
+    private final Map<String, String> typeHandlers;
+    private final Map<String, String> tsTypes;
+    private final Set<String> largeColumnTypes;
+
+    private final KeywordMatcher formKeywords;
+    private final String[] formRuleValues;
+    private final Map<String, String> formByJavaType;
+    private final String formDefault;
+
+    private final KeywordMatcher queryKeywords;
+    private final QueryRule[] queryRuleValues;
+    private final Map<String, QueryRule> queryByJavaType;
+    private final QueryRule queryDefault;
+
+    /**
+     * 查询配置
+     *
+     * @param show 是否作为查询条件
+     * @param type 查询方式（EQ、LIKE、BETWEEN 等）
+     */
+    public record QueryRule(boolean show, String type) {
+    }
+
+    public InferenceRules(GeneratorProperties properties) {
+        Map<String, Object> root = load(properties.getInferenceRules());
+
+        this.baseFieldNames = List.copyOf(stringList(root.get("base-fields")));
+        this.baseFields = new Trie(baseFieldNames);
+        this.tablePrefixes = new Trie(stringList(root.get("table-prefixes")));
+        this.columnTypes = lowerCaseKeys(stringMap(root.get("column-types")));
+        this.unsignedJavaTypes = lowerCaseKeys(stringMap(root.get("unsigned-java-types")));
+        this.javaTypes = lowerCaseKeys(stringMap(root.get("java-types")));
+        this.typeHandlers = lowerCaseKeys(stringMap(root.get("type-handlers")));
+        this.tsTypes = stringMap(root.get("ts-types"));
+        this.largeColumnTypes = stringList(root.get("large-column-types")).stream().map(String::toLowerCase)
+            .collect(Collectors.toUnmodifiableSet());
+
+        Map<String, Object> form = objectMap(root.get("form-type"));
+        List<Map<String, Object>> formRules = mapList(form.get("rules"));
+        this.formKeywords = new KeywordMatcher(formRules.stream().map(r -> stringList(r.get("keywords"))).toList());
+        this.formRuleValues = formRules.stream().map(r -> String.valueOf(r.get("value"))).toArray(String[]::new);
+        this.formByJavaType = stringMap(form.get("by-java-type"));
+        this.formDefault = StrUtil.toStringOrNull(form.getOrDefault("default", "INPUT"));
+
+        Map<String, Object> query = objectMap(root.get("query"));
+        List<Map<String, Object>> queryRules = mapList(query.get("rules"));
+        this.queryKeywords = new KeywordMatcher(queryRules.stream().map(r -> stringList(r.get("keywords"))).toList());
+        this.queryRuleValues = queryRules.stream().map(InferenceRules::toQueryRule).toArray(QueryRule[]::new);
+        Map<String, QueryRule> byJavaType = new HashMap<>();
+        objectMap(query.get("by-java-type")).forEach((k, v) -> byJavaType.put(k, toQueryRule(objectMap(v))));
+        this.queryByJavaType = byJavaType;
+        this.queryDefault = query.containsKey("default")
+            ? toQueryRule(objectMap(query.get("default")))
+            : new QueryRule(false, "EQ");
+
+        log.info("字段推断规则加载完成：{}，表单规则 {} 条，查询规则 {} 条", properties.getInferenceRules(),
+            formRuleValues.length, queryRuleValues.length);
+    }
+
+    /**
+     * 是否为基类字段（TenantBaseDO 中已定义的）
+     */
+    public boolean isBaseField(String columnName) {
+        return baseFields.containsExactly(columnName);
+    }
+
+    /**
+     * 基类字段列表（用于在 SQL 中直接排除）
+     */
+    public List<String> getBaseFieldNames() {
+        return baseFieldNames;
+    }
+
+    /**
+     * 移除表名前缀（如 sys_, t_, biz_ 等，多个前缀匹配时取最长的）
+     */
+    public String removeTablePrefix(String tableName) {
+        return tableName.substring(tablePrefixes.longestPrefix(tableName));
+    }
+
+    /**
+     * 数据库类型映射到 Java 类型：完整列类型（如 tinyint(1)）> 无符号放宽（如 int unsigned -> Long）> 数据类型
+     *
+     * @param dataType   DATA_TYPE，如 int
+     * @param columnType COLUMN_TYPE，如 int(10) unsigned
+     */
+    public String toJavaType(String dataType, String columnType) {
+        if (dataType == null) {
+            return "String";
+        }
+        // information_schema 返回的类型为小写，命中时无需转换
+        String type = lower(dataType);
+        if (columnType != null) {
+            String javaType = columnTypes.get(lower(columnType));
+            if (javaType != null) {
+                return javaType;
+            }
+            if (columnType.endsWith(" unsigned") || columnType.contains(" unsigned ")) {
+                javaType = unsignedJavaTypes.get(type);
+                if (javaType != null) {
+                    return javaType;
+                }
+            }
+        }
+        String javaType = javaTypes.get(type);
+        return javaType != null ? javaType : "String";
+    }
+
+    /**
+     * 数据库类型需要的 MyBatis-Plus 类型处理器（全限定类名），不需要时返回 null
+     */
+    public String typeHandler(String dataType) {
+        return dataType == null ? null : typeHandlers.get(lower(dataType));
+    }
+
+    /**
+     * 是否为大字段类型（text、blob、json 等），列表查询不读取
+     */
+    public boolean isLargeColumn(String dataType) {
+        return dataType != null && largeColumnTypes.contains(lower(dataType));
+    }
+
+    /**
+     * Java 类型映射到 TypeScript 类型
+     */
+    public String toTsType(String javaType) {
+        if (javaType == null) {
+            return "string";
+        }
+        return tsTypes.getOrDefault(javaType, "string");
+    }
+
+    /**
+     * 推断表单类型：先按字段名关键字，再按 Java 类型
+     * 注意：SELECT/RADIO 类型需要有 dictCode 才能正常工作，因此不会推断为 SELECT，而是由字典匹配来设置
+     */
+    public String inferFormType(String columnName, String javaType) {
+        int rule = formKeywords.match(columnName);
+        if (rule >= 0) {
+            return formRuleValues[rule];
+        }
+        String formType = javaType != null ? formByJavaType.get(javaType) : null;
+        return formType != null ? formType : formDefault;
+    }
+
+    /**
+     * 推断字段的查询配置：先按字段名关键字，再按 Java 类型
+     */
+    public void applyQueryConfig(FieldConfig field) {
+        int rule = queryKeywords.match(field.getColumnName());
+        QueryRule queryRule = rule >= 0 ? queryRuleValues[rule] : null;
+        if (queryRule == null && field.getFieldType() != null) {
+            queryRule = queryByJavaType.get(field.getFieldType());
+        }
+        if (queryRule == null) {
+            queryRule = queryDefault;
+        }
+        field.setShowInQuery(queryRule.show());
+        field.setQueryType(queryRule.type());
+    }
+
+    private static Map<String, Object> load(String location) {
+        Resource resource = new DefaultResourceLoader().getResource(location);
+        try (InputStream is = resource.getInputStream()) {
+            Map<String, Object> root = new Yaml().load(is);
+            return root != null ? root : Map.of();
+        } catch (IOException e) {
+            throw new IllegalStateException("加载字段推断规则失败: " + location, e);
+        }
+    }
+
+    private static QueryRule toQueryRule(Map<String, Object> rule) {
+        return new QueryRule(Boolean.TRUE.equals(rule.get("show")), String.valueOf(rule.getOrDefault("type", "EQ")));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> objectMap(Object value) {
+        return value instanceof Map<?, ?> map ? (Map<String, Object>) map : Map.of();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> mapList(Object value) {
+        return value instanceof List<?> list ? (List<Map<String, Object>>) list : List.of();
+    }
+
+    private static List<String> stringList(Object value) {
+        if (!(value instanceof List<?> list)) {
+            return List.of();
+        }
+        return list.stream().map(String::valueOf).toList();
+    }
+
+    private static Map<String, String> stringMap(Object value) {
+        Map<String, String> result = new HashMap<>();
+        objectMap(value).forEach((k, v) -> result.put(k, String.valueOf(v)));
+        return result;
+    }
+
+    private static Map<String, String> lowerCaseKeys(Map<String, String> map) {
+        Map<String, String> result = new HashMap<>();
+        map.forEach((k, v) -> result.put(k.toLowerCase(), v));
+        return result;
+    }
+
+    /**
+     * 转为小写（已是小写时直接返回原字符串，不创建新对象）
+     */
+    private static String lower(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= 'A' && c <= 'Z') {
+                return value.toLowerCase();
+            }
+        }
+        return value;
+    }
+
+    /**
+     * ASCII 字母不区分大小写的字符编号，非 ASCII 字符返回 -1
+     */
+    private static int charIndex(char c) {
+        if (c >= 128) {
+            return -1;
+        }
+        return c >= 'A' && c <= 'Z' ? c + ('a' - 'A') : c;
+    }
+
+    /**
+     * 不区分大小写的前缀树（用于表前缀与基类字段）
+     */
+    private static final class Trie {
+
+        private final int[][] next;
+        private final boolean[] terminal;
+
+        Trie(List<String> words) {
+            List<int[]> nodes = new ArrayList<>();
+            List<Boolean> ends = new ArrayList<>();
+            nodes.add(newNode());
+            ends.add(false);
+            for (String word : words) {
+                int state = 0;
+                for (int i = 0; i < word.length(); i++) {
+                    int c = charIndex(word.charAt(i));
+                    if (c < 0) {
+                        throw new IllegalStateException("字段推断规则只支持 ASCII 关键字: " + word);
+                    }
+                    if (nodes.get(state)[c] == 0) {
+                        nodes.get(state)[c] = nodes.size();
+                        nodes.add(newNode());
+                        ends.add(false);
+                    }
+                    state = nodes.get(state)[c];
+                }
+                ends.set(state, true);
+            }
+            this.next = nodes.toArray(new int[0][]);
+            this.terminal = new boolean[ends.size()];
+            for (int i = 0; i < terminal.length; i++) {
+                terminal[i] = ends.get(i);
+            }
+        }
+
+        /**
+         * 最长匹配前缀的长度，未匹配时为 0
+         */
+        int longestPrefix(String text) {
+            int state = 0;
+            int longest = 0;
+            for (int i = 0; i < text.length(); i++) {
+                int c = charIndex(text.charAt(i));
+                if (c < 0 || (state = next[state][c]) == 0) {
+                    break;
+                }
+                if (terminal[state]) {
+                    longest = i + 1;
+                }
+            }
+            return longest;
+        }
+
+        boolean containsExactly(String text) {
+            int state = 0;
+            for (int i = 0; i < text.length(); i++) {
+                int c = charIndex(text.charAt(i));
+                if (c < 0 || (state = next[state][c]) == 0) {
+                    return false;
+                }
+            }
+            return terminal[state];
+        }
+    }
+
+    /**
+     * 不区分大小写的多关键字匹配（Aho-Corasick 自动机，已展开为确定状态转移表）
+     * <p>只为关键字中出现过的字符分配列，其余字符统一视为"其他"，转移表为一维数组以减少缓存未命中；
+     * 一次扫描返回字段名命中的规则中序号最小的一条，即决策表中靠前的规则优先</p>
+     */
+    private static final class KeywordMatcher {
+
+        /**
+         * ASCII 字符 -> 列号（0 表示未在关键字中出现的字符）
+         */
+        private final byte[] column = new byte[128];
+        private final int width;
+        private final int[] next;
+        private final int[] rule;
+
+        KeywordMatcher(List<List<String>> keywordsByRule) {
+            int columns = 1;
+            for (List<String> keywords : keywordsByRule) {
+                for (String keyword : keywords) {
+                    for (int i = 0; i < keyword.length(); i++) {
+                        int c = charIndex(keyword.charAt(i));
+                        if (c < 0) {
+                            throw new IllegalStateException("字段推断规则只支持 ASCII 关键字: " + keyword);
+                        }
+                        if (column[c] == 0) {
+                            column[c] = (byte) columns++;
+                        }
+                    }
+                }
+            }
+            this.width = columns;
+
+            List<int[]> nodes = new ArrayList<>();
+            List<Integer> outputs = new ArrayList<>();
+            nodes.add(new int[width]);
+            outputs.add(Integer.MAX_VALUE);
+            for (int r = 0; r < keywordsByRule.size(); r++) {
+                for (String keyword : keywordsByRule.get(r)) {
+                    int state = 0;
+                    for (int i = 0; i < keyword.length(); i++) {
+                        int c = column[charIndex(keyword.charAt(i))];
+                        if (nodes.get(state)[c] == 0) {
+                            nodes.get(state)[c] = nodes.size();
+                            nodes.add(new int[width]);
+                            outputs.add(Integer.MAX_VALUE);
+                        }
+                        state = nodes.get(state)[c];
+                    }
+                    outputs.set(state, Math.min(outputs.get(state), r));
+                }
+            }
+            this.rule = new int[nodes.size()];
+            for (int i = 0; i < rule.length; i++) {
+                rule[i] = outputs.get(i);
+            }
+
+            // BFS 计算失败指针，并将缺失的转移补全为失败状态的转移
+            int[] fail = new int[nodes.size()];
+            Deque<Integer> queue = new ArrayDeque<>();
+            for (int c = 1; c < width; c++) {
+                if (nodes.get(0)[c] != 0) {
+                    queue.add(nodes.get(0)[c]);
+                }
+            }
+            while (!queue.isEmpty()) {
+                int state = queue.poll();
+                rule[state] = Math.min(rule[state], rule[fail[state]]);
+                for (int c = 1; c < width; c++) {
+                    int child = nodes.get(state)[c];
+                    if (child != 0) {
+                        fail[child] = nodes.get(fail[state])[c];
+                        queue.add(child);
+                    } else {
+                        nodes.get(state)[c] = nodes.get(fail[state])[c];
+                    }
+                }
+            }
+            this.next = new int[nodes.size() * width];
+            for (int i = 0; i < nodes.size(); i++) {
+                System.arraycopy(nodes.get(i), 0, next, i * width, width);
+            }
+        }
+
+        /**
+         * 返回命中的最小规则序号，未命中返回 -1
+         */
+        int match(String text) {
+            int state = 0;
+            int best = Integer.MAX_VALUE;
+            for (int i = 0; i < text.length(); i++) {
+                int c = charIndex(text.charAt(i));
+                state = c < 0 ? 0 : next[state * width + column[c]];
+                if (rule[state] < best) {
+                    best = rule[state];
+                }
+            }
+            return best == Integer.MAX_VALUE ? -1 : best;
+        }
+    }
+
+    private static int[] newNode() {
+        return new int[128];
+    }
+}
@@ -0,0 +1,252 @@
+package top.continew.admin.mcp.service;
+
+import cn.hutool.core.util.StrUtil;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import top.continew.admin.mcp.config.GeneratorProperties;
+import top.continew.admin.mcp.model.MenuNode;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * 菜单索引服务
+ * <p>在内存中维护 sys_menu 的目录/菜单树，通过轮询 COUNT(*) + MAX(update_time) 检测变更并增量刷新，
+ * 支持按子树、路由前缀、标题关键字定位菜单，避免每次全表扫描</p>
+ *
+ * @author AI Generator
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MenuIndexService {
+
+    private static final String COLUMNS = "id, title, parent_id, type, path, name, sort, status";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final GeneratorProperties properties;
+
+    /**
+     * 按间隔检测变更（刷新失败时不推进检测时间，下次访问重试）
+     */
+    private final PeriodicRefresher refresher = new PeriodicRefresher("菜单索引",
+        this::refreshInterval, this::refresh);
+
+    /**
+     * 当前菜单快照（整体替换，读操作无锁）
+     */
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    /**
+     * 菜单树快照
+     *
+     * @param nodes         有效菜单（目录/菜单，已启用）
+     * @param children      父 ID -> 子菜单列表（已排序）
+     * @param roots         根菜单列表
+     * @param allIds        sys_menu 全部记录 ID（含按钮、禁用菜单，用于检测删除）
+     * @param lastModified  最近修改时间
+     */
+    private record Snapshot(Map<Long, MenuNode> nodes, Map<Long, List<MenuNode>> children, List<MenuNode> roots,
+                            Set<Long> allIds, Timestamp lastModified) {
+        static final Snapshot EMPTY = new Snapshot(Map.of(), Map.of(), List.of(), Set.of(), null);
+    }
+
+    /**
+     * 获取根菜单列表
+     */
+    public List<MenuNode> getRoots() {
+        return current().roots();
+    }
+
+    /**
+     * 获取子菜单列表
+     */
+    public List<MenuNode> getChildren(Long parentId) {
+        return current().children().getOrDefault(parentId, List.of());
+    }
+
+    /**
+     * 根据 ID 获取菜单
+     */
+    public MenuNode getById(Long id) {
+        return current().nodes().get(id);
+    }
+
+    /**
+     * 菜单总数（目录 + 菜单）
+     */
+    public int size() {
+        return current().nodes().size();
+    }
+
+    /**
+     * 根据路由前缀查找菜单
+     */
+    public List<MenuNode> findByPathPrefix(String pathPrefix) {
+        String prefix = StrUtil.addPrefixIfNot(pathPrefix.trim(), "/");
+        List<MenuNode> result = new ArrayList<>();
+        for (MenuNode node : current().nodes().values()) {
+            if (node.getPath() != null && node.getPath().startsWith(prefix)) {
+                result.add(node);
+            }
+        }
+        result.sort(Comparator.comparing(MenuNode::getPath));
+        return result;
+    }
+
+    /**
+     * 根据标题/路由名称关键字查找菜单
+     */
+    public List<MenuNode> search(String keyword) {
+        String kw = keyword.trim().toLowerCase();
+        List<MenuNode> result = new ArrayList<>();
+        for (MenuNode node : current().nodes().values()) {
+            if (StrUtil.containsIgnoreCase(node.getTitle(), kw) || StrUtil.containsIgnoreCase(node.getName(), kw)) {
+                result.add(node);
+            }
+        }
+        result.sort(Comparator.comparing(MenuNode::getId));
+        return result;
+    }
+
+    /**
+     * 获取菜单的标题路径，如：系统管理 / 用户管理
+     */
+    public String getTitlePath(MenuNode node) {
+        Map<Long, MenuNode> nodes = current().nodes();
+        Deque<String> titles = new ArrayDeque<>();
+        MenuNode cursor = node;
+        // 防御脏数据导致的环
+        int guard = 0;
+        while (cursor != null && guard++ < 32) {
+            titles.addFirst(cursor.getTitle());
+            cursor = nodes.get(cursor.getParentId());
+        }
+        return String.join(" / ", titles);
+    }
+
+    /**
+     * 获取当前快照，超过检测间隔时先检测变更
+     */
+    private Snapshot current() {
+        refresher.refreshIfDue();
+        return snapshot;
+    }
+
+    private Duration refreshInterval() {
+        return properties.getCache().getRefreshInterval();
+    }
+
+    /**
+     * 检测变更并刷新：无变化直接返回；仅有新增/修改时增量合并；存在删除时全量重建
+     */
+    private void refresh() {
+        Map<String, Object> stamp = jdbcTemplate.queryForMap(
+            "SELECT COUNT(*) AS cnt, MAX(COALESCE(update_time, create_time)) AS last_modified FROM sys_menu");
+        long count = ((Number) stamp.get("cnt")).longValue();
+        Timestamp lastModified = toTimestamp(stamp.get("last_modified"));
+
+        Snapshot old = snapshot;
+        if (old != Snapshot.EMPTY && count == old.allIds().size() && Objects.equals(lastModified, old.lastModified())) {
+            return;
+        }
+        if (old == Snapshot.EMPTY || old.lastModified() == null || count < old.allIds().size()) {
+            fullReload();
+            return;
+        }
+
+        List<Map<String, Object>> changed = jdbcTemplate.queryForList(
+            "SELECT " + COLUMNS + " FROM sys_menu WHERE COALESCE(update_time, create_time) >= ?", old.lastModified());
+        Map<Long, MenuNode> nodes = new HashMap<>(old.nodes());
+        Set<Long> allIds = new HashSet<>(old.allIds());
+        for (Map<String, Object> row : changed) {
+            Long id = ((Number) row.get("id")).longValue();
+            allIds.add(id);
+            if (isVisible(row)) {
+                nodes.put(id, toNode(row));
+            } else {
+                nodes.remove(id);
+            }
+        }
+        // 数量对不上说明同时发生了删除，回退为全量重建
+        if (allIds.size() != count) {
+            fullReload();
+            return;
+        }
+        snapshot = build(nodes, allIds, lastModified);
+        log.debug("菜单索引增量刷新完成，变更 {} 条", changed.size());
+    }
+
+    private void fullReload() {
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+            "SELECT " + COLUMNS + ", COALESCE(update_time, create_time) AS last_modified FROM sys_menu");
+        Map<Long, MenuNode> nodes = new HashMap<>();
+        Set<Long> allIds = new HashSet<>();
+        Timestamp lastModified = null;
+        for (Map<String, Object> row : rows) {
+            Long id = ((Number) row.get("id")).longValue();
+            allIds.add(id);
+            if (isVisible(row)) {
+                nodes.put(id, toNode(row));
+            }
+            Timestamp modified = toTimestamp(row.get("last_modified"));
+            if (modified != null && (lastModified == null || modified.after(lastModified))) {
+                lastModified = modified;
+            }
+        }
+        snapshot = build(nodes, allIds, lastModified);
+        log.info("菜单索引全量加载完成，共 {} 条记录，{} 个目录/菜单", allIds.size(), nodes.size());
+    }
+
+    private Snapshot build(Map<Long, MenuNode> nodes, Set<Long> allIds, Timestamp lastModified) {
+        Comparator<MenuNode> order = Comparator.comparing((MenuNode n) -> n.getSort() != null ? n.getSort() : Integer.MAX_VALUE)
+            .thenComparing(MenuNode::getId);
+        Map<Long, List<MenuNode>> children = new HashMap<>();
+        List<MenuNode> roots = new ArrayList<>();
+        for (MenuNode node : nodes.values()) {
+            if (node.getParentId() == null || !nodes.containsKey(node.getParentId())) {
+                roots.add(node);
+            } else {
+                children.computeIfAbsent(node.getParentId(), k -> new ArrayList<>()).add(node);
+            }
+        }
+        roots.sort(order);
+        children.values().forEach(list -> list.sort(order));
+        return new Snapshot(Map.copyOf(nodes), children, List.copyOf(roots), Set.copyOf(allIds), lastModified);
+    }
+
+    /**
+     * 只索引已启用的目录（1）和菜单（2）
+     */
+    private boolean isVisible(Map<String, Object> row) {
+        Object type = row.get("type");
+        Object status = row.get("status");
+        return type instanceof Number t && (t.intValue() == 1 || t.intValue() == 2)
+            && status instanceof Number s && s.intValue() == 1;
+    }
+
+    private MenuNode toNode(Map<String, Object> row) {
+        MenuNode node = new MenuNode();
+        node.setId(((Number) row.get("id")).longValue());
+        node.setParentId(row.get("parent_id") != null ? ((Number) row.get("parent_id")).longValue() : 0L);
+        node.setTitle((String) row.get("title"));
+        node.setType(((Number) row.get("type")).intValue());
+        node.setPath((String) row.get("path"));
+        node.setName((String) row.get("name"));
+        node.setSort(row.get("sort") != null ? ((Number) row.get("sort")).intValue() : null);
+        return node;
+    }
+
+    private Timestamp toTimestamp(Object value) {
+        if (value instanceof Timestamp ts) {
+            return ts;
+        }
+        if (value instanceof java.time.LocalDateTime ldt) {
+            return Timestamp.valueOf(ldt);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,100 @@
+package top.continew.admin.mcp.service;
+
+import cn.hutool.core.thread.ThreadFactoryBuilder;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import top.continew.admin.mcp.config.GeneratorProperties;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 元数据预取服务
+ * <p>AI 的典型调用顺序为 listTables → analyzeBusinessRelation → getTableColumns / getApiInfo，
+ * 因此在前两步之后于后台单线程、低优先级地预热后续可能访问的表的字段元数据与字典匹配，
+ * 使后续调用直接命中内存。队列满时直接丢弃新的预取任务，不影响前台请求</p>
+ *
+ * @author AI Generator
+ */
+@Slf4j
+@Service
+public class MetadataPrefetchService {
+
+    private final TemplateService templateService;
+    private final GeneratorProperties properties;
+
+    /**
+     * 已提交但未完成的表，避免重复预取
+     */
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+
+    private final ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(64),
+        ThreadFactoryBuilder.create().setNamePrefix("metadata-prefetch-").setDaemon(true)
+            .setPriority(Thread.MIN_PRIORITY).build(),
+        (task, pool) -> pending.remove(((PrefetchTask) task).tableName));
+
+    public MetadataPrefetchService(TemplateService templateService, GeneratorProperties properties) {
+        this.templateService = templateService;
+        this.properties = properties;
+    }
+
+    /**
+     * 异步预取指定表的字段元数据（未启用预取时忽略）
+     *
+     * @param tableNames 可能被后续调用访问的表
+     */
+    public void prefetch(Collection<String> tableNames) {
+        GeneratorProperties.Prefetch prefetch = properties.getPrefetch();
+        if (!prefetch.isEnabled() || tableNames == null) {
+            return;
+        }
+        int submitted = 0;
+        for (String tableName : tableNames) {
+            if (submitted >= prefetch.getMaxTables()) {
+                break;
+            }
+            if (tableName == null || templateService.isTableColumnsCached(tableName) || !pending.add(tableName)) {
+                continue;
+            }
+            executor.execute(new PrefetchTask(tableName));
+            submitted++;
+        }
+        if (submitted > 0) {
+            log.debug("已提交 {} 张表的元数据预取", submitted);
+        }
+    }
+
+    /**
+     * 预取任务（被拒绝时同样需要从 pending 中移除）
+     */
+    private class PrefetchTask implements Runnable {
+
+        private final String tableName;
+
+        PrefetchTask(String tableName) {
+            this.tableName = tableName;
+        }
+
+        @Override
+        public void run() {
+            try {
+                templateService.warmTableColumns(tableName);
+            } catch (Exception e) {
+                log.debug("预取表 {} 的字段元数据失败: {}", tableName, e.getMessage());
+            } finally {
+                pending.remove(tableName);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
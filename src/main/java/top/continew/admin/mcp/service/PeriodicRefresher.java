@@ -0,0 +1,121 @@
+package top.continew.admin.mcp.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * 按间隔检测刷新（内存索引共用）
+ * <p>读操作前调用 {@link #refreshIfDue()}：距上次成功检测超过间隔时，由一个线程在锁内刷新，其余线程等待后读取新快照。
+ * 刷新失败不推进检测时间，下次访问立即重试（同一失败在 FAILURE_RETRY_MILLIS 内复用，避免数据库故障时每次调用都打一次库）；
+ * 从未加载成功时向调用方抛出异常，已有数据时记录告警并继续使用已有数据。
+ * 使用 ReentrantLock 而非 synchronized，刷新期间的 JDBC 阻塞不会钉住虚拟线程的载体线程</p>
+ *
+ * @author AI Generator
+ */
+@Slf4j
+public class PeriodicRefresher {
+
+    /**
+     * 刷新失败后的重试间隔（毫秒）
+     */
+    private static final long FAILURE_RETRY_MILLIS = 1000;
+
+    private final String name;
+    private final Supplier<Duration> interval;
+    private final Runnable refresher;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * 最近一次成功检测的时间
+     */
+    private volatile long lastCheckMillis = 0;
+
+    /**
+     * 是否至少加载成功过一次
+     */
+    private volatile boolean loaded = false;
+
+    private volatile IllegalStateException lastFailure;
+
+    private volatile long lastFailureMillis = 0;
+
+    /**
+     * @param name      索引名称（用于日志与错误信息）
+     * @param interval  检测间隔
+     * @param refresher 刷新逻辑（检测变更并替换快照，失败时抛出异常）
+     */
+    public PeriodicRefresher(String name, Supplier<Duration> interval, Runnable refresher) {
+        this.name = name;
+        this.interval = interval;
+        this.refresher = refresher;
+    }
+
+    /**
+     * 超过检测间隔时刷新
+     *
+     * @throws IllegalStateException 刷新失败且从未加载成功
+     */
+    public void refreshIfDue() {
+        long now = System.currentTimeMillis();
+        if (now - lastCheckMillis < interval.get().toMillis()) {
+            return;
+        }
+        lock.lock();
+        try {
+            if (now - lastCheckMillis < interval.get().toMillis()) {
+                // 等待期间其他线程已刷新
+                return;
+            }
+            IllegalStateException failure = lastFailure;
+            if (failure == null || now - lastFailureMillis >= FAILURE_RETRY_MILLIS) {
+                failure = doRefresh();
+            }
+            if (failure != null && !loaded) {
+                throw failure;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 标记失效，下次访问时重新检测
+     *
+     * @param reset 在刷新锁内执行的重置逻辑（如清空变更指纹，可为空）
+     */
+    public void invalidate(Runnable reset) {
+        lock.lock();
+        try {
+            if (reset != null) {
+                reset.run();
+            }
+            lastCheckMillis = 0;
+            lastFailure = null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private IllegalStateException doRefresh() {
+        try {
+            refresher.run();
+            loaded = true;
+            lastFailure = null;
+            lastCheckMillis = System.currentTimeMillis();
+            return null;
+        } catch (RuntimeException e) {
+            IllegalStateException failure = new IllegalStateException("加载" + name + "失败：" + e.getMessage(), e);
+            lastFailure = failure;
+            lastFailureMillis = System.currentTimeMillis();
+            if (loaded) {
+                log.warn("刷新{}失败，继续使用已有数据，下次访问时重试: {}", name, e.getMessage());
+            } else {
+                log.warn("加载{}失败，下次访问时重试: {}", name, e.getMessage());
+            }
+            return failure;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package top.continew.admin.mcp.service;
+
+import cn.hutool.cache.impl.LRUCache;
+import cn.hutool.core.util.StrUtil;
+import io.modelcontextprotocol.server.McpSyncServerExchange;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.mcp.McpToolUtils;
+import org.springframework.stereotype.Service;
+import top.continew.admin.mcp.config.GeneratorProperties;
+import top.continew.admin.mcp.model.ProjectPathConfig;
+
+import java.util.Optional;
+
+/**
+ * 项目路径会话服务
+ * <p>按 MCP 会话保存各自的项目路径配置，多个客户端连接同一服务时互不影响；
+ * 会话数超出上限时淘汰最近最少使用的会话，空闲超时的会话也会被淘汰。
+ * 无法获取会话 ID 时直接失败，不回退到共享配置，避免一个客户端的路径写入其他客户端的项目</p>
+ *
+ * @author AI Generator
+ */
+@Slf4j
+@Service
+public class ProjectPathSessionService {
+
+    private final LRUCache<String, ProjectPathConfig> sessions;
+
+    public ProjectPathSessionService(GeneratorProperties properties) {
+        GeneratorProperties.Session session = properties.getSession();
+        this.sessions = new LRUCache<>(session.getMaxSessions(), session.getIdleTimeout().toMillis());
+    }
+
+    /**
+     * 获取当前会话的项目路径配置，不存在时创建默认配置
+     *
+     * @throws IllegalStateException 无法获取 MCP 会话 ID
+     */
+    public ProjectPathConfig get(ToolContext toolContext) {
+        String sessionId = resolveSessionId(toolContext);
+        return sessions.get(sessionId, true, () -> {
+            log.debug("创建会话路径配置，会话：{}，当前会话数：{}", sessionId, sessions.size());
+            return new ProjectPathConfig();
+        });
+    }
+
+    private String resolveSessionId(ToolContext toolContext) {
+        return Optional.ofNullable(toolContext)
+            .flatMap(McpToolUtils::getMcpExchange)
+            .map(McpSyncServerExchange::sessionId)
+            .filter(StrUtil::isNotBlank)
+            .orElseThrow(() -> new IllegalStateException("无法获取 MCP 会话 ID，项目路径按会话隔离，请通过 MCP 客户端调用"));
+    }
+}
@@ -0,0 +1,391 @@
+package top.continew.admin.mcp.service;
+
+import cn.hutool.core.util.StrUtil;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import top.continew.admin.mcp.config.GeneratorProperties;
+import top.continew.admin.mcp.model.ManyToManyRelation;
+import top.continew.admin.mcp.model.SchemaModule;
+import top.continew.admin.mcp.model.TableRelation;
+
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * 表关系图服务
+ * <p>一次性读取 information_schema 中的表、字段与声明外键，结合 xxx_id 命名规则推断关联，
+ * 在内存中维护双向索引（表 -> 父表关系、表 -> 子表关系），父表/子表/多对多查询均不再访问数据库；
+ * 通过表数量、最近建表时间、字段名校验和与外键校验和检测结构变化后整体重建</p>
+ *
+ * @author AI Generator
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SchemaGraphService {
+
+    /**
+     * 不参与关联推断的字段
+     */
+    private static final Set<String> IGNORED_ID_COLUMNS = Set.of("id", "create_user", "update_user", "tenant_id");
+
+    /**
+     * 基类字段（判断中间表时不计入业务字段）
+     */
+    private static final Set<String> BASE_COLUMNS = Set.of("id", "create_user", "create_time", "update_user",
+        "update_time", "tenant_id", "deleted");
+
+    private static final String[] TABLE_PREFIXES = {"biz_", "sys_"};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final GeneratorProperties properties;
+
+    /**
+     * 按间隔检测变更（刷新失败时不推进检测时间，下次访问重试）
+     */
+    private final PeriodicRefresher refresher = new PeriodicRefresher("表关系图",
+        this::refreshInterval, this::refresh);
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    /**
+     * 关系图快照
+     *
+     * @param tables         表名 -> 表注释（按表名排序）
+     * @param outgoing       表 -> 该表外键指向的父表关系
+     * @param incoming       表 -> 引用该表的子表关系
+     * @param businessColumns 表 -> 业务字段数（不含基类字段）
+     * @param fingerprint    结构变更指纹
+     */
+    private record Snapshot(Map<String, String> tables, Map<String, List<TableRelation>> outgoing,
+                            Map<String, List<TableRelation>> incoming, Map<String, Integer> businessColumns,
+                            String fingerprint) {
+        static final Snapshot EMPTY = new Snapshot(Map.of(), Map.of(), Map.of(), Map.of(), null);
+    }
+
+    /**
+     * 表是否存在
+     */
+    public boolean tableExists(String tableName) {
+        return current().tables().containsKey(tableName);
+    }
+
+    /**
+     * 获取表注释
+     */
+    public String getTableComment(String tableName) {
+        return current().tables().get(tableName);
+    }
+
+    /**
+     * 获取全部表（表名 -> 注释，按表名排序）
+     */
+    public Map<String, String> getTables() {
+        return current().tables();
+    }
+
+    /**
+     * 获取全部关系
+     */
+    public List<TableRelation> getRelations() {
+        List<TableRelation> relations = new ArrayList<>();
+        current().outgoing().values().forEach(relations::addAll);
+        return relations;
+    }
+
+    /**
+     * 获取父表关系（当前表的外键字段指向的表，即 JOIN 场景）
+     */
+    public List<TableRelation> getParents(String tableName) {
+        return current().outgoing().getOrDefault(tableName, List.of());
+    }
+
+    /**
+     * 获取子表关系（引用当前表的表，即一对多场景）
+     */
+    public List<TableRelation> getChildren(String tableName) {
+        return current().incoming().getOrDefault(tableName, List.of());
+    }
+
+    /**
+     * 是否为多对多中间表：恰好指向两张不同的表，且除外键外最多只有一个业务字段（如 sort）
+     */
+    public boolean isMiddleTable(String tableName) {
+        Snapshot current = current();
+        return isMiddleTable(current, tableName);
+    }
+
+    /**
+     * 获取多对多关系（通过中间表关联的目标表）
+     */
+    public List<ManyToManyRelation> getManyToMany(String tableName) {
+        Snapshot current = current();
+        List<ManyToManyRelation> result = new ArrayList<>();
+        for (TableRelation toCurrent : current.incoming().getOrDefault(tableName, List.of())) {
+            String middleTable = toCurrent.getSourceTable();
+            if (!isMiddleTable(current, middleTable)) {
+                continue;
+            }
+            for (TableRelation toTarget : current.outgoing().getOrDefault(middleTable, List.of())) {
+                if (toTarget.getTargetTable().equals(tableName)) {
+                    continue;
+                }
+                ManyToManyRelation relation = new ManyToManyRelation();
+                relation.setMiddleTable(middleTable);
+                relation.setMiddleSourceColumn(toCurrent.getSourceColumn());
+                relation.setMiddleTargetColumn(toTarget.getSourceColumn());
+                relation.setTargetTable(toTarget.getTargetTable());
+                result.add(relation);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 标记关系图失效（执行 DDL 后调用），下次访问时重新加载
+     */
+    public void invalidate() {
+        refresher.invalidate(() -> snapshot = new Snapshot(snapshot.tables(), snapshot.outgoing(), snapshot.incoming(),
+            snapshot.businessColumns(), null));
+    }
+
+    /**
+     * 按关系将表聚类为建议模块（并查集求连通分量，O(E·α)）
+     * <p>被大量表引用的公共表（如 sys_user、sys_dept）会把无关业务连成一个整体，
+     * 因此指向引用表数超过 hubThreshold 的表的关系不参与合并，公共表各自成为独立模块</p>
+     *
+     * @param tableNames   参与聚类的表
+     * @param hubThreshold 公共表阈值（被多少张不同的表引用后视为公共表），小于等于 0 时不排除
+     * @return 模块列表（按表数量降序，单表模块排在最后）
+     */
+    public List<SchemaModule> clusterModules(Collection<String> tableNames, int hubThreshold) {
+        Snapshot current = current();
+        List<String> tables = new ArrayList<>(new TreeSet<>(tableNames));
+        Map<String, Integer> index = new HashMap<>(tables.size() * 2);
+        for (int i = 0; i < tables.size(); i++) {
+            index.put(tables.get(i), i);
+        }
+        int[] parent = new int[tables.size()];
+        for (int i = 0; i < parent.length; i++) {
+            parent[i] = i;
+        }
+
+        Set<String> hubs = new HashSet<>();
+        if (hubThreshold > 0) {
+            current.incoming().forEach((target, relations) -> {
+                if (relations.stream().map(TableRelation::getSourceTable).distinct().count() > hubThreshold) {
+                    hubs.add(target);
+                }
+            });
+        }
+
+        List<TableRelation> edges = new ArrayList<>();
+        for (String table : tables) {
+            for (TableRelation relation : current.outgoing().getOrDefault(table, List.of())) {
+                Integer target = index.get(relation.getTargetTable());
+                if (target == null) {
+                    continue;
+                }
+                edges.add(relation);
+                if (!hubs.contains(relation.getTargetTable())) {
+                    union(parent, index.get(table), target);
+                }
+            }
+        }
+
+        Map<Integer, List<String>> groups = new LinkedHashMap<>();
+        for (int i = 0; i < tables.size(); i++) {
+            groups.computeIfAbsent(find(parent, i), k -> new ArrayList<>()).add(tables.get(i));
+        }
+        Map<Integer, Integer> relationCounts = new HashMap<>();
+        for (TableRelation edge : edges) {
+            int root = find(parent, index.get(edge.getSourceTable()));
+            if (root == find(parent, index.get(edge.getTargetTable()))) {
+                relationCounts.merge(root, 1, Integer::sum);
+            }
+        }
+
+        List<SchemaModule> modules = new ArrayList<>();
+        groups.forEach((root, members) -> {
+            SchemaModule module = new SchemaModule();
+            module.setName(suggestModuleName(members));
+            module.setTables(members);
+            module.setRelationCount(relationCounts.getOrDefault(root, 0));
+            modules.add(module);
+        });
+        modules.sort(Comparator.comparingInt((SchemaModule m) -> m.getTables().size()).reversed()
+            .thenComparing(SchemaModule::getName));
+        return modules;
+    }
+
+    private static int find(int[] parent, int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]];
+            i = parent[i];
+        }
+        return i;
+    }
+
+    private static void union(int[] parent, int a, int b) {
+        int rootA = find(parent, a);
+        int rootB = find(parent, b);
+        if (rootA != rootB) {
+            parent[Math.max(rootA, rootB)] = Math.min(rootA, rootB);
+        }
+    }
+
+    /**
+     * 取模块内去掉 biz_/sys_ 前缀后出现最多的首段作为模块名
+     */
+    private String suggestModuleName(List<String> tables) {
+        Map<String, Integer> counts = new HashMap<>();
+        for (String table : tables) {
+            String name = table;
+            for (String tablePrefix : TABLE_PREFIXES) {
+                name = StrUtil.removePrefix(name, tablePrefix);
+            }
+            counts.merge(StrUtil.subBefore(name, "_", false), 1, Integer::sum);
+        }
+        return counts.entrySet()
+            .stream()
+            .max(Map.Entry.<String, Integer>comparingByValue().thenComparing(Map.Entry.comparingByKey(Comparator.reverseOrder())))
+            .map(Map.Entry::getKey)
+            .orElse("");
+    }
+
+    private boolean isMiddleTable(Snapshot current, String tableName) {
+        List<TableRelation> parents = current.outgoing().getOrDefault(tableName, List.of());
+        if (parents.size() < 2) {
+            return false;
+        }
+        long distinctTargets = parents.stream().map(TableRelation::getTargetTable).distinct().count();
+        return distinctTargets == 2 && current.businessColumns().getOrDefault(tableName, 0) <= parents.size() + 1;
+    }
+
+    /**
+     * 获取当前快照，超过检测间隔时先检测变更
+     */
+    private Snapshot current() {
+        refresher.refreshIfDue();
+        return snapshot;
+    }
+
+    private Duration refreshInterval() {
+        return properties.getCache().getRefreshInterval();
+    }
+
+    /**
+     * 检测结构变更，变化时通过三次 information_schema 查询（表、字段、声明外键）重建关系图
+     */
+    private void refresh() {
+        Map<String, Object> stamp = jdbcTemplate.queryForMap("SELECT " +
+            "(SELECT COUNT(*) FROM information_schema.TABLES WHERE TABLE_SCHEMA = DATABASE()) AS table_cnt, " +
+            "(SELECT MAX(CREATE_TIME) FROM information_schema.TABLES WHERE TABLE_SCHEMA = DATABASE()) AS last_created, " +
+            "(SELECT COUNT(*) FROM information_schema.COLUMNS WHERE TABLE_SCHEMA = DATABASE()) AS column_cnt, " +
+            // 字段改名、表改名不改变数量，按 表.字段 求校验和
+            "(SELECT SUM(CRC32(CONCAT(TABLE_NAME, '.', COLUMN_NAME))) FROM information_schema.COLUMNS " +
+            "WHERE TABLE_SCHEMA = DATABASE()) AS column_sum, " +
+            // 在 executeSql 之外增删的外键
+            "(SELECT CONCAT(COUNT(*), ':', COALESCE(SUM(CRC32(CONCAT_WS('.', TABLE_NAME, COLUMN_NAME, REFERENCED_TABLE_NAME, " +
+            "REFERENCED_COLUMN_NAME))), 0)) FROM information_schema.KEY_COLUMN_USAGE WHERE TABLE_SCHEMA = DATABASE() " +
+            "AND REFERENCED_TABLE_NAME IS NOT NULL) AS fk_sum");
+        String fingerprint = stamp.get("table_cnt") + "|" + stamp.get("last_created") + "|" + stamp.get("column_cnt") +
+            "|" + stamp.get("column_sum") + "|" + stamp.get("fk_sum");
+        if (fingerprint.equals(snapshot.fingerprint())) {
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        Map<String, String> tables = new TreeMap<>();
+        jdbcTemplate.query("SELECT TABLE_NAME, TABLE_COMMENT FROM information_schema.TABLES " +
+            "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_TYPE = 'BASE TABLE'", rs -> {
+            tables.put(rs.getString("TABLE_NAME"), StrUtil.nullToEmpty(rs.getString("TABLE_COMMENT")));
+        });
+
+        // 声明的外键优先，key 为 表.字段
+        Map<String, TableRelation> relations = new LinkedHashMap<>();
+        jdbcTemplate.query("SELECT TABLE_NAME, COLUMN_NAME, REFERENCED_TABLE_NAME, REFERENCED_COLUMN_NAME " +
+            "FROM information_schema.KEY_COLUMN_USAGE WHERE TABLE_SCHEMA = DATABASE() " +
+            "AND REFERENCED_TABLE_SCHEMA = DATABASE() AND REFERENCED_TABLE_NAME IS NOT NULL", rs -> {
+            TableRelation relation = new TableRelation();
+            relation.setSourceTable(rs.getString("TABLE_NAME"));
+            relation.setSourceColumn(rs.getString("COLUMN_NAME"));
+            relation.setTargetTable(rs.getString("REFERENCED_TABLE_NAME"));
+            relation.setTargetColumn(rs.getString("REFERENCED_COLUMN_NAME"));
+            relation.setDeclared(true);
+            relations.put(relation.getSourceTable() + "." + relation.getSourceColumn(), relation);
+        });
+
+        // 一次读取全部字段：统计业务字段数，并按 xxx_id 命名推断关联
+        Map<String, Integer> businessColumns = new HashMap<>();
+        jdbcTemplate.query("SELECT TABLE_NAME, COLUMN_NAME, COLUMN_COMMENT FROM information_schema.COLUMNS " +
+            "WHERE TABLE_SCHEMA = DATABASE()", rs -> {
+            String tableName = rs.getString("TABLE_NAME");
+            String columnName = rs.getString("COLUMN_NAME").toLowerCase();
+            if (!tables.containsKey(tableName)) {
+                return;
+            }
+            if (!BASE_COLUMNS.contains(columnName)) {
+                businessColumns.merge(tableName, 1, Integer::sum);
+            }
+            if (!columnName.endsWith("_id") || IGNORED_ID_COLUMNS.contains(columnName)) {
+                return;
+            }
+            String key = tableName + "." + rs.getString("COLUMN_NAME");
+            TableRelation declared = relations.get(key);
+            if (declared != null) {
+                declared.setComment(rs.getString("COLUMN_COMMENT"));
+                return;
+            }
+            String targetTable = guessForeignTable(columnName, tableName, tables.keySet());
+            if (targetTable != null) {
+                TableRelation relation = new TableRelation();
+                relation.setSourceTable(tableName);
+                relation.setSourceColumn(rs.getString("COLUMN_NAME"));
+                relation.setComment(rs.getString("COLUMN_COMMENT"));
+                relation.setTargetTable(targetTable);
+                relation.setTargetColumn("id");
+                relations.put(key, relation);
+            }
+        });
+
+        Map<String, List<TableRelation>> outgoing = new HashMap<>();
+        Map<String, List<TableRelation>> incoming = new HashMap<>();
+        for (TableRelation relation : relations.values()) {
+            outgoing.computeIfAbsent(relation.getSourceTable(), k -> new ArrayList<>()).add(relation);
+            incoming.computeIfAbsent(relation.getTargetTable(), k -> new ArrayList<>()).add(relation);
+        }
+        incoming.values().forEach(list -> list.sort(Comparator.comparing(TableRelation::getSourceTable)));
+
+        snapshot = new Snapshot(Collections.unmodifiableMap(tables), outgoing, incoming, businessColumns, fingerprint);
+        log.info("表关系图加载完成，{} 张表，{} 条关系，耗时 {} ms", tables.size(), relations.size(),
+            System.currentTimeMillis() - start);
+    }
+
+    /**
+     * 根据 xxx_id 推断关联表：依次尝试 同前缀+名称、biz_+名称、sys_+名称、名称；
+     * 未命中时去掉最前面的一段再试（如 source_order_id -> order）
+     */
+    private String guessForeignTable(String columnName, String ownerTable, Set<String> tables) {
+        String baseName = StrUtil.removeSuffix(columnName, "_id");
+        String prefix = "";
+        for (String tablePrefix : TABLE_PREFIXES) {
+            if (ownerTable.startsWith(tablePrefix)) {
+                prefix = tablePrefix;
+            }
+        }
+        String name = baseName;
+        while (StrUtil.isNotEmpty(name)) {
+            for (String candidate : new String[] {prefix + name, "biz_" + name, "sys_" + name, name}) {
+                if (!candidate.equals(ownerTable) && tables.contains(candidate)) {
+                    return candidate;
+                }
+            }
+            int index = name.indexOf('_');
+            name = index < 0 ? null : name.substring(index + 1);
+        }
+        return null;
+    }
+}
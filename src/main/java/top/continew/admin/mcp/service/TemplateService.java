@@ -1,7 +1,14 @@
 package top.continew.admin.mcp.service;
 
+import cn.hutool.cache.CacheUtil;
+import cn.hutool.cache.impl.TimedCache;
+import cn.hutool.core.bean.BeanUtil;
+import cn.hutool.core.collection.CollUtil;
 import cn.hutool.core.util.IdUtil;
 import cn.hutool.core.util.StrUtil;
+import cn.hutool.crypto.digest.DigestUtil;
+import cn.hutool.json.JSONObject;
+import cn.hutool.json.JSONUtil;
 import freemarker.template.Configuration;
 import freemarker.template.Template;
 import freemarker.template.TemplateException;
@@ -9,7 +16,11 @@ import freemarker.template.TemplateExceptionHandler;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import top.continew.admin.mcp.config.GeneratorProperties;
+import top.continew.admin.mcp.model.ColumnProfile;
+import top.continew.admin.mcp.model.CursorPage;
 import top.continew.admin.mcp.model.FieldConfig;
+import top.continew.admin.mcp.model.GenerateOptions;
 import top.continew.admin.mcp.model.GeneratorContext;
 import top.continew.admin.mcp.model.RelationConfig;
 
@@ -20,6 +31,8 @@ import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * 模板渲染服务
@@ -31,11 +44,77 @@ import java.util.*;
 @Service
 public class TemplateService {
 
+    /**
+     * 分表族名表达式：只识别年月（yyyyMM）与年月日（yyyyMMdd）后缀，order_202401 / order_20240101 -> order_*；
+     * order_2024、order_12345 等其他数字后缀不合并
+     */
+    private static final String SHARD_FAMILY_EXPR = "REGEXP_REPLACE(TABLE_NAME, " +
+        "'_(19|20)[0-9]{2}(0[1-9]|1[0-2])(0[1-9]|[12][0-9]|3[01])?$', '_*')";
+
+    /**
+     * 字段长度，如 varchar(255) 中的 255
+     */
+    private static final Pattern COLUMN_SIZE_PATTERN = Pattern.compile("\\((\\d+)\\)");
+
+    /**
+     * 枚举字段注释中的取值说明，如“支付状态：pending-待支付，paid-已支付”中的 pending-待支付
+     * （说明只做前瞻不消费，“支付状态：pending-待支付”中的 pending 仍能被下一次匹配识别）
+     */
+    private static final Pattern ENUM_DESCRIPTION_PATTERN = Pattern.compile("([^,，;；\\s:：=]+)\\s*[-:：=]\\s*(?=([^,，;；\\s]+))");
+
+    /**
+     * 枚举常量名中的非法字符
+     */
+    private static final Pattern ENUM_NAME_INVALID_CHAR_PATTERN = Pattern.compile("[^A-Z0-9_]");
+
+    /**
+     * 一对多外键列、FILL 关联字段允许的 Java 类型（按 Long 分组或查询）
+     */
+    private static final Set<String> ID_FIELD_TYPES = Set.of("Long", "Integer", "BigInteger");
+
+    /**
+     * 建议本地缓存的表：估算行数上限、写入次数占读写总次数的比例上限
+     */
+    private static final long CACHE_SUGGEST_MAX_ROWS = 10_000;
+    private static final double CACHE_SUGGEST_MAX_WRITE_RATIO = 0.05;
+
     private final JdbcTemplate jdbcTemplate;
+    private final DictIndexService dictIndexService;
+    private final ColumnProfiler columnProfiler;
+    private final InferenceRules inferenceRules;
+    private final GeneratorProperties properties;
     private final Configuration freemarkerConfig;
 
-    public TemplateService(JdbcTemplate jdbcTemplate) {
+    /**
+     * 数据源标识（合并键的一部分）
+     */
+    private final String dataSourceKey;
+
+    /**
+     * 字段元数据加载合并：并发请求同一张表时只查询一次 information_schema
+     */
+    private final SingleFlight<String, List<FieldConfig>> columnFlight = new SingleFlight<>();
+
+    /**
+     * 字段元数据缓存（仅启用元数据预取时使用）
+     */
+    private final TimedCache<String, List<FieldConfig>> columnCache;
+
+    /**
+     * 代码渲染合并：并发渲染相同上下文时只渲染一次
+     */
+    private final SingleFlight<String, Map<String, String>> renderFlight = new SingleFlight<>();
+
+    public TemplateService(JdbcTemplate jdbcTemplate, DictIndexService dictIndexService, ColumnProfiler columnProfiler,
+                           InferenceRules inferenceRules, GeneratorProperties properties) {
         this.jdbcTemplate = jdbcTemplate;
+        this.dictIndexService = dictIndexService;
+        this.columnProfiler = columnProfiler;
+        this.inferenceRules = inferenceRules;
+        this.properties = properties;
+        this.columnCache = CacheUtil.newTimedCache(properties.getPrefetch().getMetadataTtl().toMillis());
+        this.dataSourceKey = jdbcTemplate != null && jdbcTemplate.getDataSource() != null
+            ? Integer.toHexString(System.identityHashCode(jdbcTemplate.getDataSource())) : "default";
         // 使用原生 FreeMarker Configuration
         this.freemarkerConfig = new Configuration(Configuration.VERSION_2_3_32);
         this.freemarkerConfig.setClassLoaderForTemplateLoading(
@@ -67,58 +146,238 @@ public class TemplateService {
     }
 
     /**
-     * 获取数据库中所有表的列表
+     * 按条件分页获取表列表（过滤与游标均下推到 information_schema 查询）
+     *
+     * @param namePrefix     表名前缀
+     * @param nameRegex      表名正则（MySQL REGEXP）
+     * @param keyword        表注释关键字
+     * @param cursor         游标（上一页最后一个表名 / 分表族名）
+     * @param limit          每页数量
+     * @param collapseShards 是否将 xxx_202401 形式的分表合并为一条 xxx_*（附带分表数量）
      */
-    public List<Map<String, Object>> listTables() {
-        String sql = "SELECT TABLE_NAME, TABLE_COMMENT FROM information_schema.TABLES " +
-            "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_TYPE = 'BASE TABLE' ORDER BY TABLE_NAME";
-        return jdbcTemplate.queryForList(sql);
+    public CursorPage<Map<String, Object>> listTables(String namePrefix, String nameRegex, String keyword,
+                                                      String cursor, int limit, boolean collapseShards) {
+        StringBuilder where = new StringBuilder("WHERE TABLE_SCHEMA = DATABASE() AND TABLE_TYPE = 'BASE TABLE'");
+        List<Object> args = new ArrayList<>();
+        if (StrUtil.isNotBlank(namePrefix)) {
+            where.append(" AND TABLE_NAME LIKE ?");
+            args.add(escapeLike(namePrefix.trim()) + "%");
+        }
+        if (StrUtil.isNotBlank(nameRegex)) {
+            where.append(" AND TABLE_NAME REGEXP ?");
+            args.add(nameRegex.trim());
+        }
+        if (StrUtil.isNotBlank(keyword)) {
+            where.append(" AND TABLE_COMMENT LIKE ?");
+            args.add("%" + escapeLike(keyword.trim()) + "%");
+        }
+
+        String sql;
+        if (collapseShards) {
+            // 分表族名作为排序与游标键；只有一张表的族仍显示原表名
+            sql = "SELECT IF(COUNT(*) = 1, MIN(TABLE_NAME), family) AS TABLE_NAME, MIN(TABLE_COMMENT) AS TABLE_COMMENT, " +
+                "COUNT(*) AS SHARD_COUNT, family AS FAMILY_KEY FROM (" +
+                "SELECT TABLE_NAME, TABLE_COMMENT, " + SHARD_FAMILY_EXPR + " AS family FROM information_schema.TABLES " +
+                where + ") t GROUP BY family" +
+                (StrUtil.isNotBlank(cursor) ? " HAVING family > ?" : "") +
+                " ORDER BY family LIMIT ?";
+        } else {
+            if (StrUtil.isNotBlank(cursor)) {
+                where.append(" AND TABLE_NAME > ?");
+            }
+            sql = "SELECT TABLE_NAME, TABLE_COMMENT FROM information_schema.TABLES " + where +
+                " ORDER BY TABLE_NAME LIMIT ?";
+        }
+        if (StrUtil.isNotBlank(cursor)) {
+            args.add(cursor);
+        }
+        // 多取一条用于判断是否还有下一页
+        args.add(limit + 1);
+
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(sql, args.toArray());
+        String nextCursor = null;
+        if (rows.size() > limit) {
+            rows = new ArrayList<>(rows.subList(0, limit));
+            Map<String, Object> last = rows.get(limit - 1);
+            nextCursor = String.valueOf(collapseShards ? last.get("FAMILY_KEY") : last.get("TABLE_NAME"));
+        }
+        if (collapseShards) {
+            rows.forEach(row -> row.remove("FAMILY_KEY"));
+        }
+        return new CursorPage<>(rows, nextCursor);
     }
 
     /**
      * 获取指定表的字段信息
      */
     public List<FieldConfig> getTableColumns(String tableName) {
-        // 获取系统字典编码列表，用于自动匹配
-        Set<String> dictCodes = loadDictCodes();
+        // 并发调用方共享同一次查询结果，各自拿到副本以便独立修改
+        List<FieldConfig> shared = loadTableColumns(tableName);
+        List<FieldConfig> fields = new ArrayList<>(shared.size());
+        for (FieldConfig field : shared) {
+            fields.add(BeanUtil.copyProperties(field, FieldConfig.class));
+        }
+        return fields;
+    }
+
+    /**
+     * 预热指定表的字段元数据（含字典匹配），供后台预取使用
+     */
+    public void warmTableColumns(String tableName) {
+        loadTableColumns(tableName);
+    }
 
-        String sql = "SELECT COLUMN_NAME, DATA_TYPE, COLUMN_TYPE, COLUMN_COMMENT, COLUMN_KEY, IS_NULLABLE, EXTRA " +
-            "FROM information_schema.COLUMNS WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? ORDER BY ORDINAL_POSITION";
-        List<Map<String, Object>> rows = jdbcTemplate.queryForList(sql, tableName);
+    /**
+     * 指定表的字段元数据是否已在缓存中
+     */
+    public boolean isTableColumnsCached(String tableName) {
+        return columnCache.containsKey(dataSourceKey + "|" + tableName);
+    }
 
+    /**
+     * 清空字段元数据缓存与字段画像（表结构变更后调用）
+     */
+    public void evictTableColumns() {
+        columnCache.clear();
+        columnProfiler.evict();
+    }
+
+    private List<FieldConfig> loadTableColumns(String tableName) {
+        String key = dataSourceKey + "|" + tableName;
+        boolean cacheEnabled = properties.getPrefetch().isEnabled();
+        if (cacheEnabled) {
+            List<FieldConfig> cached = columnCache.get(key, false);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        return columnFlight.execute(key, () -> {
+            String sql = "SELECT COLUMN_NAME, DATA_TYPE, COLUMN_TYPE, COLUMN_COMMENT, COLUMN_KEY, IS_NULLABLE, EXTRA " +
+                "FROM information_schema.COLUMNS WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? ORDER BY ORDINAL_POSITION";
+            List<FieldConfig> fields = List.copyOf(toFieldConfigs(jdbcTemplate.queryForList(sql, tableName),
+                columnProfiler.profile(tableName)));
+            // 不存在的表不缓存，避免建表后仍返回空字段
+            if (cacheEnabled && !fields.isEmpty()) {
+                columnCache.put(key, fields);
+            }
+            return fields;
+        });
+    }
+
+    /**
+     * 按条件分页获取指定表的字段信息（游标为上一页最后一个字段的 ORDINAL_POSITION）
+     * <p>基类字段在 SQL 中排除后再分页，保证每页条数与游标一致</p>
+     *
+     * @param tableName 表名
+     * @param keyword   字段名/注释关键字
+     * @param cursor    游标
+     * @param limit     每页数量
+     * @throws IllegalArgumentException 游标无效
+     */
+    public CursorPage<FieldConfig> getTableColumns(String tableName, String keyword, String cursor, int limit) {
+        long afterPosition = 0;
+        if (StrUtil.isNotBlank(cursor)) {
+            try {
+                afterPosition = Long.parseLong(cursor.trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("无效的游标: " + cursor);
+            }
+        }
+        StringBuilder sql = new StringBuilder("SELECT COLUMN_NAME, DATA_TYPE, COLUMN_TYPE, COLUMN_COMMENT, COLUMN_KEY, " +
+            "IS_NULLABLE, EXTRA, ORDINAL_POSITION FROM information_schema.COLUMNS WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ?");
+        List<Object> args = new ArrayList<>();
+        args.add(tableName);
+        List<String> baseFields = inferenceRules.getBaseFieldNames();
+        if (!baseFields.isEmpty()) {
+            sql.append(" AND COLUMN_NAME NOT IN (").append(StrUtil.repeatAndJoin("?", baseFields.size(), ", ")).append(")");
+            args.addAll(baseFields);
+        }
+        if (StrUtil.isNotBlank(keyword)) {
+            sql.append(" AND (COLUMN_NAME LIKE ? OR COLUMN_COMMENT LIKE ?)");
+            String like = "%" + escapeLike(keyword.trim()) + "%";
+            args.add(like);
+            args.add(like);
+        }
+        if (afterPosition > 0) {
+            sql.append(" AND ORDINAL_POSITION > ?");
+            args.add(afterPosition);
+        }
+        sql.append(" ORDER BY ORDINAL_POSITION LIMIT ?");
+        args.add(limit + 1);
+
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(sql.toString(), args.toArray());
+        String nextCursor = null;
+        if (rows.size() > limit) {
+            rows = rows.subList(0, limit);
+            nextCursor = String.valueOf(rows.get(limit - 1).get("ORDINAL_POSITION"));
+        }
+        return new CursorPage<>(toFieldConfigs(rows, columnProfiler.profile(tableName)), nextCursor);
+    }
+
+    /**
+     * 将 information_schema.COLUMNS 行转换为字段配置（跳过基类字段，推断字典/表单/查询配置）
+     *
+     * @param rows     字段元数据
+     * @param profiles 字段数据画像（未启用画像时为空）
+     */
+    private List<FieldConfig> toFieldConfigs(List<Map<String, Object>> rows, Map<String, ColumnProfile> profiles) {
         List<FieldConfig> fields = new ArrayList<>();
         for (Map<String, Object> row : rows) {
             String columnName = (String) row.get("COLUMN_NAME");
             // 跳过基类字段（BaseDO 中已有的字段）
-            if (isBaseField(columnName)) {
+            if (inferenceRules.isBaseField(columnName)) {
                 continue;
             }
 
             FieldConfig field = new FieldConfig();
             field.setColumnName(columnName);
             field.setFieldName(StrUtil.toCamelCase(columnName));
-            field.setColumnType((String) row.get("COLUMN_TYPE"));
-            field.setFieldType(mapDbTypeToJava((String) row.get("DATA_TYPE")));
-            field.setColumnSize(parseColumnSize((String) row.get("COLUMN_TYPE")));
+            String dataType = (String) row.get("DATA_TYPE");
+            String columnType = (String) row.get("COLUMN_TYPE");
+            field.setColumnType(columnType);
+            // 按完整列类型映射（tinyint(1)、无符号放宽等），保证查询参数与列类型一致，避免隐式转换导致索引失效
+            field.setFieldType(inferenceRules.toJavaType(dataType, columnType));
+            field.setTypeHandler(inferenceRules.typeHandler(dataType));
+            if ("enum".equalsIgnoreCase(dataType)) {
+                field.setEnumValues(parseEnumValues(columnType));
+            }
+            field.setColumnSize(parseColumnSize(columnType));
+            // 大字段不在列表中显示，列表 SQL 也不读取（宽表分页时避免逐行读取溢出页）
+            if (inferenceRules.isLargeColumn(dataType)) {
+                field.setLargeColumn(true);
+                field.setShowInList(false);
+            }
             field.setComment((String) row.get("COLUMN_COMMENT"));
             field.setPrimaryKey("PRI".equals(row.get("COLUMN_KEY")));
             field.setRequired("NO".equals(row.get("IS_NULLABLE")));
 
             // 自动匹配字典编码（如果匹配到，同时设置 formType 为 SELECT）
-            String matchedDictCode = matchDictCode(columnName, dictCodes);
+            String matchedDictCode = dictIndexService.matchDictCode(columnName);
             if (matchedDictCode != null) {
                 field.setDictCode(matchedDictCode);
                 field.setFormType("SELECT");
             } else {
                 // 根据字段类型推断表单类型
-                field.setFormType(inferFormType(field));
+                field.setFormType(inferenceRules.inferFormType(columnName, field.getFieldType()));
             }
 
             // 推断查询配置
-            inferQueryConfig(field);
+            inferenceRules.applyQueryConfig(field);
+
+            // 按数据画像修正推断
+            ColumnProfile profile = profiles.get(columnName);
+            if (profile != null) {
+                applyProfile(field, profile);
+            }
+
+            // 需要类型处理器的字段（如 json）以文本域编辑，不作为查询条件
+            if (field.getTypeHandler() != null) {
+                field.setFormType("TEXTAREA");
+                field.setShowInQuery(false);
+            }
 
             // 设置 TypeScript 类型
-            field.setTsType(mapJavaTypeToTs(field.getFieldType()));
+            field.setTsType(inferenceRules.toTsType(field.getFieldType()));
 
             fields.add(field);
         }
@@ -126,93 +385,10 @@ public class TemplateService {
     }
 
     /**
-     * 加载系统字典编码列表
-     */
-    private Set<String> loadDictCodes() {
-        try {
-            String sql = "SELECT code FROM sys_dict WHERE status = 1";
-            List<String> codes = jdbcTemplate.queryForList(sql, String.class);
-            return new HashSet<>(codes);
-        } catch (Exception e) {
-            log.warn("加载系统字典失败，跳过自动匹配: {}", e.getMessage());
-            return new HashSet<>();
-        }
-    }
-
-    /**
-     * 根据字段名自动匹配字典编码
-     * 匹配规则：
-     * 1. status 字段 -> sys_status
-     * 2. gender 字段 -> sys_gender
-     * 3. 其他字段名包含字典编码的情况
-     */
-    private String matchDictCode(String columnName, Set<String> dictCodes) {
-        String lowerName = columnName.toLowerCase();
-        
-        // 精确匹配：字段名完全等于字典编码
-        if (dictCodes.contains(lowerName)) {
-            return lowerName;
-        }
-        
-        // 常见映射：字段名 -> 字典编码
-        Map<String, String> commonMappings = Map.of(
-            "status", "sys_status",
-            "gender", "sys_gender"
-        );
-        for (Map.Entry<String, String> entry : commonMappings.entrySet()) {
-            if (lowerName.equals(entry.getKey()) && dictCodes.contains(entry.getValue())) {
-                return entry.getValue();
-            }
-        }
-        
-        // 模糊匹配：字段名包含字典编码
-        for (String dictCode : dictCodes) {
-            if (lowerName.contains(dictCode.replace("_", ""))) {
-                return dictCode;
-            }
-        }
-        
-        return null;
-    }
-
-    /**
-     * 判断是否为基类字段（TenantBaseDO 中已定义的）
-     */
-    private boolean isBaseField(String columnName) {
-        Set<String> baseFields = Set.of("id", "create_user", "create_time", "update_user", "update_time", "tenant_id");
-        return baseFields.contains(columnName.toLowerCase());
-    }
-
-    /**
-     * 数据库类型映射到 Java 类型
-     */
-    private String mapDbTypeToJava(String dbType) {
-        if (dbType == null) return "String";
-        dbType = dbType.toLowerCase();
-        return switch (dbType) {
-            case "bigint" -> "Long";
-            case "int", "integer", "tinyint", "smallint", "mediumint" -> "Integer";
-            case "decimal", "numeric" -> "BigDecimal";
-            case "float" -> "Float";
-            case "double" -> "Double";
-            case "bit", "boolean" -> "Boolean";
-            case "date" -> "LocalDate";
-            case "time" -> "LocalTime";
-            case "datetime", "timestamp" -> "LocalDateTime";
-            default -> "String";
-        };
-    }
-
-    /**
-     * Java 类型映射到 TypeScript 类型
+     * 转义 LIKE 通配符，避免 sys_ 中的下划线匹配任意字符
      */
-    private String mapJavaTypeToTs(String javaType) {
-        if (javaType == null) return "string";
-        return switch (javaType) {
-            case "Integer", "Long", "Float", "Double", "BigDecimal" -> "number";
-            case "Boolean" -> "boolean";
-            default -> "string";
-        };
+    private String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
     }
 
     /**
@@ -221,7 +397,7 @@ public class TemplateService {
     private Integer parseColumnSize(String columnType) {
         if (columnType == null) return null;
         // 匹配括号中的数字，如 varchar(255), int(11)
-        java.util.regex.Matcher matcher = java.util.regex.Pattern.compile("\\((\\d+)\\)").matcher(columnType);
+        Matcher matcher = COLUMN_SIZE_PATTERN.matcher(columnType);
         if (matcher.find()) {
             return Integer.parseInt(matcher.group(1));
         }
@@ -229,59 +405,64 @@ public class TemplateService {
     }
 
     /**
-     * 根据字段类型推断表单类型
-     * 注意：SELECT/RADIO 类型需要有 dictCode 才能正常工作，
-     * 因此这里不自动推断为 SELECT，而是由 inferDictCode 来设置
+     * 解析 enum 列的取值，如 enum('pending','paid') -> [pending, paid]
      */
-    private String inferFormType(FieldConfig field) {
-        String javaType = field.getFieldType();
-        String columnName = field.getColumnName().toLowerCase();
-
-        // 备注/描述/内容类字段，使用文本域
-        if (columnName.contains("remark") || columnName.contains("description") || columnName.contains("content")) {
-            return "TEXTAREA";
+    private List<String> parseEnumValues(String columnType) {
+        List<String> values = new ArrayList<>();
+        if (columnType == null) {
+            return values;
         }
-
-        // 根据类型推断
-        return switch (javaType) {
-            case "LocalDate" -> "DATE";
-            case "LocalDateTime" -> "DATE_TIME";
-            case "Boolean" -> "SWITCH";
-            default -> "INPUT";
-        };
+        StringBuilder current = null;
+        for (int i = columnType.indexOf('(') + 1; i > 0 && i < columnType.length(); i++) {
+            char c = columnType.charAt(i);
+            if (current == null) {
+                if (c == '\'') {
+                    current = new StringBuilder();
+                }
+            } else if (c == '\'' && i + 1 < columnType.length() && columnType.charAt(i + 1) == '\'') {
+                // 取值中的单引号以 '' 转义
+                current.append(c);
+                i++;
+            } else if (c == '\'') {
+                values.add(current.toString());
+                current = null;
+            } else {
+                current.append(c);
+            }
+        }
+        return values;
     }
 
     /**
-     * 推断字段的查询配置
+     * 按数据画像修正表单/查询推断（仅在行数足够时修正，避免小表误判）
+     * <ul>
+     *   <li>低基数且无字典：作为等值查询条件；抽样取回了全部取值时改为下拉框，选项生成为前端本地常量（如 statusOptions）</li>
+     *   <li>高基数的等值查询字段（如取值自由填写的 type）：不作为查询条件</li>
+     *   <li>几乎全为空的字段：不作为查询条件</li>
+     * </ul>
      */
-    private void inferQueryConfig(FieldConfig field) {
-        String columnName = field.getColumnName().toLowerCase();
-        String javaType = field.getFieldType();
-
-        // 默认不显示在查询条件中
-        field.setShowInQuery(false);
-        field.setQueryType("EQ");
-
-        // 状态、类型等枚举字段，适合等值查询
-        if (columnName.contains("status") || columnName.contains("type")
-            || columnName.contains("gender") || columnName.contains("state")
-            || columnName.contains("level") || columnName.contains("category")) {
-            field.setShowInQuery(true);
-            field.setQueryType("EQ");
+    private void applyProfile(FieldConfig field, ColumnProfile profile) {
+        GeneratorProperties.Profile config = properties.getProfile();
+        if (profile.getRowCount() < config.getMinRows()) {
             return;
         }
-
-        // 名称类字段，适合模糊查询
-        if (columnName.contains("name") || columnName.contains("title")) {
+        boolean enumLikeType = "Integer".equals(field.getFieldType())
+            || ("String".equals(field.getFieldType()) && field.getColumnSize() != null && field.getColumnSize() <= 64);
+        if (field.getDictCode() == null && enumLikeType && !field.isPrimaryKey()
+            && profile.getDistinctCount() > 0 && profile.getDistinctCount() <= config.getLowCardinality()) {
             field.setShowInQuery(true);
-            field.setQueryType("LIKE");
-            return;
+            field.setQueryType("EQ");
+            if (CollUtil.isNotEmpty(profile.getSampleValues())) {
+                field.setFormType("SELECT");
+                field.setLocalOptionsName(field.getFieldName() + "Options");
+                field.setLocalOptions(profile.getSampleValues());
+            }
+        } else if (field.getDictCode() == null && field.isShowInQuery() && "EQ".equals(field.getQueryType())
+            && profile.distinctRatio() >= config.getHighCardinalityRatio()) {
+            field.setShowInQuery(false);
         }
-
-        // 时间类型字段，适合范围查询
-        if ("LocalDateTime".equals(javaType) || "LocalDate".equals(javaType)) {
-            // 不默认开启时间查询，但设置正确的查询类型
-            field.setQueryType("BETWEEN");
+        if (profile.getNullRatio() != null && profile.getNullRatio() >= 0.95) {
+            field.setShowInQuery(false);
         }
     }
 
@@ -316,7 +497,7 @@ public class TemplateService {
         ctx.setDatetime(LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")));
 
         // 从表名生成类名前缀（去掉前缀，转大驼峰）
-        String classNamePrefix = StrUtil.upperFirst(StrUtil.toCamelCase(removeTablePrefix(tableName)));
+        String classNamePrefix = StrUtil.upperFirst(StrUtil.toCamelCase(inferenceRules.removeTablePrefix(tableName)));
         ctx.setClassNamePrefix(classNamePrefix);
 
         // 包名和模块名
@@ -331,11 +512,33 @@ public class TemplateService {
         List<FieldConfig> fields = getTableColumns(tableName);
         ctx.setFieldConfigs(fields);
 
+        // MySQL enum 字段使用生成的枚举类（同时作为枚举字典供前端使用）
+        for (FieldConfig field : fields) {
+            if (field.getEnumValues() != null && !field.getEnumValues().isEmpty()) {
+                String enumClassName = classNamePrefix + StrUtil.upperFirst(field.getFieldName()) + "Enum";
+                field.setFieldType(enumClassName);
+                field.setDictCode(StrUtil.toUnderlineCase(enumClassName));
+                field.setFormType("SELECT");
+                ctx.getImports().add(ctx.getPackageName() + ".enums." + enumClassName);
+            }
+        }
+
         // 设置关联配置
         if (relations != null && !relations.isEmpty()) {
+            for (RelationConfig relation : relations) {
+                if (relation.getType() == RelationConfig.RelationType.ONE_TO_MANY) {
+                    resolveChildTable(relation);
+                } else if (relation.getType() == RelationConfig.RelationType.JOIN
+                    && relation.getFetchMode() == RelationConfig.FetchMode.FILL) {
+                    resolveFillSource(relation, fields);
+                }
+            }
             ctx.setRelations(relations);
         }
 
+        // 分区表检测
+        ctx.setPartitioned(isPartitionedByCreateTime(tableName));
+
         // 计算标记
         ctx.computeFlags();
 
@@ -343,16 +546,179 @@ public class TemplateService {
     }
 
     /**
-     * 移除表名前缀（如 sys_, t_, biz_ 等）
+     * 按子表结构解析一对多关联：校验外键列存在且为整数类型（子表数据按外键与主表 ID 分组），并确定查询子表时读取的列
+     *
+     * @throws IllegalArgumentException 子表不存在、外键列不存在或不是整数类型
+     */
+    private void resolveChildTable(RelationConfig relation) {
+        String childTable = relation.getTargetTable();
+        String foreignKey = relation.getTargetColumn();
+        List<FieldConfig> childFields = loadTableColumns(childTable);
+        if (childFields.isEmpty()) {
+            throw new IllegalArgumentException("一对多关联的子表 " + childTable + " 不存在或没有字段");
+        }
+        FieldConfig foreignKeyField = childFields.stream()
+            .filter(field -> field.getColumnName().equalsIgnoreCase(foreignKey))
+            .findFirst()
+            .orElseThrow(() -> new IllegalArgumentException("一对多关联的子表 " + childTable + " 中不存在外键列 " + foreignKey));
+        if (!ID_FIELD_TYPES.contains(foreignKeyField.getFieldType())) {
+            throw new IllegalArgumentException("一对多关联的外键列 " + childTable + "." + foreignKey + " 类型为 " + foreignKeyField
+                .getFieldType() + "，需为整数类型（与主表 ID 对应）");
+        }
+        if (!foreignKeyField.isShowInList()) {
+            throw new IllegalArgumentException("一对多关联的外键列 " + childTable + "." + foreignKey + " 不在子表列表字段中，无法按外键分组");
+        }
+        List<String> columns = new ArrayList<>(List.of("id", "create_user", "create_time"));
+        childFields.stream()
+            .filter(field -> field.isShowInList() && !field.isLargeColumn())
+            .forEach(field -> columns.add(field.getColumnName()));
+        relation.setTargetColumn(foreignKeyField.getColumnName());
+        relation.setTargetFieldType(foreignKeyField.getFieldType());
+        relation.setTargetSelectColumns(columns);
+    }
+
+    /**
+     * 按当前表结构解析 FILL 关联：校验关联字段存在、为整数类型且在列表 Resp 中（回填时按该字段取值，统一转为 Long 查询目标表）
+     *
+     * @throws IllegalArgumentException 关联字段不存在、不是整数类型或不在列表字段中
+     */
+    private void resolveFillSource(RelationConfig relation, List<FieldConfig> fields) {
+        String sourceColumn = relation.getSourceColumn();
+        FieldConfig sourceField = fields.stream()
+            .filter(field -> field.getColumnName().equalsIgnoreCase(sourceColumn))
+            .findFirst()
+            .orElseThrow(() -> new IllegalArgumentException("FILL 关联 " + relation.getRelationFieldName() + " 的关联字段 " + sourceColumn + " 不存在"));
+        if (!ID_FIELD_TYPES.contains(sourceField.getFieldType())) {
+            throw new IllegalArgumentException("FILL 关联 " + relation.getRelationFieldName() + " 的关联字段 " + sourceColumn + " 类型为 "
+                + sourceField.getFieldType() + "，需为整数类型，或改用 fetchMode JOIN");
+        }
+        if (!sourceField.isShowInList()) {
+            throw new IllegalArgumentException("FILL 关联 " + relation.getRelationFieldName() + " 的关联字段 " + sourceColumn + " 不在列表字段中，无法回填");
+        }
+        relation.setSourceFieldType(sourceField.getFieldType());
+    }
+
+    /**
+     * 判断表是否按 create_time 分区
+     */
+    private boolean isPartitionedByCreateTime(String tableName) {
+        try {
+            String sql = "SELECT COUNT(*) FROM information_schema.PARTITIONS " +
+                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND PARTITION_EXPRESSION LIKE '%create_time%'";
+            Integer count = jdbcTemplate.queryForObject(sql, Integer.class, tableName);
+            return count != null && count > 0;
+        } catch (Exception e) {
+            log.warn("检测分区信息失败，按非分区表处理: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * 应用生成选项（游标分页时检测 create_time 索引，缺失时在生成结果中给出建索引提示）
+     *
+     * @param ctx     生成上下文
+     * @param options 生成选项（为空时保持默认）
+     */
+    public void applyOptions(GeneratorContext ctx, GenerateOptions options) {
+        if (options == null) {
+            return;
+        }
+        ctx.setOptions(options);
+        ctx.setPartitionQueryDays(options.getPartitionQueryDays());
+        if (ctx.isKeysetPagination()) {
+            ctx.setKeysetIndexed(hasIndexLeadingWith(ctx.getTableName(), "create_time"));
+        }
+        // 分页回填的关联是否缓存只由关联自身的 cacheable 决定，开启本地缓存不会改变（目标表可能很大或经常修改）
+        if (!ctx.isLocalCache() && options.getCache() == null) {
+            ctx.setCacheSuggested(isCacheFriendly(ctx.getTableName()));
+        }
+    }
+
+    /**
+     * 判断表是否适合本地缓存：行数不超过 CACHE_SUGGEST_MAX_ROWS，且写入占比低于 CACHE_SUGGEST_MAX_WRITE_RATIO
+     * （读写次数来自 performance_schema，无权限或未开启时只看行数）
      */
-    private String removeTablePrefix(String tableName) {
-        String[] prefixes = {"sys_", "t_", "biz_", "gen_"};
-        for (String prefix : prefixes) {
-            if (tableName.toLowerCase().startsWith(prefix)) {
-                return tableName.substring(prefix.length());
+    private boolean isCacheFriendly(String tableName) {
+        try {
+            Long tableRows = jdbcTemplate.queryForObject("SELECT MAX(TABLE_ROWS) FROM information_schema.TABLES " +
+                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ?", Long.class, tableName);
+            if (tableRows == null || tableRows > CACHE_SUGGEST_MAX_ROWS) {
+                return false;
             }
+        } catch (Exception e) {
+            log.warn("获取表行数失败，不给出缓存建议: {}", e.getMessage());
+            return false;
+        }
+        try {
+            Map<String, Object> io = jdbcTemplate.queryForMap("SELECT SUM(COUNT_READ) AS READS, SUM(COUNT_WRITE) AS WRITES " +
+                "FROM performance_schema.table_io_waits_summary_by_table WHERE OBJECT_SCHEMA = DATABASE() AND OBJECT_NAME = ?", tableName);
+            long reads = io.get("READS") == null ? 0 : ((Number) io.get("READS")).longValue();
+            long writes = io.get("WRITES") == null ? 0 : ((Number) io.get("WRITES")).longValue();
+            return reads + writes == 0 || (double) writes / (reads + writes) < CACHE_SUGGEST_MAX_WRITE_RATIO;
+        } catch (Exception e) {
+            log.debug("读取 performance_schema 读写统计失败，只按行数判断: {}", e.getMessage());
+            return true;
+        }
+    }
+
+    /**
+     * 判断表上是否有以指定字段开头的索引（InnoDB 二级索引隐含主键，(create_time) 与 (create_time, id) 等效）
+     */
+    private boolean hasIndexLeadingWith(String tableName, String columnName) {
+        try {
+            String sql = "SELECT COUNT(*) FROM information_schema.STATISTICS " +
+                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND COLUMN_NAME = ? AND SEQ_IN_INDEX = 1";
+            Integer count = jdbcTemplate.queryForObject(sql, Integer.class, tableName, columnName);
+            return count != null && count > 0;
+        } catch (Exception e) {
+            log.warn("检测索引信息失败，按无索引处理: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * 渲染 MySQL enum 字段对应的枚举类（取值说明从字段注释中解析，如 "状态：pending-待支付，paid-已支付"）
+     */
+    private String renderEnum(GeneratorContext ctx, FieldConfig field) {
+        List<Map<String, String>> constants = new ArrayList<>();
+        Set<String> names = new HashSet<>();
+        String comment = StrUtil.nullToEmpty(field.getComment());
+        Map<String, String> descriptions = new HashMap<>();
+        Matcher matcher = ENUM_DESCRIPTION_PATTERN.matcher(comment);
+        while (matcher.find()) {
+            descriptions.putIfAbsent(matcher.group(1), matcher.group(2));
+        }
+        for (String value : field.getEnumValues()) {
+            String name = ENUM_NAME_INVALID_CHAR_PATTERN.matcher(value.toUpperCase()).replaceAll("_");
+            if (name.isEmpty() || Character.isDigit(name.charAt(0)) || StrUtil.containsOnly(name, '_')) {
+                name = "VALUE_" + name;
+            }
+            while (!names.add(name)) {
+                name = name + "_";
+            }
+            Map<String, String> constant = new HashMap<>();
+            constant.put("name", name);
+            constant.put("value", value);
+            constant.put("description", descriptions.getOrDefault(value, value));
+            constants.add(constant);
+        }
+        try {
+            Template template = freemarkerConfig.getTemplate("backend/Enum.ftl");
+            Map<String, Object> dataModel = new HashMap<>();
+            dataModel.put("packageName", ctx.getPackageName());
+            dataModel.put("className", field.getFieldType());
+            dataModel.put("comment", StrUtil.blankToDefault(StrUtil.subBefore(comment, "：", false), field.getFieldName()));
+            dataModel.put("dictCode", field.getDictCode());
+            dataModel.put("author", ctx.getAuthor());
+            dataModel.put("datetime", ctx.getDatetime());
+            dataModel.put("constants", constants);
+            StringWriter writer = new StringWriter();
+            template.process(dataModel, writer);
+            return writer.toString();
+        } catch (IOException | TemplateException e) {
+            log.error("模板渲染失败: backend/Enum.ftl", e);
+            throw new RuntimeException("模板渲染失败: backend/Enum.ftl", e);
         }
-        return tableName;
     }
 
     /**
@@ -378,6 +744,8 @@ public class TemplateService {
             dataModel.put("imports", context.getImports());
             dataModel.put("hasTimeField", context.isHasTimeField());
             dataModel.put("hasBigDecimalField", context.isHasBigDecimalField());
+            dataModel.put("hasTypeHandlerField", context.isHasTypeHandlerField());
+            dataModel.put("typeHandlers", context.getTypeHandlers());
             dataModel.put("hasRequiredField", context.isHasRequiredField());
             dataModel.put("hasDictField", context.isHasDictField());
             dataModel.put("dictCodes", context.getDictCodes());
@@ -390,8 +758,30 @@ public class TemplateService {
             dataModel.put("hasOneToManyRelation", context.isHasOneToManyRelation());
             dataModel.put("hasManyToManyRelation", context.isHasManyToManyRelation());
             dataModel.put("joinRelations", context.getJoinRelations());
+            dataModel.put("pageJoinRelations", context.getPageJoinRelations());
+            dataModel.put("fillRelations", context.getFillRelations());
+            dataModel.put("hasFillRelation", context.isHasFillRelation());
+            dataModel.put("hasCacheableFillRelation", context.isHasCacheableFillRelation());
             dataModel.put("oneToManyRelations", context.getOneToManyRelations());
+            dataModel.put("cascadeDeleteRelations", context.getCascadeDeleteRelations());
+            dataModel.put("hasCascadeDelete", context.isHasCascadeDelete());
             dataModel.put("manyToManyRelations", context.getManyToManyRelations());
+            // 分区配置
+            dataModel.put("partitioned", context.isPartitioned());
+            dataModel.put("partitionQueryDays", context.getPartitionQueryDays());
+            // 生成选项
+            dataModel.put("keysetPagination", context.isKeysetPagination());
+            dataModel.put("keysetIndexed", context.isKeysetIndexed());
+            dataModel.put("streamExport", context.isStreamExport());
+            dataModel.put("exportFetchSize", context.getOptions().getExportFetchSize());
+            dataModel.put("exportMaxRows", context.getOptions().getExportMaxRows());
+            dataModel.put("localCache", context.isLocalCache());
+            dataModel.put("cacheMaxSize", context.getOptions().getCacheMaxSize());
+            dataModel.put("cacheTtlSeconds", context.getOptions().getCacheTtlSeconds());
+            dataModel.put("batchApi", context.isBatchApi());
+            dataModel.put("converter", context.isConverter());
+            dataModel.put("approximateCount", context.isApproximateCount());
+            dataModel.put("countMode", context.getOptions().getCountMode().name());
 
             StringWriter writer = new StringWriter();
             template.process(dataModel, writer);
@@ -403,9 +793,31 @@ public class TemplateService {
     }
 
     /**
-     * 预览所有后端代码
+     * 预览所有后端代码（相同上下文的并发请求合并为一次渲染）
      */
     public Map<String, String> previewBackend(GeneratorContext ctx) {
+        return new LinkedHashMap<>(renderFlight.execute("backend|" + renderKey(ctx), () -> doPreviewBackend(ctx)));
+    }
+
+    /**
+     * 预览前端代码（相同上下文的并发请求合并为一次渲染）
+     */
+    public Map<String, String> previewFrontend(GeneratorContext ctx) {
+        return new LinkedHashMap<>(renderFlight.execute("frontend|" + renderKey(ctx), () -> doPreviewFrontend(ctx)));
+    }
+
+    /**
+     * 渲染合并键：数据源 + 影响渲染结果的上下文内容（表、业务/模块名、字段配置、关联配置等，不含生成时间）
+     */
+    private String renderKey(GeneratorContext ctx) {
+        JSONObject content = JSONUtil.parseObj(ctx);
+        content.remove("datetime");
+        content.remove("subPackageName");
+        content.remove("className");
+        return dataSourceKey + "|" + ctx.getTableName() + "|" + DigestUtil.md5Hex(content.toString());
+    }
+
+    private Map<String, String> doPreviewBackend(GeneratorContext ctx) {
         Map<String, String> result = new LinkedHashMap<>();
 
         // Entity
@@ -427,11 +839,24 @@ public class TemplateService {
         ctx.setClassName(ctx.getClassNamePrefix() + "DetailResp");
         result.put("DetailResp.java", render("backend/DetailResp.ftl", ctx));
 
+        // CursorResp（游标分页）
+        if (ctx.isKeysetPagination()) {
+            ctx.setClassName(ctx.getClassNamePrefix() + "CursorResp");
+            result.put("CursorResp.java", render("backend/CursorResp.ftl", ctx));
+        }
+
         // Query
         ctx.setSubPackageName("model.query");
         ctx.setClassName(ctx.getClassNamePrefix() + "Query");
         result.put("Query.java", render("backend/Query.ftl", ctx));
 
+        // Converter（对象转换）
+        if (ctx.isConverter()) {
+            ctx.setSubPackageName("converter");
+            ctx.setClassName(ctx.getClassNamePrefix() + "Converter");
+            result.put("Converter.java", render("backend/Converter.ftl", ctx));
+        }
+
         // Mapper
         ctx.setSubPackageName("mapper");
         ctx.setClassName(ctx.getClassNamePrefix() + "Mapper");
@@ -455,13 +880,17 @@ public class TemplateService {
         ctx.setClassName(ctx.getClassNamePrefix() + "Controller");
         result.put("Controller.java", render("backend/Controller.ftl", ctx));
 
+        // 枚举（MySQL enum 字段）
+        for (FieldConfig field : ctx.getFieldConfigs()) {
+            if (field.getEnumValues() != null && !field.getEnumValues().isEmpty()) {
+                result.put(field.getFieldType() + ".java", renderEnum(ctx, field));
+            }
+        }
+
         return result;
     }
 
-    /**
-     * 预览前端代码
-     */
-    public Map<String, String> previewFrontend(GeneratorContext ctx) {
+    private Map<String, String> doPreviewFrontend(GeneratorContext ctx) {
         Map<String, String> result = new LinkedHashMap<>();
 
         result.put("index.vue", render("frontend/index.ftl", ctx));
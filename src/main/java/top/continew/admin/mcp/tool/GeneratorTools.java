@@ -1,21 +1,39 @@
 package top.continew.admin.mcp.tool;
 
+import cn.hutool.core.bean.BeanUtil;
+import cn.hutool.core.util.EnumUtil;
 import cn.hutool.core.util.StrUtil;
 import cn.hutool.json.JSONArray;
 import cn.hutool.json.JSONObject;
 import cn.hutool.json.JSONUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.model.ToolContext;
 import org.springframework.ai.tool.annotation.Tool;
 import org.springframework.ai.tool.annotation.ToolParam;
+import org.springframework.dao.DataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Component;
+import top.continew.admin.mcp.model.CursorPage;
+import top.continew.admin.mcp.model.DictInfo;
 import top.continew.admin.mcp.model.FieldConfig;
+import top.continew.admin.mcp.model.GenerateOptions;
 import top.continew.admin.mcp.model.GeneratorContext;
+import top.continew.admin.mcp.model.ManyToManyRelation;
+import top.continew.admin.mcp.model.MenuNode;
 import top.continew.admin.mcp.model.ProjectPathConfig;
 import top.continew.admin.mcp.model.RelationConfig;
+import top.continew.admin.mcp.model.SchemaModule;
+import top.continew.admin.mcp.model.TableRelation;
+import top.continew.admin.mcp.service.DictIndexService;
+import top.continew.admin.mcp.service.MenuIndexService;
+import top.continew.admin.mcp.service.MetadataPrefetchService;
+import top.continew.admin.mcp.service.ProjectPathSessionService;
+import top.continew.admin.mcp.service.SchemaGraphService;
 import top.continew.admin.mcp.service.TemplateService;
 
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -43,7 +61,37 @@ public class GeneratorTools {
 
     private final JdbcTemplate jdbcTemplate;
     private final TemplateService templateService;
-    private final ProjectPathConfig projectPathConfig;
+    private final ProjectPathSessionService projectPathSessionService;
+    private final MenuIndexService menuIndexService;
+    private final DictIndexService dictIndexService;
+    private final MetadataPrefetchService metadataPrefetchService;
+    private final SchemaGraphService schemaGraphService;
+
+    /**
+     * 列表类工具分页大小
+     */
+    private static final int DEFAULT_TABLE_PAGE_SIZE = 200;
+    private static final int DEFAULT_COLUMN_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    /**
+     * 表关系图导出：公共表阈值与图形导出的表数上限
+     */
+    private static final int DEFAULT_HUB_THRESHOLD = 15;
+    private static final int MAX_DIAGRAM_TABLES = 500;
+
+    /**
+     * 生成选项参数说明（多个生成工具共用）
+     */
+    private static final String OPTIONS_PARAM_DESC = "生成选项 JSON（可选），如 {\"pageMode\":\"KEYSET\",\"exportMode\":\"STREAM\"}：" +
+        "pageMode 为 OFFSET（默认，页码分页）或 KEYSET（额外生成按 create_time、id 游标翻页的 /cursor 接口，千万级大表深分页耗时恒定）；" +
+        "exportMode 为 DEFAULT（默认）或 STREAM（流式导出 + 异步导出接口，百万级数据不占内存），可配 exportFetchSize、exportMaxRows（默认 1000000）；" +
+        "cache 为 true 时在 Service 中生成本地缓存（详情、字典，写操作时清除，适合分类、地区等小表；FILL 关联是否缓存由关联的 cacheable 决定），可配 cacheMaxSize（默认 1000）、cacheTtlSeconds（默认 300），" +
+        "不指定时根据表数据量与读写比例给出建议；" +
+        "batchApi 为 true 时生成批量新增、批量修改接口（批量执行器分批写入，每批独立提交），批量删除同样分批执行；" +
+        "converter 为 true 时生成 {类名前缀}Converter 对象转换类（直接调用 getter/setter），分页、详情、批量写入不再使用反射拷贝；" +
+        "countMode 为 EXACT（默认）、ESTIMATE（未设置查询条件时跳过 COUNT，总数取 information_schema 估算值并缓存，前端显示约 N 条）或 NONE（未设置查询条件时不统计总数），适合千万级大表；" +
+        "partitionQueryDays 仅对按 create_time 分区的表生效：分页、列表、导出未传创建时间范围时默认查询最近的天数（默认 90）";
 
     /**
      * SQL 白名单：只允许执行的 SQL 类型（不区分大小写）
@@ -112,6 +160,8 @@ analyzeBusinessRelation(mainTable) →  分析表关系，推荐生成策略
   writeBackendCodeWithRelations(projectRoot, tableName, businessName, moduleName, relationsJson)
   → 自动在 Resp 添加关联字段
   → 自动在 Mapper XML 生成 JOIN 查询
+  → 主表数据量大时给 JOIN 关联加 "fetchMode":"FILL"，分页与 COUNT 只查主表，显示字段按 ID 批量回填
+  → 千万级大表可传 optionsJson={"pageMode":"KEYSET"}，额外生成按 (create_time, id) 游标翻页的 /cursor 接口
 
 多表业务示例（用车管理）：
   writeBackendCodeWithRelations(root, "biz_vehicle", "车辆信息", "vehicle", null)
@@ -147,7 +197,8 @@ analyzeBusinessRelation(mainTable) →  分析表关系，推荐生成策略
 
 ### 第六步：生成菜单权限（必须正确配置！）
 ```
-listMenus()                        →  获取现有菜单，判断父菜单ID
+listMenus()                        →  获取顶层菜单大纲，判断父菜单ID
+listMenus(keyword/pathPrefix/menuId) → 按关键字/路由前缀/子树精确定位菜单
 
 新模块场景（需要创建一级目录菜单）：
   generateDirectoryMenuSql(菜单名, 模块名, 路由名, 图标, 跳转路径, 排序)  →  生成一级目录菜单
@@ -204,9 +255,11 @@ validateGeneratedCode(...)         →  验证生成的代码
         @ToolParam(description = "后端包名前缀，如: top.continew.admin") String backendPackagePrefix,
         @ToolParam(description = "Mapper XML 路径，如: continew-system/src/main/resources/mapper") String mapperXmlPath,
         @ToolParam(description = "前端代码根路径，如: continew-admin-ui/src") String frontendRootPath,
-        @ToolParam(description = "SQL 输出路径，如: continew-server/src/main/resources/db/changelog/sql") String sqlOutputPath
+        @ToolParam(description = "SQL 输出路径，如: continew-server/src/main/resources/db/changelog/sql") String sqlOutputPath,
+        ToolContext toolContext
     ) {
         log.info("调用 configureProjectPaths，配置项目路径");
+        ProjectPathConfig projectPathConfig = projectPathSessionService.get(toolContext);
         
         if (StrUtil.isNotBlank(backendRootPath)) {
             projectPathConfig.setBackendRootPath(backendRootPath);
@@ -244,8 +297,9 @@ validateGeneratedCode(...)         →  验证生成的代码
      * 重置路径配置
      */
     @Tool(description = "重置项目路径配置为默认值")
-    public String resetPathConfig() {
+    public String resetPathConfig(ToolContext toolContext) {
         log.info("调用 resetPathConfig，重置路径配置");
+        ProjectPathConfig projectPathConfig = projectPathSessionService.get(toolContext);
         projectPathConfig.reset();
         return "项目路径配置已重置为默认值。请重新调用 configureProjectPaths 配置代码存放路径。";
     }
@@ -255,9 +309,11 @@ validateGeneratedCode(...)         →  验证生成的代码
      */
     @Tool(description = "智能扫描项目目录结构，自动推断并推荐前后端代码存放路径。扫描后返回推荐配置，用户确认后可直接使用")
     public String scanProjectStructure(
-        @ToolParam(description = "项目根目录绝对路径，如: C:/projects/continew-admin") String projectRoot
+        @ToolParam(description = "项目根目录绝对路径，如: C:/projects/continew-admin") String projectRoot,
+        ToolContext toolContext
     ) {
         log.info("调用 scanProjectStructure，扫描项目结构: {}", projectRoot);
+        ProjectPathConfig projectPathConfig = projectPathSessionService.get(toolContext);
         
         if (StrUtil.isBlank(projectRoot)) {
             return "请提供项目根目录路径";
@@ -357,7 +413,7 @@ validateGeneratedCode(...)         →  验证生成的代码
     /**
      * 检查路径是否已配置，未配置则返回错误提示
      */
-    private String checkPathConfigured() {
+    private String checkPathConfigured(ProjectPathConfig projectPathConfig) {
         if (!projectPathConfig.isConfigured()) {
             StringBuilder sb = new StringBuilder();
             sb.append("## ⚠️ 路径未配置，无法写入代码\n\n");
@@ -388,18 +444,22 @@ validateGeneratedCode(...)         →  验证生成的代码
         @ToolParam(description = "表名") String tableName,
         @ToolParam(description = "业务名称（中文）") String businessName,
         @ToolParam(description = "模块名") String moduleName,
-        @ToolParam(description = "作者名（可选）", required = false) String author
+        @ToolParam(description = "作者名（可选）", required = false) String author,
+        @ToolParam(description = OPTIONS_PARAM_DESC, required = false) String optionsJson,
+        ToolContext toolContext
     ) {
         log.info("调用 writeBackendCode，表名：{}，模块：{}", tableName, moduleName);
+        ProjectPathConfig projectPathConfig = projectPathSessionService.get(toolContext);
         
         // 强制检查路径配置
-        String pathError = checkPathConfigured();
+        String pathError = checkPathConfigured(projectPathConfig);
         if (pathError != null) {
             return pathError;
         }
         
         try {
             GeneratorContext ctx = templateService.buildContext(tableName, businessName, moduleName, author);
+            templateService.applyOptions(ctx, parseOptions(optionsJson));
             Map<String, String> codes = templateService.previewBackend(ctx);
             
             String backendRoot = projectRoot + "/" + projectPathConfig.getBackendRootPath() + "/" + moduleName;
@@ -424,6 +484,7 @@ validateGeneratedCode(...)         →  验证生成的代码
             for (String path : writtenFiles) {
                 sb.append("- `").append(path).append("`\n");
             }
+            appendOptionHints(sb, ctx);
             return sb.toString();
         } catch (Exception e) {
             log.error("写入后端代码失败", e);
@@ -435,15 +496,19 @@ validateGeneratedCode(...)         →  验证生成的代码
         if (fileName.endsWith(".xml")) {
             return mapperXmlRoot + "/" + classNamePrefix + "Mapper.xml";
         }
+        if (fileName.endsWith("Enum.java")) {
+            return backendRoot + "/enums/" + fileName;
+        }
         String subDir = switch (fileName) {
             case "Entity.java" -> "model/entity";
             case "Req.java" -> "model/req";
-            case "Resp.java", "DetailResp.java" -> "model/resp";
+            case "Resp.java", "DetailResp.java", "CursorResp.java" -> "model/resp";
             case "Query.java" -> "model/query";
             case "Mapper.java" -> "mapper";
             case "Service.java" -> "service";
             case "ServiceImpl.java" -> "service/impl";
             case "Controller.java" -> "controller";
+            case "Converter.java" -> "converter";
             default -> "";
         };
         String realFileName = fileName.replace(".java", "");
@@ -460,18 +525,22 @@ validateGeneratedCode(...)         →  验证生成的代码
         @ToolParam(description = "项目根目录绝对路径") String projectRoot,
         @ToolParam(description = "表名") String tableName,
         @ToolParam(description = "业务名称（中文）") String businessName,
-        @ToolParam(description = "模块名") String moduleName
+        @ToolParam(description = "模块名") String moduleName,
+        @ToolParam(description = OPTIONS_PARAM_DESC, required = false) String optionsJson,
+        ToolContext toolContext
     ) {
         log.info("调用 writeFrontendCode，表名：{}，模块：{}", tableName, moduleName);
+        ProjectPathConfig projectPathConfig = projectPathSessionService.get(toolContext);
         
         // 强制检查路径配置
-        String pathError = checkPathConfigured();
+        String pathError = checkPathConfigured(projectPathConfig);
         if (pathError != null) {
             return pathError;
         }
         
         try {
             GeneratorContext ctx = templateService.buildContext(tableName, businessName, moduleName, null);
+            templateService.applyOptions(ctx, parseOptions(optionsJson));
             Map<String, String> codes = templateService.previewFrontend(ctx);
             
             String viewsRoot = projectRoot + "/" + projectPathConfig.getFrontendRootPath() + "/views/" + ctx.getApiModuleName() + "/" + ctx.getApiName();
@@ -518,12 +587,14 @@ validateGeneratedCode(...)         →  验证生成的代码
         @ToolParam(description = "表名") String tableName,
         @ToolParam(description = "业务名称（中文）") String businessName,
         @ToolParam(description = "模块名") String moduleName,
-        @ToolParam(description = "父菜单 ID") Long parentMenuId
+        @ToolParam(description = "父菜单 ID") Long parentMenuId,
+        ToolContext toolContext
     ) {
         log.info("调用 writeMenuSql，表名：{}，父菜单ID：{}", tableName, parentMenuId);
+        ProjectPathConfig projectPathConfig = projectPathSessionService.get(toolContext);
         
         // 强制检查路径配置
-        String pathError = checkPathConfigured();
+        String pathError = checkPathConfigured(projectPathConfig);
         if (pathError != null) {
             return pathError;
         }
@@ -551,12 +622,14 @@ validateGeneratedCode(...)         →  验证生成的代码
     @Tool(description = "将 AI 生成的代码内容写入到指定文件。写入前必须先询问用户代码生成位置，并调用 configureProjectPaths 配置路径")
     public String writeFile(
         @ToolParam(description = "文件绝对路径，如: C:/project/src/views/coupon/index.vue") String filePath,
-        @ToolParam(description = "文件内容") String content
+        @ToolParam(description = "文件内容") String content,
+        ToolContext toolContext
     ) {
         log.info("调用 writeFile，路径：{}", filePath);
+        ProjectPathConfig projectPathConfig = projectPathSessionService.get(toolContext);
         
         // 强制检查路径配置
-        String pathError = checkPathConfigured();
+        String pathError = checkPathConfigured(projectPathConfig);
         if (pathError != null) {
             return pathError;
         }
@@ -624,9 +697,11 @@ validateGeneratedCode(...)         →  验证生成的代码
     public String validateGeneratedCode(
         @ToolParam(description = "项目根目录绝对路径") String projectRoot,
         @ToolParam(description = "模块名") String moduleName,
-        @ToolParam(description = "类名前缀，如 Coupon") String classNamePrefix
+        @ToolParam(description = "类名前缀，如 Coupon") String classNamePrefix,
+        ToolContext toolContext
     ) {
         log.info("调用 validateGeneratedCode，模块：{}，类名前缀：{}", moduleName, classNamePrefix);
+        ProjectPathConfig projectPathConfig = projectPathSessionService.get(toolContext);
         
         StringBuilder sb = new StringBuilder();
         sb.append("## 代码验证结果\n\n");
@@ -736,43 +811,30 @@ validateGeneratedCode(...)         →  验证生成的代码
         sb.append("## 业务关系分析报告\n\n");
         sb.append("主表: `").append(mainTable).append("` (").append(businessName).append(")\n\n");
         
-        // 1. 检测主表字段中的外键关联（JOIN场景）
-        List<Map<String, Object>> mainColumns = jdbcTemplate.queryForList(
-            "SELECT COLUMN_NAME, COLUMN_COMMENT FROM information_schema.COLUMNS " +
-            "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? " +
-            "AND COLUMN_NAME LIKE '%_id' AND COLUMN_NAME != 'id' " +
-            "AND COLUMN_NAME NOT IN ('create_user', 'update_user', 'tenant_id')",
-            mainTable
-        );
-        
-        List<Map<String, String>> joinRelations = new ArrayList<>();
-        for (Map<String, Object> col : mainColumns) {
-            String columnName = (String) col.get("COLUMN_NAME");
-            String comment = (String) col.get("COLUMN_COMMENT");
-            // 推断可能的关联表
-            String possibleTable = guessForeignTable(columnName, mainTable);
-            if (possibleTable != null && tableExists(possibleTable)) {
-                Map<String, String> rel = new HashMap<>();
-                rel.put("column", columnName);
-                rel.put("comment", comment != null ? comment : "");
-                rel.put("targetTable", possibleTable);
-                joinRelations.add(rel);
+        // 1. 主表外键关联（JOIN场景）与 2. 子表（一对多场景）、多对多均从内存关系图获取
+        try {
+            if (!schemaGraphService.tableExists(mainTable)) {
+                return "表 " + mainTable + " 不存在";
             }
-        }
-        
-        // 2. 检测子表（一对多场景）- 查找引用主表的其他表
-        String mainTableId = mainTable.replace("biz_", "").replace("sys_", "");
-        List<Map<String, Object>> childTables = jdbcTemplate.queryForList(
-            "SELECT DISTINCT t.TABLE_NAME, t.TABLE_COMMENT, c.COLUMN_NAME " +
-            "FROM information_schema.TABLES t " +
-            "JOIN information_schema.COLUMNS c ON t.TABLE_NAME = c.TABLE_NAME AND t.TABLE_SCHEMA = c.TABLE_SCHEMA " +
-            "WHERE t.TABLE_SCHEMA = DATABASE() " +
-            "AND c.COLUMN_NAME LIKE ? " +
-            "AND t.TABLE_NAME != ? " +
-            "AND t.TABLE_NAME NOT LIKE '%_log'",
-            "%" + mainTableId + "_id%", mainTable
-        );
-        
+        } catch (IllegalStateException e) {
+            return e.getMessage();
+        }
+        List<TableRelation> joinRelations = schemaGraphService.getParents(mainTable);
+        List<TableRelation> childTables = schemaGraphService.getChildren(mainTable).stream()
+            .filter(rel -> !rel.getSourceTable().equals(mainTable))
+            .filter(rel -> !rel.getSourceTable().endsWith("_log"))
+            .filter(rel -> !schemaGraphService.isMiddleTable(rel.getSourceTable()))
+            .toList();
+        List<ManyToManyRelation> manyToManyRelations = schemaGraphService.getManyToMany(mainTable);
+
+        // 后续通常会对主表及关联表调用 getTableColumns / getApiInfo，后台预热字段元数据
+        List<String> relatedTables = new ArrayList<>();
+        relatedTables.add(mainTable);
+        joinRelations.forEach(rel -> relatedTables.add(rel.getTargetTable()));
+        childTables.forEach(child -> relatedTables.add(child.getSourceTable()));
+        manyToManyRelations.forEach(rel -> relatedTables.add(rel.getTargetTable()));
+        metadataPrefetchService.prefetch(relatedTables);
+
         // 3. 分析结果
         boolean hasForeignKey = !joinRelations.isEmpty();
         boolean hasChildTable = !childTables.isEmpty();
@@ -784,10 +846,10 @@ validateGeneratedCode(...)         →  验证生成的代码
             sb.append("#### 发现外键关联 (JOIN 查询场景)\n");
             sb.append("| 字段名 | 关联表 | 备注 |\n");
             sb.append("|--------|--------|------|\n");
-            for (Map<String, String> rel : joinRelations) {
-                sb.append("| `").append(rel.get("column")).append("` | `");
-                sb.append(rel.get("targetTable")).append("` | ");
-                sb.append(rel.get("comment")).append(" |\n");
+            for (TableRelation rel : joinRelations) {
+                sb.append("| `").append(rel.getSourceColumn()).append("` | `");
+                sb.append(rel.getTargetTable()).append("` | ");
+                sb.append(StrUtil.nullToEmpty(rel.getComment())).append(" |\n");
             }
             sb.append("\n");
         }
@@ -796,10 +858,24 @@ validateGeneratedCode(...)         →  验证生成的代码
             sb.append("#### 发现子表 (一对多场景)\n");
             sb.append("| 子表名 | 关联字段 | 表注释 |\n");
             sb.append("|--------|----------|--------|\n");
-            for (Map<String, Object> child : childTables) {
-                sb.append("| `").append(child.get("TABLE_NAME")).append("` | `");
-                sb.append(child.get("COLUMN_NAME")).append("` | ");
-                sb.append(child.get("TABLE_COMMENT") != null ? child.get("TABLE_COMMENT") : "").append(" |\n");
+            for (TableRelation child : childTables) {
+                sb.append("| `").append(child.getSourceTable()).append("` | `");
+                sb.append(child.getSourceColumn()).append("` | ");
+                sb.append(StrUtil.nullToEmpty(schemaGraphService.getTableComment(child.getSourceTable()))).append(" |\n");
+            }
+            sb.append("\n");
+        }
+
+        if (!manyToManyRelations.isEmpty()) {
+            sb.append("#### 发现多对多关联 (中间表场景)\n");
+            sb.append("| 中间表 | 主表字段 | 目标字段 | 目标表 | 表注释 |\n");
+            sb.append("|--------|----------|----------|--------|--------|\n");
+            for (ManyToManyRelation rel : manyToManyRelations) {
+                sb.append("| `").append(rel.getMiddleTable()).append("` | `");
+                sb.append(rel.getMiddleSourceColumn()).append("` | `");
+                sb.append(rel.getMiddleTargetColumn()).append("` | `");
+                sb.append(rel.getTargetTable()).append("` | ");
+                sb.append(StrUtil.nullToEmpty(schemaGraphService.getTableComment(rel.getTargetTable()))).append(" |\n");
             }
             sb.append("\n");
         }
@@ -822,17 +898,20 @@ validateGeneratedCode(...)         →  验证生成的代码
             sb.append("1. 先调用 `generateMasterDetailPage` 生成主子表页面\n");
             sb.append("2. 再根据需要调整 JOIN 查询\n");
         }
+        if (!manyToManyRelations.isEmpty()) {
+            sb.append("\n另有多对多关联，可在 `generateWithRelations` 的关联配置中使用 `MANY_TO_MANY` 类型\n");
+        }
         
         // 5. 生成关联配置 JSON 示例
         if (hasChildTable) {
             sb.append("\n### 一对多关联配置示例\n\n");
             sb.append("```json\n[");
             int i = 0;
-            for (Map<String, Object> child : childTables) {
+            for (TableRelation child : childTables) {
                 if (i > 0) sb.append(",");
-                String childTable = (String) child.get("TABLE_NAME");
-                String childColumn = (String) child.get("COLUMN_NAME");
-                String childComment = child.get("TABLE_COMMENT") != null ? (String) child.get("TABLE_COMMENT") : "";
+                String childTable = child.getSourceTable();
+                String childColumn = child.getSourceColumn();
+                String childComment = StrUtil.nullToEmpty(schemaGraphService.getTableComment(childTable));
                 String childClassName = StrUtil.upperFirst(StrUtil.toCamelCase(childTable.replace("biz_", "").replace("sys_", "")));
                 sb.append("\n  {");
                 sb.append("\n    \"type\": \"ONE_TO_MANY\",");
@@ -848,46 +927,82 @@ validateGeneratedCode(...)         →  验证生成的代码
             }
             sb.append("\n]\n```\n");
         }
+        if (!manyToManyRelations.isEmpty()) {
+            sb.append("\n### 多对多关联配置示例\n\n");
+            sb.append("```json\n[");
+            int i = 0;
+            for (ManyToManyRelation rel : manyToManyRelations) {
+                if (i > 0) sb.append(",");
+                String targetTable = rel.getTargetTable();
+                String targetName = targetTable.replace("biz_", "").replace("sys_", "");
+                String targetComment = StrUtil.nullToEmpty(schemaGraphService.getTableComment(targetTable));
+                sb.append("\n  {");
+                sb.append("\n    \"type\": \"MANY_TO_MANY\",");
+                sb.append("\n    \"targetTable\": \"").append(targetTable).append("\",");
+                sb.append("\n    \"targetBusinessName\": \"").append(targetComment.replace("表", "")).append("\",");
+                sb.append("\n    \"targetClassNamePrefix\": \"").append(StrUtil.upperFirst(StrUtil.toCamelCase(targetName))).append("\",");
+                sb.append("\n    \"middleTable\": \"").append(rel.getMiddleTable()).append("\",");
+                sb.append("\n    \"middleSourceColumn\": \"").append(rel.getMiddleSourceColumn()).append("\",");
+                sb.append("\n    \"middleTargetColumn\": \"").append(rel.getMiddleTargetColumn()).append("\",");
+                sb.append("\n    \"relationFieldName\": \"").append(StrUtil.toCamelCase(targetName)).append("\"");
+                sb.append("\n  }");
+                i++;
+            }
+            sb.append("\n]\n```\n");
+        }
         
         log.info("业务关系分析完成");
         return sb.toString();
     }
     
     /**
-     * 推断外键关联的表名
-     */
-    private String guessForeignTable(String columnName, String mainTable) {
-        // 移除 _id 后缀
-        String baseName = columnName.replace("_id", "");
-        // 试探多种表名形式
-        String prefix = mainTable.startsWith("biz_") ? "biz_" : (mainTable.startsWith("sys_") ? "sys_" : "");
-        String[] candidates = {
-            prefix + baseName,
-            "biz_" + baseName,
-            "sys_" + baseName,
-            baseName
-        };
-        for (String candidate : candidates) {
-            if (tableExists(candidate)) {
-                return candidate;
-            }
-        }
-        return null;
-    }
-    
-    /**
-     * 检查表是否存在
+     * 导出全库表关系图并划分建议模块
      */
-    private boolean tableExists(String tableName) {
+    @Tool(description = "一次性导出全库（或指定前缀）的表关系图，并按外键/命名关联将表聚类为建议模块，用于按模块规划批量生成和 moduleName；" +
+        "format 为 MODULES（模块划分，默认）、MERMAID（erDiagram）或 DOT（Graphviz，按模块分组）")
+    public String exportSchemaGraph(
+        @ToolParam(description = "表名前缀过滤，多个用逗号分隔，如 biz_order,biz_coupon（可选，默认全库）", required = false) String namePrefix,
+        @ToolParam(description = "输出格式：MODULES、MERMAID、DOT（可选，默认 MODULES）", required = false) String format,
+        @ToolParam(description = "公共表阈值：被超过该数量的表引用的表（如 sys_user）不参与模块合并（可选，默认 " + DEFAULT_HUB_THRESHOLD + "，0 表示不排除）", required = false) Integer hubThreshold
+    ) {
+        log.info("调用 exportSchemaGraph，前缀：{}，格式：{}", namePrefix, format);
+        Map<String, String> comments;
         try {
-            Integer count = jdbcTemplate.queryForObject(
-                "SELECT COUNT(*) FROM information_schema.TABLES WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ?",
-                Integer.class, tableName
-            );
-            return count != null && count > 0;
-        } catch (Exception e) {
-            return false;
+            comments = schemaGraphService.getTables();
+        } catch (IllegalStateException e) {
+            return e.getMessage();
+        }
+        List<String> prefixes = StrUtil.splitTrim(StrUtil.nullToEmpty(namePrefix), ',');
+        Set<String> tables = comments.keySet()
+            .stream()
+            .filter(table -> prefixes.isEmpty() || prefixes.stream().anyMatch(table::startsWith))
+            .collect(Collectors.toCollection(LinkedHashSet::new));
+        if (tables.isEmpty()) {
+            return "没有匹配的表";
+        }
+        List<TableRelation> relations = schemaGraphService.getRelations()
+            .stream()
+            .filter(rel -> tables.contains(rel.getSourceTable()) && tables.contains(rel.getTargetTable()))
+            .sorted(Comparator.comparing(TableRelation::getTargetTable).thenComparing(TableRelation::getSourceTable))
+            .toList();
+        List<SchemaModule> modules = schemaGraphService.clusterModules(tables,
+            hubThreshold != null ? hubThreshold : DEFAULT_HUB_THRESHOLD);
+
+        SchemaGraphExporter.Format exportFormat = SchemaGraphExporter.Format.of(format);
+        if (exportFormat != SchemaGraphExporter.Format.MODULES && tables.size() > MAX_DIAGRAM_TABLES) {
+            return "匹配的表共 " + tables.size() + " 张，超过图形导出上限 " + MAX_DIAGRAM_TABLES +
+                "，请先用 MODULES 格式查看模块划分，再按 namePrefix 分模块导出";
         }
+        StringBuilder sb = new StringBuilder();
+        sb.append("## 表关系图\n\n");
+        sb.append(tables.size()).append(" 张表，").append(relations.size()).append(" 条关系，")
+            .append(modules.stream().filter(m -> m.getTables().size() > 1).count()).append(" 个建议模块\n\n");
+        sb.append(switch (exportFormat) {
+            case MERMAID -> SchemaGraphExporter.toMermaid(relations);
+            case DOT -> SchemaGraphExporter.toDot(modules, relations, comments);
+            case MODULES -> SchemaGraphExporter.toModules(modules, comments);
+        });
+        return sb.toString();
     }
 
     /**
@@ -968,12 +1083,14 @@ validateGeneratedCode(...)         →  验证生成的代码
         @ToolParam(description = "主表名") String masterTable,
         @ToolParam(description = "子表名") String detailTable,
         @ToolParam(description = "子表业务名称") String detailBusinessName,
-        @ToolParam(description = "模块名") String moduleName
+        @ToolParam(description = "模块名") String moduleName,
+        ToolContext toolContext
     ) {
         log.info("调用 writeDetailTableApi，子表：{}", detailTable);
+        ProjectPathConfig projectPathConfig = projectPathSessionService.get(toolContext);
         
         // 强制检查路径配置
-        String pathError = checkPathConfigured();
+        String pathError = checkPathConfigured(projectPathConfig);
         if (pathError != null) {
             return pathError;
         }
@@ -1011,10 +1128,21 @@ validateGeneratedCode(...)         →  验证生成的代码
         @ToolParam(description = "业务名称（中文），如：优惠券管理") String businessName,
         @ToolParam(description = "表名，如：biz_coupon") String tableName,
         @ToolParam(description = "表字段定义JSON数组，如：[{\"name\":\"name\",\"type\":\"VARCHAR(100)\",\"comment\":\"优惠券名称\",\"nullable\":false}]") String fieldsJson,
-        @ToolParam(description = "表注释") String tableComment
+        @ToolParam(description = "表注释") String tableComment,
+        @ToolParam(description = "分区粒度（可选，适用于日志/记录类大表）：DAY、MONTH、YEAR，按 create_time 进行 RANGE 分区；不传则不分区", required = false) String partitionGranularity,
+        @ToolParam(description = "预创建分区数量（可选，从当前周期开始），默认 DAY=30、MONTH=12、YEAR=3", required = false) Integer partitionWindow
     ) {
-        log.info("调用 generateCreateTableSql，业务名：{}，表名：{}", businessName, tableName);
-        
+        log.info("调用 generateCreateTableSql，业务名：{}，表名：{}，分区粒度：{}", businessName, tableName, partitionGranularity);
+
+        PartitionGranularity granularity = null;
+        if (StrUtil.isNotBlank(partitionGranularity)) {
+            try {
+                granularity = PartitionGranularity.valueOf(partitionGranularity.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                return "不支持的分区粒度：" + partitionGranularity + "（仅支持 DAY、MONTH、YEAR）";
+            }
+        }
+
         StringBuilder sql = new StringBuilder();
         sql.append("-- ").append(businessName).append("表\n");
         sql.append("CREATE TABLE IF NOT EXISTS `").append(tableName).append("` (\n");
@@ -1040,16 +1168,92 @@ validateGeneratedCode(...)         →  验证生成的代码
         
         // 基础字段（必须包含，与 TenantBaseDO 基类字段对应）
         sql.append("    `create_user` BIGINT COMMENT '创建人',\n");
-        sql.append("    `create_time` DATETIME COMMENT '创建时间',\n");
+        if (granularity != null) {
+            // 分区列必须非空，否则 NULL 值全部落入第一个分区
+            sql.append("    `create_time` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',\n");
+        } else {
+            sql.append("    `create_time` DATETIME COMMENT '创建时间',\n");
+        }
         sql.append("    `update_user` BIGINT COMMENT '修改人',\n");
         sql.append("    `update_time` DATETIME COMMENT '修改时间',\n");
         sql.append("    `deleted` BIGINT DEFAULT 0 COMMENT '是否删除（0-否，其他-是）',\n");
         sql.append("    `tenant_id` BIGINT DEFAULT 0 COMMENT '租户ID',\n");
-        sql.append("    PRIMARY KEY (`id`),\n");
+        if (granularity != null) {
+            // MySQL 要求分区列包含在主键（及所有唯一键）中
+            sql.append("    PRIMARY KEY (`id`, `create_time`),\n");
+        } else {
+            sql.append("    PRIMARY KEY (`id`),\n");
+        }
         sql.append("    INDEX `idx_tenant` (`tenant_id`)\n");
-        sql.append(") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='").append(tableComment).append("';\n");
-        
-        return "## 建表 SQL\n\n```sql\n" + sql.toString() + "```\n\n请确认表结构后，调用 `executeSql` 执行建表。";
+        sql.append(") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='").append(tableComment).append("'");
+        if (granularity != null) {
+            sql.append("\n").append(buildPartitionClause(granularity, partitionWindow));
+        }
+        sql.append(";\n");
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("## 建表 SQL\n\n```sql\n").append(sql).append("```\n\n");
+        if (granularity != null) {
+            sb.append("### 分区说明\n");
+            sb.append("- 分区方式: `RANGE COLUMNS(create_time)`，粒度 ").append(granularity).append("\n");
+            sb.append("- 主键已调整为 `(id, create_time)`，`create_time` 改为 NOT NULL\n");
+            sb.append("- 生成的分页、列表、导出查询会始终携带 `create_time` 范围条件，以便 MySQL 进行分区裁剪；未传时默认只查最近 ")
+                .append(GeneratorContext.DEFAULT_PARTITION_QUERY_DAYS)
+                .append(" 天，生成代码时可通过生成选项 `{\"partitionQueryDays\":365}` 调整，默认范围会写入生成接口的说明\n");
+            sb.append("- 分区到期前需追加新分区：`ALTER TABLE `").append(tableName)
+                .append("` REORGANIZE PARTITION p_max INTO (PARTITION pXXXX VALUES LESS THAN ('...'), PARTITION p_max VALUES LESS THAN (MAXVALUE))`\n\n");
+        }
+        sb.append("请确认表结构后，调用 `executeSql` 执行建表。");
+        return sb.toString();
+    }
+
+    /**
+     * 分区粒度
+     */
+    private enum PartitionGranularity {
+        DAY(30), MONTH(12), YEAR(3);
+
+        /**
+         * 默认预创建分区数量
+         */
+        private final int defaultWindow;
+
+        PartitionGranularity(int defaultWindow) {
+            this.defaultWindow = defaultWindow;
+        }
+    }
+
+    /**
+     * 构建按 create_time 的 RANGE 分区子句（从当前周期开始预创建分区，并保留 MAXVALUE 兜底分区）
+     */
+    private String buildPartitionClause(PartitionGranularity granularity, Integer partitionWindow) {
+        int window = partitionWindow != null && partitionWindow > 0 ? partitionWindow : granularity.defaultWindow;
+        LocalDate start = switch (granularity) {
+            case DAY -> LocalDate.now();
+            case MONTH -> LocalDate.now().withDayOfMonth(1);
+            case YEAR -> LocalDate.now().withDayOfYear(1);
+        };
+        DateTimeFormatter nameFormatter = DateTimeFormatter.ofPattern(switch (granularity) {
+            case DAY -> "yyyyMMdd";
+            case MONTH -> "yyyyMM";
+            case YEAR -> "yyyy";
+        });
+        StringBuilder sb = new StringBuilder();
+        sb.append("PARTITION BY RANGE COLUMNS(`create_time`) (\n");
+        LocalDate current = start;
+        for (int i = 0; i < window; i++) {
+            LocalDate next = switch (granularity) {
+                case DAY -> current.plusDays(1);
+                case MONTH -> current.plusMonths(1);
+                case YEAR -> current.plusYears(1);
+            };
+            sb.append("    PARTITION p").append(current.format(nameFormatter))
+                .append(" VALUES LESS THAN ('").append(next).append(" 00:00:00'),\n");
+            current = next;
+        }
+        sb.append("    PARTITION p_max VALUES LESS THAN (MAXVALUE)\n");
+        sb.append(")");
+        return sb.toString();
     }
 
     // ================== 工具方法 ==================
@@ -1090,6 +1294,11 @@ validateGeneratedCode(...)         →  验证生成的代码
             jdbcTemplate.execute(statement);
             total++;
         }
+        // 表结构可能已变更，清空字段元数据缓存与表关系图
+        if (statements.stream().anyMatch(statement -> StrUtil.startWithAnyIgnoreCase(statement, "CREATE", "ALTER"))) {
+            templateService.evictTableColumns();
+            schemaGraphService.invalidate();
+        }
         String result = "本次成功执行 SQL 语句数量：" + total;
         log.info("executeSql 执行完成，{}", result);
         return result;
@@ -1125,28 +1334,109 @@ validateGeneratedCode(...)         →  验证生成的代码
     /**
      * 获取系统菜单列表（供 AI 判断父菜单）
      */
-    @Tool(description = "获取系统菜单列表（包含 ID、标题、父菜单 ID、类型），用于 AI 判断新菜单应该放在哪个父菜单下")
-    public String listMenus() {
-        log.info("调用 listMenus，获取系统菜单列表");
-        String sql = "SELECT id, title, parent_id, type, path, name FROM sys_menu WHERE type IN (1, 2) AND status = 1 ORDER BY parent_id, sort";
-        List<Map<String, Object>> menus = jdbcTemplate.queryForList(sql);
-        log.info("查询到 {} 个菜单", menus.size());
-        return JSONUtil.toJsonPrettyStr(menus);
+    @Tool(description = "获取系统菜单（目录/菜单），用于 AI 判断新菜单应该放在哪个父菜单下。不传参数时返回顶层菜单大纲；" +
+        "可按子树（menuId）、路由前缀（pathPrefix）、标题关键字（keyword）精确定位，避免拉取整个菜单表")
+    public String listMenus(
+        @ToolParam(description = "子树模式：返回该菜单 ID 下的子树（可选）", required = false) Long menuId,
+        @ToolParam(description = "路由前缀模式：返回路由以该前缀开头的菜单，如 /system（可选）", required = false) String pathPrefix,
+        @ToolParam(description = "搜索模式：按标题或路由名称关键字搜索，如 用户（可选）", required = false) String keyword,
+        @ToolParam(description = "大纲/子树展开深度，默认大纲 2 层、子树不限（可选）", required = false) Integer maxDepth,
+        @ToolParam(description = "路由前缀/搜索模式的输出格式：TABLE（默认）、JSON、PRETTY（可选）", required = false) String format,
+        @ToolParam(description = "路由前缀/搜索模式只输出指定列，可选 id,type,path,titlePath（可选）", required = false) String fields
+    ) {
+        log.info("调用 listMenus，menuId：{}，pathPrefix：{}，keyword：{}", menuId, pathPrefix, keyword);
+        StringBuilder sb = new StringBuilder();
+        try {
+            if (menuId != null) {
+                MenuNode root = menuIndexService.getById(menuId);
+                if (root == null) {
+                    return "菜单不存在或不是已启用的目录/菜单: " + menuId;
+                }
+                sb.append("## 菜单子树：").append(menuIndexService.getTitlePath(root)).append("\n");
+                sb.append("格式：`ID 标题 [类型] 路由`\n\n");
+                appendMenuTree(sb, List.of(root), 0, maxDepth != null ? maxDepth : Integer.MAX_VALUE);
+            } else if (StrUtil.isNotBlank(pathPrefix) || StrUtil.isNotBlank(keyword)) {
+                List<MenuNode> menus = StrUtil.isNotBlank(pathPrefix)
+                    ? menuIndexService.findByPathPrefix(pathPrefix)
+                    : menuIndexService.search(keyword);
+                List<Map<String, Object>> rows = new ArrayList<>(menus.size());
+                for (MenuNode menu : menus) {
+                    Map<String, Object> row = new LinkedHashMap<>();
+                    row.put("id", menu.getId());
+                    row.put("type", menuTypeName(menu));
+                    row.put("path", menu.getPath());
+                    row.put("titlePath", menuIndexService.getTitlePath(menu));
+                    rows.add(row);
+                }
+                return ToolResponseFormatter.format(rows, format, fields);
+            } else {
+                sb.append("## 菜单大纲（共 ").append(menuIndexService.size()).append(" 个目录/菜单）\n");
+                sb.append("格式：`ID 标题 [类型] 路由`，`(+N)` 表示未展开的子菜单数量，可传 menuId 查看子树\n\n");
+                appendMenuTree(sb, menuIndexService.getRoots(), 0, maxDepth != null ? maxDepth : 2);
+            }
+        } catch (IllegalStateException e) {
+            return e.getMessage();
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 以缩进形式输出菜单树
+     */
+    private void appendMenuTree(StringBuilder sb, List<MenuNode> menus, int depth, int maxDepth) {
+        for (MenuNode menu : menus) {
+            List<MenuNode> children = menuIndexService.getChildren(menu.getId());
+            sb.append("  ".repeat(depth)).append(menu.getId()).append(" ").append(menu.getTitle())
+                .append(" [").append(menuTypeName(menu)).append("] ").append(StrUtil.blankToDefault(menu.getPath(), "-"));
+            if (!children.isEmpty() && depth + 1 >= maxDepth) {
+                sb.append(" (+").append(children.size()).append(")");
+            }
+            sb.append("\n");
+            if (depth + 1 < maxDepth) {
+                appendMenuTree(sb, children, depth + 1, maxDepth);
+            }
+        }
+    }
+
+    private String menuTypeName(MenuNode menu) {
+        return Integer.valueOf(1).equals(menu.getType()) ? "目录" : "菜单";
     }
 
     /**
      * 获取系统字典列表（供 AI 判断字段是否使用字典）
      */
-    @Tool(description = "获取系统字典列表（包含字典编码、名称、字典项），用于 AI 判断字段是否应该使用字典")
-    public String listDicts() {
-        log.info("调用 listDicts，获取系统字典列表");
-        String sql = "SELECT d.id, d.code, d.name, d.description, " +
-            "(SELECT GROUP_CONCAT(CONCAT(di.label, ':', di.value) SEPARATOR ', ') " +
-            " FROM sys_dict_item di WHERE di.dict_id = d.id AND di.status = 1 ORDER BY di.sort) AS items " +
-            "FROM sys_dict d WHERE d.status = 1 ORDER BY d.sort";
-        List<Map<String, Object>> dicts = jdbcTemplate.queryForList(sql);
+    @Tool(description = "获取系统字典列表（包含字典编码、名称、字典项），用于 AI 判断字段是否应该使用字典；" +
+        "可按编码前缀或关键字过滤，数据来自内存字典索引，仅在字典变更时重新加载")
+    public String listDicts(
+        @ToolParam(description = "字典编码前缀，如 sys_（可选）", required = false) String codePrefix,
+        @ToolParam(description = "关键字，匹配编码、名称、描述或字典项标签（可选）", required = false) String keyword,
+        @ToolParam(description = ToolResponseFormatter.FORMAT_PARAM_DESC, required = false) String format,
+        @ToolParam(description = "只输出指定列，可选 code,name,items,description（可选）", required = false) String fields
+    ) {
+        log.info("调用 listDicts，编码前缀：{}，关键字：{}", codePrefix, keyword);
+        List<DictInfo> dicts;
+        try {
+            dicts = dictIndexService.list(codePrefix, keyword);
+        } catch (IllegalStateException e) {
+            return e.getMessage();
+        }
         log.info("查询到 {} 个字典", dicts.size());
-        return JSONUtil.toJsonPrettyStr(dicts);
+        if (dicts.isEmpty()) {
+            return "未找到匹配的字典";
+        }
+
+        List<Map<String, Object>> rows = new ArrayList<>(dicts.size());
+        for (DictInfo dict : dicts) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("code", dict.getCode());
+            row.put("name", dict.getName());
+            row.put("items", dict.getItems().stream()
+                .map(item -> item.getLabel() + ":" + item.getValue())
+                .collect(Collectors.joining(", ")));
+            row.put("description", dict.getDescription());
+            rows.add(row);
+        }
+        return ToolResponseFormatter.format(rows, format, fields);
     }
 
     /**
@@ -1171,8 +1461,9 @@ validateGeneratedCode(...)         →  验证生成的代码
      * 获取项目关键路径配置
      */
     @Tool(description = "获取项目关键路径配置（后端模块路径、前端路径、SQL 输出路径等），供 AI 判断代码应放置的位置")
-    public String getProjectPaths() {
+    public String getProjectPaths(ToolContext toolContext) {
         log.info("调用 getProjectPaths，获取项目关键路径");
+        ProjectPathConfig projectPathConfig = projectPathSessionService.get(toolContext);
         StringBuilder sb = new StringBuilder();
         
         // 检查是否已配置
@@ -1251,20 +1542,45 @@ validateGeneratedCode(...)         →  验证生成的代码
         sb.append("|------|-----------|----------|------|\n");
         sb.append("| 主键 | BIGINT | Long | 雪花算法生成 |\n");
         sb.append("| 状态 | TINYINT | Integer | 1-启用, 2-禁用 |\n");
-        sb.append("| 布尔 | BIT(1) | Boolean | b'1'-true, b'0'-false |\n");
+        sb.append("| 布尔 | BIT(1) / TINYINT(1) | Boolean | b'1'-true, b'0'-false |\n");
         sb.append("| 短文本 | VARCHAR(n) | String | n 根据实际需求设置 |\n");
         sb.append("| 长文本 | TEXT | String | 备注、描述等 |\n");
         sb.append("| 日期时间 | DATETIME | LocalDateTime | - |\n");
         sb.append("| 日期 | DATE | LocalDate | - |\n");
         sb.append("| 金额 | DECIMAL(12,2) | BigDecimal | 精确计算 |\n");
-        sb.append("| 排序 | INT | Integer | 默认 0 |\n\n");
+        sb.append("| 排序 | INT | Integer | 默认 0 |\n");
+        sb.append("| 年份 | YEAR | Integer | - |\n");
+        sb.append("| 固定取值 | ENUM('a','b') | 生成的枚举类 | 生成 XxxEnum implements BaseEnum<String>，同时作为枚举字典 |\n");
+        sb.append("| 扩展属性 | JSON | Map<String, Object> | 实体字段使用 JacksonTypeHandler，不作为查询条件 |\n\n");
+
+        sb.append("### 类型映射规则（生成的实体与查询参数类型与列类型保持一致，避免隐式转换导致索引失效）\n");
+        sb.append("| 列类型（COLUMN_TYPE） | Java 类型 |\n");
+        sb.append("|----------------------|----------|\n");
+        sb.append("| TINYINT(1)、BIT(1) | Boolean |\n");
+        sb.append("| TINYINT / SMALLINT / MEDIUMINT（含 UNSIGNED） | Integer |\n");
+        sb.append("| INT | Integer |\n");
+        sb.append("| INT UNSIGNED | Long |\n");
+        sb.append("| BIGINT | Long |\n");
+        sb.append("| BIGINT UNSIGNED | BigInteger |\n");
+        sb.append("| DECIMAL / NUMERIC | BigDecimal |\n");
+        sb.append("| CHAR / VARCHAR / TEXT | String |\n");
+        sb.append("| DATE / TIME / DATETIME / TIMESTAMP | LocalDate / LocalTime / LocalDateTime |\n");
+        sb.append("| YEAR | Integer |\n");
+        sb.append("| ENUM | 生成的枚举类 |\n");
+        sb.append("| JSON | Map<String, Object>（JacksonTypeHandler） |\n\n");
         
         sb.append("### 索引规范\n");
         sb.append("- 外键关联字段必须建索引\n");
         sb.append("- 高频查询字段建索引\n");
         sb.append("- tenant_id 字段建索引（多租户）\n");
         sb.append("- 逻辑删除时，索引需包含 deleted 字段\n\n");
-        
+
+        sb.append("### 分区规范（日志/记录类大表）\n");
+        sb.append("- 每月增长百万级以上的 `*_log`、`*_record` 等表，建议按 `create_time` RANGE 分区\n");
+        sb.append("- 调用 `generateCreateTableSql` 时传入 `partitionGranularity`（DAY/MONTH/YEAR）即可生成分区 DDL\n");
+        sb.append("- 分区列必须包含在主键中：`PRIMARY KEY (id, create_time)`\n");
+        sb.append("- 查询必须携带 `create_time` 范围，否则无法分区裁剪\n\n");
+
         sb.append("### 建表模板\n");
         sb.append("```sql\n");
         sb.append("CREATE TABLE IF NOT EXISTS `{table_name}` (\n");
@@ -1439,8 +1755,9 @@ validateGeneratedCode(...)         →  验证生成的代码
      * 获取后端代码规范和示例
      */
     @Tool(description = "获取后端代码规范和完整示例代码（从项目模板文件读取，包含 Entity、Controller、Service、Mapper 等），AI 生成后端代码时必须参考此规范")
-    public String getBackendSpecification() {
+    public String getBackendSpecification(ToolContext toolContext) {
         log.info("调用 getBackendSpecification，获取后端代码规范");
+        ProjectPathConfig projectPathConfig = projectPathSessionService.get(toolContext);
         StringBuilder sb = new StringBuilder();
         
         sb.append("## 后端代码规范（从项目模板读取）\n\n");
@@ -1557,30 +1874,86 @@ validateGeneratedCode(...)         →  验证生成的代码
     /**
      * 获取数据库中所有表的列表
      */
-    @Tool(description = "获取当前数据库中所有表的列表（表名和注释）")
-    public String listTables() {
-        log.info("调用 listTables，获取数据库表列表");
-        List<Map<String, Object>> tables = templateService.listTables();
-        String result = JSONUtil.toJsonPrettyStr(tables);
-        log.info("查询到 {} 张表", tables.size());
-        return result;
+    @Tool(description = "分页获取当前数据库中的表列表（表名和注释），支持表名前缀、正则、注释关键字过滤，" +
+        "可将 xxx_202401 形式的分表合并为一条 xxx_*；结果末尾给出 cursor 时传入可获取下一页")
+    public String listTables(
+        @ToolParam(description = "表名前缀，如 sys_（可选）", required = false) String namePrefix,
+        @ToolParam(description = "表名正则（MySQL REGEXP），如 ^(order|pay)_（可选）", required = false) String nameRegex,
+        @ToolParam(description = "表注释关键字，如 订单（可选）", required = false) String keyword,
+        @ToolParam(description = "是否合并分表（xxx_202401、xxx_20240101 合并为 xxx_*，附带 SHARD_COUNT），默认 false（可选）", required = false) Boolean collapseShards,
+        @ToolParam(description = "分页游标，传入上一页返回的 cursor（可选）", required = false) String cursor,
+        @ToolParam(description = "每页数量，默认 " + DEFAULT_TABLE_PAGE_SIZE + "，最大 " + MAX_PAGE_SIZE + "（可选）", required = false) Integer limit,
+        @ToolParam(description = ToolResponseFormatter.FORMAT_PARAM_DESC, required = false) String format,
+        @ToolParam(description = "只输出指定列，逗号分隔，可选 TABLE_NAME,TABLE_COMMENT,SHARD_COUNT（可选，默认全部列）", required = false) String fields
+    ) {
+        log.info("调用 listTables，前缀：{}，正则：{}，关键字：{}，游标：{}", namePrefix, nameRegex, keyword, cursor);
+        CursorPage<Map<String, Object>> page;
+        try {
+            page = templateService.listTables(namePrefix, nameRegex, keyword, cursor,
+                normalizePageSize(limit, DEFAULT_TABLE_PAGE_SIZE), Boolean.TRUE.equals(collapseShards));
+        } catch (DataAccessException e) {
+            log.warn("查询表列表失败: {}", e.getMessage());
+            return "查询表列表失败（请检查正则表达式是否合法）: " + e.getMostSpecificCause().getMessage();
+        }
+        log.info("查询到 {} 张表，是否还有更多：{}", page.getRecords().size(), page.hasMore());
+        if (page.getRecords().isEmpty()) {
+            return "未找到匹配的表";
+        }
+        // 过滤后的结果或小库的表列表大概率是后续要分析的表，后台预热字段元数据
+        boolean filtered = StrUtil.isNotBlank(namePrefix) || StrUtil.isNotBlank(nameRegex) || StrUtil.isNotBlank(keyword);
+        if (!Boolean.TRUE.equals(collapseShards) && (filtered || !page.hasMore())) {
+            metadataPrefetchService.prefetch(page.getRecords().stream()
+                .map(row -> (String) row.get("TABLE_NAME"))
+                .toList());
+        }
+        return appendNextCursor(ToolResponseFormatter.format(page.getRecords(), format, fields), page);
     }
 
     /**
      * 获取指定表的字段信息
      */
-    @Tool(description = "获取指定表的字段结构信息（字段名、类型、注释等）")
+    @Tool(description = "获取指定表的字段结构信息（字段名、类型、注释等），默认以表头 + | 分隔行的紧凑格式返回，可用 fields 只取需要的列；" +
+        "字段较多时分页返回，结果末尾给出 cursor 时传入可获取下一页")
     public String getTableColumns(
-        @ToolParam(description = "表名") String tableName
+        @ToolParam(description = "表名") String tableName,
+        @ToolParam(description = "字段名/注释关键字（可选）", required = false) String keyword,
+        @ToolParam(description = "分页游标，传入上一页返回的 cursor（可选）", required = false) String cursor,
+        @ToolParam(description = "每页数量，默认 " + DEFAULT_COLUMN_PAGE_SIZE + "，最大 " + MAX_PAGE_SIZE + "（可选）", required = false) Integer limit,
+        @ToolParam(description = ToolResponseFormatter.FORMAT_PARAM_DESC, required = false) String format,
+        @ToolParam(description = ToolResponseFormatter.FIELDS_PARAM_DESC, required = false) String fields
     ) {
-        log.info("调用 getTableColumns，表名：{}", tableName);
+        log.info("调用 getTableColumns，表名：{}，关键字：{}，游标：{}", tableName, keyword, cursor);
         if (StrUtil.isBlank(tableName)) {
             return "表名不能为空";
         }
-        List<FieldConfig> fields = templateService.getTableColumns(tableName);
-        String result = JSONUtil.toJsonPrettyStr(fields);
-        log.info("查询到 {} 个字段（已排除基类字段）", fields.size());
-        return result;
+        CursorPage<FieldConfig> page;
+        try {
+            page = templateService.getTableColumns(tableName, keyword, cursor, normalizePageSize(limit, DEFAULT_COLUMN_PAGE_SIZE));
+        } catch (IllegalArgumentException e) {
+            return e.getMessage();
+        }
+        List<Map<String, Object>> rows = page.getRecords().stream()
+            .map(field -> BeanUtil.beanToMap(field, false, false))
+            .collect(Collectors.toList());
+        log.info("查询到 {} 个字段（已排除基类字段），是否还有更多：{}", rows.size(), page.hasMore());
+        if (rows.isEmpty() && !page.hasMore()) {
+            return "未找到匹配的字段（表不存在或仅包含基类字段）: " + tableName;
+        }
+        return appendNextCursor(ToolResponseFormatter.format(rows, format, fields), page);
+    }
+
+    private int normalizePageSize(Integer limit, int defaultSize) {
+        if (limit == null || limit <= 0) {
+            return defaultSize;
+        }
+        return Math.min(limit, MAX_PAGE_SIZE);
+    }
+
+    private String appendNextCursor(String result, CursorPage<?> page) {
+        if (!page.hasMore()) {
+            return result;
+        }
+        return result + "\n还有更多数据，传入 cursor=\"" + page.getNextCursor() + "\" 获取下一页\n";
     }
 
     /**
@@ -1591,11 +1964,13 @@ validateGeneratedCode(...)         →  验证生成的代码
         @ToolParam(description = "表名") String tableName,
         @ToolParam(description = "业务名称（中文，如'优惠券'）") String businessName,
         @ToolParam(description = "模块名（如 coupon, system）") String moduleName,
-        @ToolParam(description = "作者名（可选）", required = false) String author
+        @ToolParam(description = "作者名（可选）", required = false) String author,
+        @ToolParam(description = OPTIONS_PARAM_DESC, required = false) String optionsJson
     ) {
         log.info("调用 previewBackendCode，表名：{}，业务名：{}，模块：{}", tableName, businessName, moduleName);
         try {
             GeneratorContext ctx = templateService.buildContext(tableName, businessName, moduleName, author);
+            templateService.applyOptions(ctx, parseOptions(optionsJson));
             Map<String, String> codes = templateService.previewBackend(ctx);
 
             StringBuilder sb = new StringBuilder();
@@ -1603,6 +1978,7 @@ validateGeneratedCode(...)         →  验证生成的代码
                 sb.append("\n========== ").append(entry.getKey()).append(" ==========").append("\n");
                 sb.append(entry.getValue()).append("\n");
             }
+            appendOptionHints(sb, ctx);
             log.info("后端代码预览生成完成，共 {} 个文件", codes.size());
             return sb.toString();
         } catch (Exception e) {
@@ -1766,8 +2142,11 @@ validateGeneratedCode(...)         →  验证生成的代码
         @ToolParam(description = "表名") String tableName,
         @ToolParam(description = "业务名称（中文，如'商品'）") String businessName,
         @ToolParam(description = "模块名（如 product, order）") String moduleName,
-        @ToolParam(description = "关联配置 JSON 数组，如: [{\"type\":\"JOIN\",\"targetTable\":\"biz_category\",\"targetBusinessName\":\"分类\",\"targetClassNamePrefix\":\"Category\",\"sourceColumn\":\"category_id\",\"targetColumn\":\"id\",\"displayColumns\":[\"name\"],\"relationFieldName\":\"category\"}]") String relationsJson,
-        @ToolParam(description = "作者名（可选）", required = false) String author
+        @ToolParam(description = "关联配置 JSON 数组，如: [{\"type\":\"JOIN\",\"targetTable\":\"biz_category\",\"targetBusinessName\":\"分类\",\"targetClassNamePrefix\":\"Category\",\"sourceColumn\":\"category_id\",\"targetColumn\":\"id\",\"displayColumns\":[\"name\"],\"relationFieldName\":\"category\"}]；" +
+            "大表可为 JOIN 关联加 \"fetchMode\":\"FILL\"（分页只查主表，再按 ID 批量回填显示字段），小型字典表可再加 \"cacheable\":true；" +
+            "MANY_TO_MANY 需指定 targetBusinessName、middleTable、middleSourceColumn、middleTargetColumn，生成 {relationFieldName}Ids 参数，保存时按差集同步中间表") String relationsJson,
+        @ToolParam(description = "作者名（可选）", required = false) String author,
+        @ToolParam(description = OPTIONS_PARAM_DESC, required = false) String optionsJson
     ) {
         log.info("调用 generateWithRelations，表名：{}，业务名：{}，模块：{}，关联：{}", tableName, businessName, moduleName, relationsJson);
         try {
@@ -1775,6 +2154,7 @@ validateGeneratedCode(...)         →  验证生成的代码
             List<RelationConfig> relations = parseRelations(relationsJson);
 
             GeneratorContext ctx = templateService.buildContext(tableName, businessName, moduleName, author, relations);
+            templateService.applyOptions(ctx, parseOptions(optionsJson));
 
             StringBuilder sb = new StringBuilder();
 
@@ -1785,6 +2165,7 @@ validateGeneratedCode(...)         →  验证生成的代码
                 sb.append("\n========== ").append(entry.getKey()).append(" ==========").append("\n");
                 sb.append(entry.getValue()).append("\n");
             }
+            appendOptionHints(sb, ctx);
 
             // API 接口信息和前端开发规则
             sb.append("\n\n================ API 接口信息和前端开发规则 ================").append("\n");
@@ -1821,12 +2202,15 @@ validateGeneratedCode(...)         →  验证生成的代码
         @ToolParam(description = "业务名称（中文）") String businessName,
         @ToolParam(description = "模块名") String moduleName,
         @ToolParam(description = "关联配置 JSON 数组") String relationsJson,
-        @ToolParam(description = "作者名（可选）", required = false) String author
+        @ToolParam(description = "作者名（可选）", required = false) String author,
+        @ToolParam(description = OPTIONS_PARAM_DESC, required = false) String optionsJson,
+        ToolContext toolContext
     ) {
         log.info("调用 writeBackendCodeWithRelations，表名：{}，模块：{}", tableName, moduleName);
+        ProjectPathConfig projectPathConfig = projectPathSessionService.get(toolContext);
         
         // 强制检查路径配置
-        String pathError = checkPathConfigured();
+        String pathError = checkPathConfigured(projectPathConfig);
         if (pathError != null) {
             return pathError;
         }
@@ -1834,6 +2218,7 @@ validateGeneratedCode(...)         →  验证生成的代码
         try {
             List<RelationConfig> relations = parseRelations(relationsJson);
             GeneratorContext ctx = templateService.buildContext(tableName, businessName, moduleName, author, relations);
+            templateService.applyOptions(ctx, parseOptions(optionsJson));
             Map<String, String> codes = templateService.previewBackend(ctx);
             
             String backendRoot = projectRoot + "/" + projectPathConfig.getBackendRootPath() + "/" + moduleName;
@@ -1858,6 +2243,7 @@ validateGeneratedCode(...)         →  验证生成的代码
             for (String path : writtenFiles) {
                 sb.append("- `").append(path).append("`\n");
             }
+            appendOptionHints(sb, ctx);
             sb.append("\n### 关联关系\n");
             for (RelationConfig rel : relations) {
                 sb.append("- ").append(rel.getType()).append(": ")
@@ -1990,6 +2376,76 @@ validateGeneratedCode(...)         →  验证生成的代码
         }
     }
 
+    /**
+     * 解析生成选项 JSON（为空时返回默认选项）
+     */
+    private GenerateOptions parseOptions(String optionsJson) {
+        GenerateOptions options = new GenerateOptions();
+        if (StrUtil.isBlank(optionsJson)) {
+            return options;
+        }
+        JSONObject obj = JSONUtil.parseObj(optionsJson);
+        options.setPageMode(parseEnum(GenerateOptions.PageMode.class, "pageMode", obj.getStr("pageMode", "OFFSET")));
+        options.setExportMode(parseEnum(GenerateOptions.ExportMode.class, "exportMode", obj.getStr("exportMode", "DEFAULT")));
+        options.setExportFetchSize(obj.getInt("exportFetchSize", options.getExportFetchSize()));
+        options.setExportMaxRows(obj.getInt("exportMaxRows", options.getExportMaxRows()));
+        options.setCache(obj.getBool("cache"));
+        options.setCacheMaxSize(obj.getInt("cacheMaxSize", options.getCacheMaxSize()));
+        options.setCacheTtlSeconds(obj.getInt("cacheTtlSeconds", options.getCacheTtlSeconds()));
+        options.setBatchApi(obj.getBool("batchApi", false));
+        options.setConverter(obj.getBool("converter", false));
+        options.setCountMode(parseEnum(GenerateOptions.CountMode.class, "countMode", obj.getStr("countMode", "EXACT")));
+        options.setPartitionQueryDays(obj.getInt("partitionQueryDays", options.getPartitionQueryDays()));
+        if (options.getPartitionQueryDays() <= 0) {
+            throw new IllegalArgumentException("partitionQueryDays 必须大于 0：" + options.getPartitionQueryDays());
+        }
+        return options;
+    }
+
+    /**
+     * 校验关联配置的必填参数
+     *
+     * @param index 关联在数组中的下标（用于错误信息）
+     * @throws IllegalArgumentException 缺少必填参数
+     */
+    private static void requireRelationParams(int index, RelationConfig.RelationType type, JSONObject obj, String... names) {
+        List<String> missing = Arrays.stream(names).filter(name -> StrUtil.isBlank(obj.getStr(name))).toList();
+        if (!missing.isEmpty()) {
+            throw new IllegalArgumentException("第 " + (index + 1) + " 个关联（" + type + "）缺少参数：" + String.join("、", missing));
+        }
+    }
+
+    /**
+     * 解析枚举取值（不区分大小写）
+     *
+     * @param type  枚举类型
+     * @param name  参数名（用于错误信息）
+     * @param value 参数值
+     * @throws IllegalArgumentException 取值不在枚举范围内
+     */
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String name, String value) {
+        E result = EnumUtil.fromStringQuietly(type, StrUtil.trim(value).toUpperCase());
+        if (result == null) {
+            throw new IllegalArgumentException(name + " 取值无效：" + value + "，可选值：" + String.join("、", EnumUtil.getNames(type)));
+        }
+        return result;
+    }
+
+    /**
+     * 追加生成选项相关提示：游标分页缺少 create_time 索引时提示建索引，小表且很少写入时建议开启本地缓存
+     */
+    private void appendOptionHints(StringBuilder sb, GeneratorContext ctx) {
+        if (ctx.isKeysetPagination() && !ctx.isKeysetIndexed()) {
+            sb.append("\n> ⚠️ 游标分页依赖以 create_time 开头的索引，表 `").append(ctx.getTableName())
+                .append("` 当前没有，请调用 `executeSql` 执行：`ALTER TABLE ").append(ctx.getTableName())
+                .append(" ADD INDEX idx_create_time_id (create_time, id);`\n");
+        }
+        if (ctx.isCacheSuggested()) {
+            sb.append("\n> 💡 表 `").append(ctx.getTableName())
+                .append("` 数据量小且很少写入，建议在生成选项中指定 `{\"cache\":true}`，为详情、字典接口生成本地缓存\n");
+        }
+    }
+
     /**
      * 解析关联配置 JSON
      */
@@ -2002,7 +2458,7 @@ validateGeneratedCode(...)         →  验证生成的代码
         for (int i = 0; i < jsonArray.size(); i++) {
             JSONObject obj = jsonArray.getJSONObject(i);
             RelationConfig rel = new RelationConfig();
-            rel.setType(RelationConfig.RelationType.valueOf(obj.getStr("type", "JOIN")));
+            rel.setType(parseEnum(RelationConfig.RelationType.class, "type", obj.getStr("type", "JOIN")));
             rel.setTargetTable(obj.getStr("targetTable"));
             rel.setTargetBusinessName(obj.getStr("targetBusinessName"));
             rel.setTargetClassNamePrefix(obj.getStr("targetClassNamePrefix"));
@@ -2011,6 +2467,14 @@ validateGeneratedCode(...)         →  验证生成的代码
             rel.setTargetColumn(obj.getStr("targetColumn", "id"));
             rel.setRelationFieldName(obj.getStr("relationFieldName"));
             rel.setCascadeDelete(obj.getBool("cascadeDelete", false));
+            rel.setFetchMode(parseEnum(RelationConfig.FetchMode.class, "fetchMode", obj.getStr("fetchMode", "JOIN")));
+            rel.setCacheable(obj.getBool("cacheable", false));
+            rel.setMiddleTable(obj.getStr("middleTable"));
+            rel.setMiddleSourceColumn(obj.getStr("middleSourceColumn"));
+            rel.setMiddleTargetColumn(obj.getStr("middleTargetColumn"));
+            if (rel.getType() == RelationConfig.RelationType.MANY_TO_MANY) {
+                requireRelationParams(i, rel.getType(), obj, "targetTable", "targetBusinessName", "relationFieldName", "middleTable", "middleSourceColumn", "middleTargetColumn");
+            }
             // 解析 displayColumns
             JSONArray cols = obj.getJSONArray("displayColumns");
             if (cols != null) {
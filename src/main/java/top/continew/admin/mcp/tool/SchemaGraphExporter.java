@@ -0,0 +1,133 @@
+package top.continew.admin.mcp.tool;
+
+import cn.hutool.core.util.StrUtil;
+import top.continew.admin.mcp.model.SchemaModule;
+import top.continew.admin.mcp.model.TableRelation;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * 表关系图导出
+ * <p>MERMAID：erDiagram（只输出有关系的表）；DOT：Graphviz 有向图，按建议模块分组为 cluster；
+ * MODULES：只输出模块划分（大库下体积最小）</p>
+ *
+ * @author AI Generator
+ */
+final class SchemaGraphExporter {
+
+    private SchemaGraphExporter() {
+    }
+
+    enum Format {
+        MODULES, MERMAID, DOT;
+
+        static Format of(String value) {
+            if (StrUtil.isBlank(value)) {
+                return MODULES;
+            }
+            for (Format format : values()) {
+                if (format.name().equalsIgnoreCase(value.trim())) {
+                    return format;
+                }
+            }
+            return MODULES;
+        }
+    }
+
+    /**
+     * 导出 Mermaid erDiagram（父表 ||--o{ 子表 : "外键字段"）
+     */
+    static String toMermaid(List<TableRelation> relations) {
+        StringBuilder sb = new StringBuilder("```mermaid\nerDiagram\n");
+        for (TableRelation relation : relations) {
+            sb.append("    ")
+                .append(relation.getTargetTable())
+                .append(" ||--o{ ")
+                .append(relation.getSourceTable())
+                .append(" : \"")
+                .append(relation.getSourceColumn())
+                .append("\"\n");
+        }
+        return sb.append("```\n").toString();
+    }
+
+    /**
+     * 导出 Graphviz DOT（子表 -> 父表，按模块分组）
+     */
+    static String toDot(List<SchemaModule> modules, List<TableRelation> relations, Map<String, String> comments) {
+        StringBuilder sb = new StringBuilder("```dot\ndigraph schema {\n");
+        sb.append("    rankdir=LR;\n    node [shape=box, fontsize=10];\n");
+        int i = 0;
+        for (SchemaModule module : modules) {
+            if (module.getTables().size() == 1) {
+                String table = module.getTables().get(0);
+                sb.append("    ").append(node(table, comments.get(table))).append(";\n");
+                continue;
+            }
+            sb.append("    subgraph cluster_").append(i++).append(" {\n");
+            sb.append("        label=\"").append(escape(module.getName())).append("\";\n");
+            for (String table : module.getTables()) {
+                sb.append("        ").append(node(table, comments.get(table))).append(";\n");
+            }
+            sb.append("    }\n");
+        }
+        for (TableRelation relation : relations) {
+            sb.append("    \"")
+                .append(escape(relation.getSourceTable()))
+                .append("\" -> \"")
+                .append(escape(relation.getTargetTable()))
+                .append("\" [label=\"")
+                .append(escape(relation.getSourceColumn()))
+                .append("\"")
+                .append(relation.isDeclared() ? "" : ", style=dashed")
+                .append("];\n");
+        }
+        return sb.append("}\n```\n").toString();
+    }
+
+    /**
+     * 导出模块划分（多表模块列出表与注释，单表模块合并为一行）
+     */
+    static String toModules(List<SchemaModule> modules, Map<String, String> comments) {
+        StringBuilder sb = new StringBuilder();
+        List<String> singles = new ArrayList<>();
+        for (SchemaModule module : modules) {
+            if (module.getTables().size() == 1) {
+                singles.add(module.getTables().get(0));
+                continue;
+            }
+            sb.append("### ").append(module.getName())
+                .append("（").append(module.getTables().size()).append(" 张表，")
+                .append(module.getRelationCount()).append(" 条关系）\n");
+            for (String table : module.getTables()) {
+                sb.append("- `").append(table).append("` ").append(StrUtil.nullToEmpty(comments.get(table))).append("\n");
+            }
+            sb.append("\n");
+        }
+        if (!singles.isEmpty()) {
+            sb.append("### 独立表（").append(singles.size()).append(" 张）\n");
+            sb.append(singles.stream().map(t -> "`" + t + "`").collect(Collectors.joining(", "))).append("\n");
+        }
+        return sb.toString();
+    }
+
+    private static String node(String table, String comment) {
+        String label = StrUtil.isBlank(comment) ? escape(table) : escape(table) + "\\n" + escape(comment);
+        return "\"" + escape(table) + "\" [label=\"" + label + "\"]";
+    }
+
+    /**
+     * 转义 DOT 双引号字符串中的反斜杠、双引号与换行（注释中的换行按 DOT 换行符输出）
+     */
+    private static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        return value.replace("\\", "\\\\")
+            .replace("\"", "\\\"")
+            .replace("\r\n", "\\n")
+            .replace("\r", "\\n")
+            .replace("\n", "\\n");
+    }
+}
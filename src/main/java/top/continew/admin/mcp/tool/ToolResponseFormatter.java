@@ -0,0 +1,140 @@
+package top.continew.admin.mcp.tool;
+
+import cn.hutool.core.util.StrUtil;
+import cn.hutool.json.JSONConfig;
+import cn.hutool.json.JSONUtil;
+
+import java.util.*;
+
+/**
+ * 列表类工具的响应编码
+ * <p>TABLE：表头只输出一次，每行以 | 分隔（默认，体积最小），空值输出为 \N，值中的 \、|、换行、回车转义后输出，不丢失信息；
+ * JSON：压缩 JSON（保留空值字段）；PRETTY：格式化 JSON（同样保留空值字段）。
+ * 支持通过 fields 参数只输出指定列</p>
+ *
+ * @author AI Generator
+ */
+final class ToolResponseFormatter {
+
+    /**
+     * 工具参数说明（各列表工具共用）
+     */
+    static final String FORMAT_PARAM_DESC = "输出格式：TABLE（表头 + | 分隔行，默认，最省 token；\\N 表示空值，值中的 \\ | 换行 回车分别转义为 \\\\ \\| \\n \\r）、" +
+        "JSON（压缩 JSON）、PRETTY（格式化 JSON）（可选）";
+
+    static final String FIELDS_PARAM_DESC = "只输出指定列，逗号分隔，如 columnName,fieldType,comment（可选，默认全部列）";
+
+    private ToolResponseFormatter() {
+    }
+
+    /**
+     * TABLE 格式中的空值标记（与空串区分；值本身为 \N 时反斜杠会被转义为 \\N）
+     */
+    private static final String NULL_MARKER = "\\N";
+
+    /**
+     * JSON 格式保留空值字段（默认配置会丢弃值为 null 的键）
+     */
+    private static final JSONConfig JSON_CONFIG = JSONConfig.create().setIgnoreNullValue(false);
+
+    enum Format {
+        TABLE, JSON, PRETTY;
+
+        /**
+         * 解析输出格式，为空时默认 TABLE，无法识别时返回 null
+         */
+        static Format of(String value) {
+            if (StrUtil.isBlank(value)) {
+                return TABLE;
+            }
+            for (Format format : values()) {
+                if (format.name().equalsIgnoreCase(value.trim())) {
+                    return format;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * 按指定格式与列投影编码行数据
+     *
+     * @param rows   行数据（保持列顺序）
+     * @param format 输出格式
+     * @param fields 投影列（逗号分隔，忽略大小写），为空时输出全部列
+     * @return 编码结果；输出格式无法识别或投影列不存在时返回错误提示
+     */
+    static String format(List<Map<String, Object>> rows, String format, String fields) {
+        Format outputFormat = Format.of(format);
+        if (outputFormat == null) {
+            return "不支持的输出格式: " + format + "（可选 TABLE、JSON、PRETTY）";
+        }
+        List<String> columns = resolveColumns(rows);
+        if (StrUtil.isNotBlank(fields)) {
+            List<String> projected = new ArrayList<>();
+            List<String> unknown = new ArrayList<>();
+            for (String field : StrUtil.splitTrim(fields, ',')) {
+                String matched = columns.stream().filter(c -> c.equalsIgnoreCase(field)).findFirst().orElse(null);
+                if (matched == null) {
+                    unknown.add(field);
+                } else if (!projected.contains(matched)) {
+                    projected.add(matched);
+                }
+            }
+            if (!unknown.isEmpty() && !rows.isEmpty()) {
+                return "未知的列: " + String.join(", ", unknown) + "\n可用列: " + String.join(", ", columns);
+            }
+            columns = projected;
+        }
+
+        return switch (outputFormat) {
+            case JSON -> JSONUtil.toJsonStr(project(rows, columns), JSON_CONFIG);
+            case PRETTY -> JSONUtil.toJsonPrettyStr(JSONUtil.parseArray(project(rows, columns), JSON_CONFIG));
+            case TABLE -> toTable(rows, columns);
+        };
+    }
+
+    private static List<String> resolveColumns(List<Map<String, Object>> rows) {
+        Set<String> columns = new LinkedHashSet<>();
+        for (Map<String, Object> row : rows) {
+            columns.addAll(row.keySet());
+        }
+        return new ArrayList<>(columns);
+    }
+
+    private static List<Map<String, Object>> project(List<Map<String, Object>> rows, List<String> columns) {
+        List<Map<String, Object>> result = new ArrayList<>(rows.size());
+        for (Map<String, Object> row : rows) {
+            Map<String, Object> projected = new LinkedHashMap<>();
+            for (String column : columns) {
+                projected.put(column, row.get(column));
+            }
+            result.add(projected);
+        }
+        return result;
+    }
+
+    /**
+     * 表头只输出一次，空值输出为 \N，值中的 \、|、换行与回车会被转义
+     */
+    private static String toTable(List<Map<String, Object>> rows, List<String> columns) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("共 ").append(rows.size()).append(" 行\n");
+        sb.append(String.join("|", columns)).append("\n");
+        for (Map<String, Object> row : rows) {
+            for (int i = 0; i < columns.size(); i++) {
+                if (i > 0) {
+                    sb.append('|');
+                }
+                Object value = row.get(columns.get(i));
+                sb.append(value == null ? NULL_MARKER : escape(value.toString()));
+            }
+            sb.append("\n");
+        }
+        return sb.toString();
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("|", "\\|").replace("\r", "\\r").replace("\n", "\\n");
+    }
+}
@@ -2,7 +2,24 @@ package ${packageName}.${subPackageName};
 
 import top.continew.starter.extension.crud.enums.Api;
 
+<#if keysetPagination || streamExport || batchApi>
+import cn.dev33.satoken.annotation.SaCheckPermission;
+import io.swagger.v3.oas.annotations.Operation;
+</#if>
+<#if keysetPagination || streamExport>
+import io.swagger.v3.oas.annotations.Parameter;
+</#if>
+<#if streamExport>
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
+</#if>
 import io.swagger.v3.oas.annotations.tags.Tag;
+<#if streamExport>
+import jakarta.servlet.http.HttpServletResponse;
+</#if>
+<#if batchApi>
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+</#if>
 
 import org.springframework.web.bind.annotation.*;
 
@@ -12,7 +29,15 @@ import ${packageName}.model.query.${classNamePrefix}Query;
 import ${packageName}.model.req.${classNamePrefix}Req;
 import ${packageName}.model.resp.${classNamePrefix}DetailResp;
 import ${packageName}.model.resp.${classNamePrefix}Resp;
+<#if keysetPagination>
+import ${packageName}.model.resp.${classNamePrefix}CursorResp;
+</#if>
 import ${packageName}.service.${classNamePrefix}Service;
+<#if batchApi>
+
+import java.util.List;
+import java.util.Map;
+</#if>
 
 /**
  * ${businessName}管理 API
@@ -20,7 +45,59 @@ import ${packageName}.service.${classNamePrefix}Service;
  * @author ${author}
  * @since ${datetime}
  */
+<#if partitioned>
+@Tag(name = "${businessName}管理 API", description = "分页、列表、导出未传创建时间范围时，默认只查询最近 ${partitionQueryDays?c} 天的数据")
+<#else>
 @Tag(name = "${businessName}管理 API")
+</#if>
 @RestController
 @CrudRequestMapping(value = "/${apiModuleName}/${apiName}", api = {Api.PAGE, Api.GET, Api.CREATE, Api.UPDATE, Api.BATCH_DELETE, Api.EXPORT, Api.DICT})
-public class ${className} extends BaseController<${classNamePrefix}Service, ${classNamePrefix}Resp, ${classNamePrefix}DetailResp, ${classNamePrefix}Query, ${classNamePrefix}Req> {}
+public class ${className} extends BaseController<${classNamePrefix}Service, ${classNamePrefix}Resp, ${classNamePrefix}DetailResp, ${classNamePrefix}Query, ${classNamePrefix}Req> {<#if !keysetPagination && !streamExport && !batchApi>}</#if>
+<#if keysetPagination>
+
+    @Operation(summary = "游标分页查询列表", description = "按创建时间倒序翻页，深分页耗时恒定；首次不传 cursor，之后传上一页返回的 nextCursor")
+    @Parameter(name = "cursor", description = "游标", example = "1735689600123456000_1")
+    @Parameter(name = "size", description = "每页数量", example = "10")
+    @SaCheckPermission("${apiModuleName}:${apiName}:list")
+    @GetMapping("/cursor")
+    public ${classNamePrefix}CursorResp cursorPage(${classNamePrefix}Query query, @RequestParam(required = false) String cursor,
+        @RequestParam(defaultValue = "10") int size) {
+        return baseService.cursorPage(query, cursor, size);
+    }
+</#if>
+<#if streamExport>
+
+    @Operation(summary = "异步导出数据", description = "数据量很大时使用：后台生成 Excel，返回任务 ID，完成后调用下载接口")
+    @SaCheckPermission("${apiModuleName}:${apiName}:export")
+    @PostMapping("/export/async")
+    public String exportAsync(@RequestBody ${classNamePrefix}Query query) {
+        return baseService.exportAsync(query);
+    }
+
+    @Operation(summary = "下载异步导出文件", description = "任务完成后下载，下载后任务即删除")
+    @Parameter(name = "taskId", description = "导出任务 ID", in = ParameterIn.PATH)
+    @SaCheckPermission("${apiModuleName}:${apiName}:export")
+    @GetMapping("/export/async/{taskId}")
+    public void downloadExport(@PathVariable String taskId, HttpServletResponse response) {
+        baseService.downloadExport(taskId, response);
+    }
+</#if>
+<#if batchApi>
+
+    @Operation(summary = "批量新增数据", description = "按批写入，每批独立提交；某批失败时之前的批次已提交")
+    @SaCheckPermission("${apiModuleName}:${apiName}:create")
+    @PostMapping("/batch")
+    public List<Long> batchCreate(@RequestBody @NotEmpty(message = "数据不能为空") List<${'@'}Valid ${classNamePrefix}Req> reqs) {
+        return baseService.batchCreate(reqs);
+    }
+
+    @Operation(summary = "批量修改数据", description = "请求体为 ID -> 修改参数；按批写入，每批独立提交")
+    @SaCheckPermission("${apiModuleName}:${apiName}:update")
+    @PutMapping("/batch")
+    public void batchUpdate(@RequestBody @NotEmpty(message = "数据不能为空") Map<Long, ${'@'}Valid ${classNamePrefix}Req> reqs) {
+        baseService.batchUpdate(reqs);
+    }
+</#if>
+<#if keysetPagination || streamExport || batchApi>
+}
+</#if>
@@ -0,0 +1,73 @@
+package ${packageName}.${subPackageName};
+
+import ${packageName}.model.entity.${classNamePrefix}DO;
+import ${packageName}.model.req.${classNamePrefix}Req;
+import ${packageName}.model.resp.${classNamePrefix}DetailResp;
+import ${packageName}.model.resp.${classNamePrefix}Resp;
+
+/**
+ * ${businessName}对象转换（生成时按字段展开为 getter/setter 调用，不使用反射拷贝）
+ * <p>关联字段、子表列表由 Service 另行回填；修改表字段后需重新生成本类</p>
+ *
+ * @author ${author}
+ * @since ${datetime}
+ */
+public final class ${className} {
+
+    private ${className}() {
+    }
+
+    /**
+     * 实体 -> 列表信息
+     */
+    public static ${classNamePrefix}Resp toResp(${classNamePrefix}DO entity) {
+        if (entity == null) {
+            return null;
+        }
+        ${classNamePrefix}Resp resp = new ${classNamePrefix}Resp();
+        resp.setId(entity.getId());
+        resp.setCreateUser(entity.getCreateUser());
+        resp.setCreateTime(entity.getCreateTime());
+<#list fieldConfigs as fieldConfig>
+<#if fieldConfig.showInList>
+        resp.set${fieldConfig.fieldName?cap_first}(entity.get${fieldConfig.fieldName?cap_first}());
+</#if>
+</#list>
+        return resp;
+    }
+
+    /**
+     * 实体 -> 详情信息
+     */
+    public static ${classNamePrefix}DetailResp toDetailResp(${classNamePrefix}DO entity) {
+        if (entity == null) {
+            return null;
+        }
+        ${classNamePrefix}DetailResp detail = new ${classNamePrefix}DetailResp();
+        detail.setId(entity.getId());
+        detail.setCreateUser(entity.getCreateUser());
+        detail.setCreateTime(entity.getCreateTime());
+        detail.setUpdateUser(entity.getUpdateUser());
+        detail.setUpdateTime(entity.getUpdateTime());
+<#list fieldConfigs as fieldConfig>
+        detail.set${fieldConfig.fieldName?cap_first}(entity.get${fieldConfig.fieldName?cap_first}());
+</#list>
+        return detail;
+    }
+
+    /**
+     * 创建或修改参数 -> 实体（不含 ID 与审计字段）
+     */
+    public static ${classNamePrefix}DO toEntity(${classNamePrefix}Req req) {
+        if (req == null) {
+            return null;
+        }
+        ${classNamePrefix}DO entity = new ${classNamePrefix}DO();
+<#list fieldConfigs as fieldConfig>
+<#if fieldConfig.showInForm>
+        entity.set${fieldConfig.fieldName?cap_first}(req.get${fieldConfig.fieldName?cap_first}());
+</#if>
+</#list>
+        return entity;
+    }
+}
@@ -0,0 +1,39 @@
+package ${packageName}.${subPackageName};
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * ${businessName}游标分页信息
+ *
+ * @author ${author}
+ * @since ${datetime}
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "${businessName}游标分页信息")
+public class ${className} implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 当前页数据
+     */
+    @Schema(description = "当前页数据")
+    private List<${classNamePrefix}Resp> list;
+
+    /**
+     * 下一页游标（为空表示没有更多数据）
+     */
+    @Schema(description = "下一页游标（为空表示没有更多数据）", example = "1735689600123456000_1")
+    private String nextCursor;
+}
@@ -21,7 +21,7 @@ import java.time.*;
 <#if hasBigDecimalField>
 import java.math.BigDecimal;
 </#if>
-<#if hasOneToManyRelation>
+<#if hasOneToManyRelation || hasManyToManyRelation>
 import java.util.List;
 </#if>
 
@@ -45,7 +45,9 @@ public class ${className} extends BaseDetailResp {
      * ${fieldConfig.comment!""}
      */
     @Schema(description = "${fieldConfig.comment!""}")
-<#if fieldConfig.fieldType?ends_with("Enum")>
+<#if fieldConfig.typeHandler?has_content>
+<#-- 类型处理器字段（如 json）无 Excel 转换器，不参与导出 -->
+<#elseif fieldConfig.fieldType?ends_with("Enum")>
     @ExcelProperty(value = "${fieldConfig.comment!""}", converter = ExcelBaseEnumConverter.class)
 <#else>
     @ExcelProperty(value = "${fieldConfig.comment!""}")
@@ -78,4 +80,13 @@ public class ${className} extends BaseDetailResp {
     private List<${relation.targetClassNamePrefix}Resp> ${relation.relationFieldName}List;
 </#list>
 </#if>
+<#-- 多对多关联 ID -->
+<#list manyToManyRelations as relation>
+
+    /**
+     * ${relation.targetBusinessName} ID 列表
+     */
+    @Schema(description = "${relation.targetBusinessName} ID 列表")
+    private List<Long> ${relation.relationFieldName}Ids;
+</#list>
 }
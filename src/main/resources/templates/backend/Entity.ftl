@@ -3,6 +3,12 @@ package ${packageName}.${subPackageName};
 import lombok.Data;
 
 import com.baomidou.mybatisplus.annotation.TableName;
+<#if hasTypeHandlerField>
+import com.baomidou.mybatisplus.annotation.TableField;
+<#list typeHandlers as typeHandler>
+import ${typeHandler};
+</#list>
+</#if>
 
 import top.continew.admin.common.base.model.entity.TenantBaseDO;
 
@@ -27,7 +33,11 @@ import java.math.BigDecimal;
  * @since ${datetime}
  */
 @Data
+<#if hasTypeHandlerField>
+@TableName(value = "${tableName}", autoResultMap = true)
+<#else>
 @TableName("${tableName}")
+</#if>
 public class ${className} extends TenantBaseDO {
 
     @Serial
@@ -38,6 +48,9 @@ public class ${className} extends TenantBaseDO {
     /**
      * ${fieldConfig.comment!""}
      */
+<#if fieldConfig.typeHandler??>
+    @TableField(typeHandler = ${fieldConfig.typeHandler?keep_after_last(".")}.class)
+</#if>
     private ${fieldConfig.fieldType} ${fieldConfig.fieldName};
 </#list>
 </#if>
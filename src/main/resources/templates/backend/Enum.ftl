@@ -0,0 +1,28 @@
+package ${packageName}.enums;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import top.continew.starter.core.dict.annotation.DictModel;
+import top.continew.starter.core.enums.BaseEnum;
+
+/**
+ * ${comment}枚举
+ *
+ * @author ${author}
+ * @since ${datetime}
+ */
+@Getter
+@RequiredArgsConstructor
+@DictModel("${dictCode}")
+public enum ${className} implements BaseEnum<String> {
+
+<#list constants as constant>
+    /**
+     * ${constant.description}
+     */
+    ${constant.name}("${constant.value?j_string}", "${constant.description?j_string}")<#if constant?has_next>,<#else>;</#if>
+
+</#list>
+    private final String value;
+    private final String description;
+}
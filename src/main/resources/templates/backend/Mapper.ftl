@@ -1,16 +1,34 @@
 package ${packageName}.${subPackageName};
 
 import org.apache.ibatis.annotations.Mapper;
-<#if hasJoinRelation || hasOneToManyRelation>
+<#if hasJoinRelation || hasOneToManyRelation || keysetPagination || streamExport || hasManyToManyRelation>
 import org.apache.ibatis.annotations.Param;
 </#if>
-<#if hasJoinRelation>
+<#if streamExport>
+import org.apache.ibatis.session.ResultHandler;
+</#if>
+<#if pageJoinRelations?has_content>
 import com.baomidou.mybatisplus.core.metadata.IPage;
+</#if>
+<#if pageJoinRelations?has_content || keysetPagination>
 import ${packageName}.model.resp.${classNamePrefix}Resp;
+</#if>
+<#if hasJoinRelation || streamExport>
 import ${packageName}.model.resp.${classNamePrefix}DetailResp;
 </#if>
-<#if hasOneToManyRelation>
+<#if keysetPagination>
+import java.time.LocalDateTime;
+</#if>
+<#if hasOneToManyRelation || hasFillRelation || hasManyToManyRelation>
+import java.util.Collection;
+</#if>
+<#if hasOneToManyRelation || hasFillRelation || keysetPagination || hasManyToManyRelation>
 import java.util.List;
+</#if>
+<#if hasFillRelation>
+import java.util.Map;
+</#if>
+<#if hasOneToManyRelation>
 <#list oneToManyRelations as relation>
 import ${packageName}.model.resp.${relation.targetClassNamePrefix}Resp;
 </#list>
@@ -27,12 +45,36 @@ import ${packageName}.model.query.${classNamePrefix}Query;
 */
 @Mapper
 public interface ${className} extends BaseMapper<${classNamePrefix}DO> {
-<#if hasJoinRelation>
+<#if pageJoinRelations?has_content>
 
     /**
      * 分页查询${businessName}列表（含关联字段）
      */
     IPage<${classNamePrefix}Resp> selectPageWithJoin(IPage<${classNamePrefix}DO> page, @Param("query") ${classNamePrefix}Query query);
+</#if>
+<#if keysetPagination>
+
+    /**
+     * 游标分页查询${businessName}列表（按 create_time DESC, id DESC 排序，lastCreateTime、lastId 为空时查询第一页）
+     */
+    List<${classNamePrefix}Resp> selectKeysetPage(@Param("query") ${classNamePrefix}Query query, @Param("lastCreateTime") LocalDateTime lastCreateTime,
+        @Param("lastId") Long lastId, @Param("limit") int limit);
+</#if>
+<#if streamExport>
+
+    /**
+     * 流式查询${businessName}导出数据（逐行回调 handler，最多 limit 行）
+     */
+    void selectForExport(@Param("query") ${classNamePrefix}Query query, @Param("limit") int limit, ResultHandler<${classNamePrefix}DetailResp> handler);
+</#if>
+<#if approximateCount && countMode == "ESTIMATE">
+
+    /**
+     * 查询表的估算行数（information_schema 统计值，不扫描数据）
+     */
+    Long selectEstimatedRows();
+</#if>
+<#if hasJoinRelation>
 
     /**
      * 查询${businessName}详情（含关联字段）
@@ -46,6 +88,58 @@ public interface ${className} extends BaseMapper<${classNamePrefix}DO> {
      * 根据${businessName}ID查询${relation.targetBusinessName}列表
      */
     List<${relation.targetClassNamePrefix}Resp> select${relation.targetClassNamePrefix}ListBy${classNamePrefix}Id(@Param("${classNamePrefix?uncap_first}Id") Long ${classNamePrefix?uncap_first}Id);
+
+    /**
+     * 根据多个${businessName}ID批量查询${relation.targetBusinessName}列表（调用方按 ${relation.targetColumn} 分组，ID 数量较多时需分批调用）
+     */
+    List<${relation.targetClassNamePrefix}Resp> select${relation.targetClassNamePrefix}ListBy${classNamePrefix}Ids(@Param("${classNamePrefix?uncap_first}Ids") Collection<Long> ${classNamePrefix?uncap_first}Ids);
+</#list>
+</#if>
+<#if hasCascadeDelete>
+<#list cascadeDeleteRelations as relation>
+
+    /**
+     * 根据多个${businessName}ID删除${relation.targetBusinessName}（一条 IN 语句，逻辑删除）
+     */
+    int delete${relation.targetClassNamePrefix}By${classNamePrefix}Ids(@Param("${classNamePrefix?uncap_first}Ids") Collection<Long> ${classNamePrefix?uncap_first}Ids);
+</#list>
+</#if>
+<#if hasManyToManyRelation>
+<#list manyToManyRelations as relation>
+
+    /**
+     * 查询${businessName}当前关联的${relation.targetBusinessName} ID
+     */
+    List<Long> select${relation.relationFieldName?cap_first}IdsBy${classNamePrefix}Id(@Param("${classNamePrefix?uncap_first}Id") Long ${classNamePrefix?uncap_first}Id);
+
+    /**
+     * 新增${businessName}与${relation.targetBusinessName}的关联（一条多值 INSERT，ID 数量较多时需分批调用）
+     */
+    int insert${relation.relationFieldName?cap_first}Links(@Param("${classNamePrefix?uncap_first}Id") Long ${classNamePrefix?uncap_first}Id, @Param("ids") Collection<Long> ids);
+
+    /**
+     * 批量新增多个${businessName}与${relation.targetBusinessName}的关联（每个元素为 [${businessName}ID, ${relation.targetBusinessName}ID]，一条多值 INSERT，数量较多时需分批调用）
+     */
+    int insert${relation.relationFieldName?cap_first}LinkPairs(@Param("links") Collection<Long[]> links);
+
+    /**
+     * 删除${businessName}与指定${relation.targetBusinessName}的关联（ID 数量较多时需分批调用）
+     */
+    int delete${relation.relationFieldName?cap_first}Links(@Param("${classNamePrefix?uncap_first}Id") Long ${classNamePrefix?uncap_first}Id, @Param("ids") Collection<Long> ids);
+
+    /**
+     * 根据多个${businessName}ID删除全部${relation.targetBusinessName}关联（一条 IN 语句）
+     */
+    int delete${relation.relationFieldName?cap_first}LinksBy${classNamePrefix}Ids(@Param("${classNamePrefix?uncap_first}Ids") Collection<Long> ${classNamePrefix?uncap_first}Ids);
+</#list>
+</#if>
+<#if hasFillRelation>
+<#list fillRelations as relation>
+
+    /**
+     * 根据多个ID批量查询${relation.targetBusinessName}显示字段（键为 id 及 Resp 中的关联属性名，ID 数量较多时需分批调用）
+     */
+    List<Map<String, Object>> select${relation.relationFieldName?cap_first}ByIds(@Param("ids") Collection<Long> ids);
 </#list>
 </#if>
 }
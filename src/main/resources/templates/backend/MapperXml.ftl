@@ -1,45 +1,165 @@
 <?xml version="1.0" encoding="UTF-8"?>
 <!DOCTYPE mapper PUBLIC "-//mybatis.org//DTD Mapper 3.0//EN" "http://mybatis.org/dtd/mybatis-3-mapper.dtd">
 <mapper namespace="${packageName}.mapper.${classNamePrefix}Mapper">
-<#if hasJoinRelation>
+<#-- 自定义查询按列名自动映射，resultType 不会使用实体 @TableField 上的类型处理器，需要类型处理器的字段通过 resultMap 显式声明 -->
+<#assign listHandlerFields = fieldConfigs?filter(f -> f.typeHandler?has_content && f.showInList && !f.largeColumn)>
+<#assign detailHandlerFields = fieldConfigs?filter(f -> f.typeHandler?has_content)>
+<#assign listResult = listHandlerFields?has_content?then('resultMap="ListResultMap"', 'resultType="${packageName}.model.resp.${classNamePrefix}Resp"')>
+<#assign detailResult = detailHandlerFields?has_content?then('resultMap="DetailResultMap"', 'resultType="${packageName}.model.resp.${classNamePrefix}DetailResp"')>
+<#if (pageJoinRelations?has_content || keysetPagination) && listHandlerFields?has_content>
+
+    <!-- ${businessName}列表结果映射（其余字段自动映射） -->
+    <resultMap id="ListResultMap" type="${packageName}.model.resp.${classNamePrefix}Resp" autoMapping="true">
+        <#list listHandlerFields as fieldConfig>
+        <result column="${fieldConfig.columnName}" property="${fieldConfig.fieldName}" typeHandler="${fieldConfig.typeHandler}"/>
+        </#list>
+    </resultMap>
+</#if>
+<#if (hasJoinRelation || streamExport) && detailHandlerFields?has_content>
+
+    <!-- ${businessName}详情结果映射（其余字段自动映射） -->
+    <resultMap id="DetailResultMap" type="${packageName}.model.resp.${classNamePrefix}DetailResp" autoMapping="true">
+        <#list detailHandlerFields as fieldConfig>
+        <result column="${fieldConfig.columnName}" property="${fieldConfig.fieldName}" typeHandler="${fieldConfig.typeHandler}"/>
+        </#list>
+    </resultMap>
+</#if>
+<#if pageJoinRelations?has_content || keysetPagination>
+
+    <!-- ${businessName}列表字段（对应 Resp，不读取大字段） -->
+    <sql id="listColumns">
+        t.id, t.create_user, t.create_time
+        <#list fieldConfigs as fieldConfig>
+        <#if fieldConfig.showInList && !fieldConfig.largeColumn>
+        , t.${fieldConfig.columnName}
+        </#if>
+        </#list>
+    </sql>
+</#if>
+<#if hasJoinRelation || streamExport>
+
+    <!-- ${businessName}详情字段（对应 DetailResp） -->
+    <sql id="detailColumns">
+        t.id, t.create_user, t.create_time, t.update_user, t.update_time
+        <#list fieldConfigs as fieldConfig>
+        , t.${fieldConfig.columnName}
+        </#list>
+    </sql>
+</#if>
+<#if pageJoinRelations?has_content || keysetPagination || streamExport>
+
+    <!-- ${businessName}列表查询条件（表别名 t，参数名 query） -->
+    <sql id="pageCondition">
+        t.deleted = 0
+        <#if partitioned>
+        <#-- 分区表：Service 层保证 createTime 始终有值，此处始终携带范围以便分区裁剪 -->
+        AND t.create_time BETWEEN ${r"#{query.createTime[0]}"} AND ${r"#{query.createTime[1]}"}
+        </#if>
+        <#list fieldConfigs as fieldConfig>
+        <#if fieldConfig.showInQuery && !fieldConfig.primaryKey>
+        <if test="query != null and query.${fieldConfig.fieldName} != null<#if fieldConfig.fieldType == 'String'> and query.${fieldConfig.fieldName} != ''</#if>">
+            <#if fieldConfig.queryType == 'LIKE'>
+            AND t.${fieldConfig.columnName} LIKE CONCAT('%', ${r"#{query."}${fieldConfig.fieldName}${r"}"}, '%')
+            <#elseif fieldConfig.queryType == 'BETWEEN'>
+            <#-- BETWEEN 需要特殊处理，此处简化为 EQ -->
+            AND t.${fieldConfig.columnName} = ${r"#{query."}${fieldConfig.fieldName}${r"}"}
+            <#else>
+            AND t.${fieldConfig.columnName} = ${r"#{query."}${fieldConfig.fieldName}${r"}"}
+            </#if>
+        </if>
+        </#if>
+        </#list>
+    </sql>
+</#if>
+<#if pageJoinRelations?has_content>
 
     <!-- 分页查询${businessName}列表（含关联字段） -->
-    <select id="selectPageWithJoin" resultType="${packageName}.model.resp.${classNamePrefix}Resp">
+    <select id="selectPageWithJoin" ${listResult}>
         SELECT
-            t.*
-            <#list joinRelations as relation>
+            <include refid="listColumns"/>
+            <#list pageJoinRelations as relation>
             <#list relation.displayColumns as col>
             , ${relation.relationFieldName}.${col} AS ${relation.relationFieldName}${col?replace('_',' ')?capitalize?replace(' ','')}
             </#list>
             </#list>
         FROM ${tableName} t
-        <#list joinRelations as relation>
+        <#list pageJoinRelations as relation>
         LEFT JOIN ${relation.targetTable} ${relation.relationFieldName} ON t.${relation.sourceColumn} = ${relation.relationFieldName}.${relation.targetColumn}
         </#list>
         <where>
-            t.deleted = 0
-            <#list fieldConfigs as fieldConfig>
-            <#if fieldConfig.showInQuery && !fieldConfig.primaryKey>
-            <if test="query != null and query.${fieldConfig.fieldName} != null<#if fieldConfig.fieldType == 'String'> and query.${fieldConfig.fieldName} != ''</#if>">
-                <#if fieldConfig.queryType == 'LIKE'>
-                AND t.${fieldConfig.columnName} LIKE CONCAT('%', ${r"#{query."}${fieldConfig.fieldName}${r"}"}, '%')
-                <#elseif fieldConfig.queryType == 'BETWEEN'>
-                <#-- BETWEEN 需要特殊处理，此处简化为 EQ -->
-                AND t.${fieldConfig.columnName} = ${r"#{query."}${fieldConfig.fieldName}${r"}"}
-                <#else>
-                AND t.${fieldConfig.columnName} = ${r"#{query."}${fieldConfig.fieldName}${r"}"}
-                </#if>
+            <include refid="pageCondition"/>
+        </where>
+        ORDER BY t.create_time DESC
+    </select>
+</#if>
+<#if keysetPagination>
+
+    <!-- 游标分页查询${businessName}列表：按 (create_time, id) 定位上一页末尾，LIMIT 不带 OFFSET，翻到多深都只扫描一页数据 -->
+    <!-- 依赖以 create_time 开头的索引（InnoDB 二级索引隐含主键 id）<#if !keysetIndexed>，当前表缺少该索引，请先执行：ALTER TABLE ${tableName} ADD INDEX idx_create_time_id (create_time, id);</#if> -->
+    <select id="selectKeysetPage" ${listResult}>
+        SELECT
+            <include refid="listColumns"/>
+            <#list pageJoinRelations as relation>
+            <#list relation.displayColumns as col>
+            , ${relation.relationFieldName}.${col} AS ${relation.relationFieldName}${col?replace('_',' ')?capitalize?replace(' ','')}
+            </#list>
+            </#list>
+        FROM ${tableName} t
+        <#list pageJoinRelations as relation>
+        LEFT JOIN ${relation.targetTable} ${relation.relationFieldName} ON t.${relation.sourceColumn} = ${relation.relationFieldName}.${relation.targetColumn}
+        </#list>
+        <where>
+            <include refid="pageCondition"/>
+            <#-- 创建时间为空的数据无法定位游标，不参与游标分页 -->
+            AND t.create_time IS NOT NULL
+            <if test="lastCreateTime != null and lastId != null">
+                AND (t.create_time &lt; ${r"#{lastCreateTime}"} OR (t.create_time = ${r"#{lastCreateTime}"} AND t.id &lt; ${r"#{lastId}"}))
             </if>
-            </#if>
+        </where>
+        ORDER BY t.create_time DESC, t.id DESC
+        LIMIT ${r"#{limit}"}
+    </select>
+</#if>
+<#if streamExport>
+
+    <!-- 流式导出${businessName}：结果逐行回调 ResultHandler，不在内存中保留结果集；创建人、修改人名称直接关联用户表，避免逐行查询 -->
+    <select id="selectForExport" ${detailResult} fetchSize="${exportFetchSize?c}" resultSetType="FORWARD_ONLY">
+        SELECT
+            <include refid="detailColumns"/>
+            , cu.nickname AS createUserString
+            , uu.nickname AS updateUserString
+            <#list joinRelations as relation>
+            <#list relation.displayColumns as col>
+            , ${relation.relationFieldName}.${col} AS ${relation.relationFieldName}${col?replace('_',' ')?capitalize?replace(' ','')}
             </#list>
+            </#list>
+        FROM ${tableName} t
+        LEFT JOIN sys_user cu ON t.create_user = cu.id
+        LEFT JOIN sys_user uu ON t.update_user = uu.id
+        <#list joinRelations as relation>
+        LEFT JOIN ${relation.targetTable} ${relation.relationFieldName} ON t.${relation.sourceColumn} = ${relation.relationFieldName}.${relation.targetColumn}
+        </#list>
+        <where>
+            <include refid="pageCondition"/>
         </where>
-        ORDER BY t.create_time DESC
+        ORDER BY t.create_time DESC, t.id DESC
+        LIMIT ${r"#{limit}"}
     </select>
+</#if>
+<#if approximateCount && countMode == "ESTIMATE">
+
+    <!-- 查询表的估算行数（InnoDB 统计值，可能与实际行数有较大偏差，仅用于未设置查询条件时的分页总数） -->
+    <select id="selectEstimatedRows" resultType="java.lang.Long">
+        SELECT TABLE_ROWS FROM information_schema.TABLES
+        WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = '${tableName}'
+    </select>
+</#if>
+<#if hasJoinRelation>
 
     <!-- 查询${businessName}详情（含关联字段） -->
-    <select id="selectDetailById" resultType="${packageName}.model.resp.${classNamePrefix}DetailResp">
+    <select id="selectDetailById" ${detailResult}>
         SELECT
-            t.*
+            <include refid="detailColumns"/>
             <#list joinRelations as relation>
             <#list relation.displayColumns as col>
             , ${relation.relationFieldName}.${col} AS ${relation.relationFieldName}${col?replace('_',' ')?capitalize?replace(' ','')}
@@ -57,11 +177,83 @@
 
     <!-- 根据${businessName}ID查询${relation.targetBusinessName}列表 -->
     <select id="select${relation.targetClassNamePrefix}ListBy${classNamePrefix}Id" resultType="${packageName}.model.resp.${relation.targetClassNamePrefix}Resp">
-        SELECT * FROM ${relation.targetTable}
+        SELECT ${relation.targetSelectColumns?join(", ")}
+        FROM ${relation.targetTable}
         WHERE ${relation.targetColumn} = ${'#'}{${classNamePrefix?uncap_first}Id}
           AND deleted = 0
         ORDER BY create_time DESC
     </select>
+
+    <!-- 根据多个${businessName}ID批量查询${relation.targetBusinessName}列表 -->
+    <select id="select${relation.targetClassNamePrefix}ListBy${classNamePrefix}Ids" resultType="${packageName}.model.resp.${relation.targetClassNamePrefix}Resp">
+        SELECT ${relation.targetSelectColumns?join(", ")}
+        FROM ${relation.targetTable}
+        WHERE ${relation.targetColumn} IN
+        <foreach collection="${classNamePrefix?uncap_first}Ids" item="id" open="(" separator="," close=")">${'#'}{id}</foreach>
+          AND deleted = 0
+        ORDER BY create_time DESC
+    </select>
+</#list>
+</#if>
+<#if hasCascadeDelete>
+<#list cascadeDeleteRelations as relation>
+
+    <!-- 根据多个${businessName}ID删除${relation.targetBusinessName}（逻辑删除，与 MyBatis-Plus 逻辑删除值一致：deleted = id） -->
+    <update id="delete${relation.targetClassNamePrefix}By${classNamePrefix}Ids">
+        UPDATE ${relation.targetTable} SET deleted = id
+        WHERE ${relation.targetColumn} IN
+        <foreach collection="${classNamePrefix?uncap_first}Ids" item="id" open="(" separator="," close=")">${'#'}{id}</foreach>
+          AND deleted = 0
+    </update>
+</#list>
+</#if>
+<#if hasManyToManyRelation>
+<#list manyToManyRelations as relation>
+
+    <!-- 查询${businessName}当前关联的${relation.targetBusinessName} ID -->
+    <select id="select${relation.relationFieldName?cap_first}IdsBy${classNamePrefix}Id" resultType="java.lang.Long">
+        SELECT ${relation.middleTargetColumn} FROM ${relation.middleTable}
+        WHERE ${relation.middleSourceColumn} = ${'#'}{${classNamePrefix?uncap_first}Id}
+    </select>
+
+    <!-- 新增${relation.targetBusinessName}关联（中间表只写入两列关联字段，主键需为自增或联合主键） -->
+    <insert id="insert${relation.relationFieldName?cap_first}Links">
+        INSERT INTO ${relation.middleTable} (${relation.middleSourceColumn}, ${relation.middleTargetColumn}) VALUES
+        <foreach collection="ids" item="id" separator=",">(${'#'}{${classNamePrefix?uncap_first}Id}, ${'#'}{id})</foreach>
+    </insert>
+
+    <!-- 批量新增多个${businessName}的${relation.targetBusinessName}关联（批量新增${businessName}时使用，一条多值 INSERT） -->
+    <insert id="insert${relation.relationFieldName?cap_first}LinkPairs">
+        INSERT INTO ${relation.middleTable} (${relation.middleSourceColumn}, ${relation.middleTargetColumn}) VALUES
+        <foreach collection="links" item="link" separator=",">(${'#'}{link[0]}, ${'#'}{link[1]})</foreach>
+    </insert>
+
+    <!-- 删除指定${relation.targetBusinessName}关联 -->
+    <delete id="delete${relation.relationFieldName?cap_first}Links">
+        DELETE FROM ${relation.middleTable}
+        WHERE ${relation.middleSourceColumn} = ${'#'}{${classNamePrefix?uncap_first}Id}
+          AND ${relation.middleTargetColumn} IN
+        <foreach collection="ids" item="id" open="(" separator="," close=")">${'#'}{id}</foreach>
+    </delete>
+
+    <!-- 根据多个${businessName}ID删除全部${relation.targetBusinessName}关联 -->
+    <delete id="delete${relation.relationFieldName?cap_first}LinksBy${classNamePrefix}Ids">
+        DELETE FROM ${relation.middleTable}
+        WHERE ${relation.middleSourceColumn} IN
+        <foreach collection="${classNamePrefix?uncap_first}Ids" item="id" open="(" separator="," close=")">${'#'}{id}</foreach>
+    </delete>
+</#list>
+</#if>
+<#if hasFillRelation>
+<#list fillRelations as relation>
+
+    <!-- 根据多个ID批量查询${relation.targetBusinessName}显示字段（分页回填用，只按主键查询，不做连表） -->
+    <select id="select${relation.relationFieldName?cap_first}ByIds" resultType="java.util.Map">
+        SELECT ${relation.targetColumn} AS id<#list relation.displayColumns as col>, ${col} AS ${relation.relationFieldName}${col?replace('_',' ')?capitalize?replace(' ','')}</#list>
+        FROM ${relation.targetTable}
+        WHERE ${relation.targetColumn} IN
+        <foreach collection="ids" item="id" open="(" separator="," close=")">${'#'}{id}</foreach>
+    </select>
 </#list>
 </#if>
 
@@ -13,7 +13,7 @@ import ${className};
 </#if>
 import java.io.Serial;
 import java.io.Serializable;
-<#if hasTimeField>
+<#if hasTimeField || partitioned>
 import java.time.*;
 </#if>
 <#if hasBigDecimalField>
@@ -49,4 +49,13 @@ public class ${className} implements Serializable {
 </#if>
 </#list>
 </#if>
+<#if partitioned>
+
+    /**
+     * 创建时间（分区列，查询时始终携带范围以便分区裁剪；未传时默认最近 ${partitionQueryDays?c} 天）
+     */
+    @Schema(description = "创建时间（未传时默认查询最近 ${partitionQueryDays?c} 天）")
+    @Query(type = QueryType.BETWEEN)
+    private LocalDateTime[] createTime;
+</#if>
 }
@@ -22,6 +22,9 @@ import java.time.*;
 <#if hasBigDecimalField>
 import java.math.BigDecimal;
 </#if>
+<#if hasManyToManyRelation>
+import java.util.List;
+</#if>
 
 /**
  * ${businessName}创建或修改参数
@@ -57,4 +60,13 @@ public class ${className} implements Serializable {
 </#if>
 </#list>
 </#if>
+<#-- 多对多关联 ID（为 null 时不修改关联） -->
+<#list manyToManyRelations as relation>
+
+    /**
+     * ${relation.targetBusinessName} ID 列表
+     */
+    @Schema(description = "${relation.targetBusinessName} ID 列表（不传时不修改）")
+    private List<Long> ${relation.relationFieldName}Ids;
+</#list>
 }
@@ -17,6 +17,9 @@ import java.time.*;
 <#if hasBigDecimalField>
 import java.math.BigDecimal;
 </#if>
+<#if hasOneToManyRelation>
+import java.util.List;
+</#if>
 
 /**
  * ${businessName}信息
@@ -55,4 +58,15 @@ public class ${className} extends BaseResp {
 </#list>
 </#list>
 </#if>
+<#-- 一对多子表列表（分页查询时批量填充） -->
+<#if hasOneToManyRelation>
+<#list oneToManyRelations as relation>
+
+    /**
+     * ${relation.targetBusinessName}列表
+     */
+    @Schema(description = "${relation.targetBusinessName}列表")
+    private List<${relation.targetClassNamePrefix}Resp> ${relation.relationFieldName}List;
+</#list>
+</#if>
 }
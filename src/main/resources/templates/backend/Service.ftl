@@ -6,7 +6,19 @@ import ${packageName}.model.query.${classNamePrefix}Query;
 import ${packageName}.model.req.${classNamePrefix}Req;
 import ${packageName}.model.resp.${classNamePrefix}DetailResp;
 import ${packageName}.model.resp.${classNamePrefix}Resp;
+<#if keysetPagination>
+import ${packageName}.model.resp.${classNamePrefix}CursorResp;
+</#if>
 import top.continew.starter.data.service.IService;
+<#if streamExport>
+
+import jakarta.servlet.http.HttpServletResponse;
+</#if>
+<#if batchApi>
+
+import java.util.List;
+import java.util.Map;
+</#if>
 
 /**
  * ${businessName}业务接口
@@ -14,4 +26,54 @@ import top.continew.starter.data.service.IService;
  * @author ${author}
  * @since ${datetime}
  */
-public interface ${className} extends BaseService<${classNamePrefix}Resp, ${classNamePrefix}DetailResp, ${classNamePrefix}Query, ${classNamePrefix}Req>, IService<${classNamePrefix}DO> {}
+public interface ${className} extends BaseService<${classNamePrefix}Resp, ${classNamePrefix}DetailResp, ${classNamePrefix}Query, ${classNamePrefix}Req>, IService<${classNamePrefix}DO> {<#if !keysetPagination && !streamExport && !batchApi>}</#if>
+<#if keysetPagination>
+
+    /**
+     * 游标分页查询列表
+     *
+     * @param query  查询条件
+     * @param cursor 上一页返回的 nextCursor（为空时查询第一页）
+     * @param size   每页数量
+     * @return 当前页数据及下一页游标
+     */
+    ${classNamePrefix}CursorResp cursorPage(${classNamePrefix}Query query, String cursor, int size);
+</#if>
+<#if streamExport>
+
+    /**
+     * 异步导出（后台生成 Excel 临时文件）
+     *
+     * @param query 查询条件
+     * @return 导出任务 ID
+     */
+    String exportAsync(${classNamePrefix}Query query);
+
+    /**
+     * 下载异步导出的文件（下载后任务即删除）
+     *
+     * @param taskId   导出任务 ID
+     * @param response 响应对象
+     */
+    void downloadExport(String taskId, HttpServletResponse response);
+</#if>
+<#if batchApi>
+
+    /**
+     * 批量新增（逐条执行新增前后钩子，按批写入，每批独立提交）
+     *
+     * @param reqs 参数列表
+     * @return 新增数据的 ID 列表（与参数顺序一致）
+     */
+    List<Long> batchCreate(List<${classNamePrefix}Req> reqs);
+
+    /**
+     * 批量修改（先校验数据存在，逐条执行修改前后钩子，按批写入，每批独立提交）
+     *
+     * @param reqs ID -> 参数
+     */
+    void batchUpdate(Map<Long, ${classNamePrefix}Req> reqs);
+</#if>
+<#if keysetPagination || streamExport || batchApi>
+}
+</#if>
@@ -3,23 +3,153 @@ package ${packageName}.${subPackageName};
 import lombok.RequiredArgsConstructor;
 
 import org.springframework.stereotype.Service;
+<#if hasCascadeDelete || hasManyToManyRelation>
+import org.springframework.transaction.annotation.Transactional;
+</#if>
+<#if batchApi>
+import org.springframework.transaction.support.TransactionTemplate;
+</#if>
 
 import top.continew.admin.common.base.service.BaseServiceImpl;
+<#if streamExport>
+import top.continew.admin.common.context.UserContext;
+import top.continew.admin.common.context.UserContextHolder;
+</#if>
 import ${packageName}.mapper.${classNamePrefix}Mapper;
 import ${packageName}.model.entity.${classNamePrefix}DO;
 import ${packageName}.model.query.${classNamePrefix}Query;
 import ${packageName}.model.req.${classNamePrefix}Req;
 import ${packageName}.model.resp.${classNamePrefix}DetailResp;
 import ${packageName}.model.resp.${classNamePrefix}Resp;
+<#if keysetPagination>
+import ${packageName}.model.resp.${classNamePrefix}CursorResp;
+</#if>
 import ${packageName}.service.${classNamePrefix}Service;
-<#if hasJoinRelation || hasOneToManyRelation>
+<#if converter && (!pageJoinRelations?has_content || batchApi)>
+import ${packageName}.converter.${classNamePrefix}Converter;
+</#if>
+<#if (converter || approximateCount) && !pageJoinRelations?has_content>
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+</#if>
+<#if pageJoinRelations?has_content || converter || approximateCount>
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+</#if>
+<#if hasJoinRelation || partitioned || hasOneToManyRelation || converter || approximateCount>
 import top.continew.starter.extension.crud.model.query.PageQuery;
 import top.continew.starter.extension.crud.model.resp.PageResp;
 </#if>
-<#if hasOneToManyRelation>
+<#if partitioned || streamExport || localCache || hasOneToManyRelation>
+import top.continew.starter.extension.crud.model.query.SortQuery;
+</#if>
+<#if localCache>
+import top.continew.starter.extension.crud.model.resp.LabelValueResp;
+</#if>
+<#if streamExport>
+import top.continew.starter.excel.converter.ExcelBigNumberConverter;
+import cn.idev.excel.ExcelWriter;
+import cn.idev.excel.FastExcel;
+import cn.idev.excel.write.metadata.WriteSheet;
+import jakarta.servlet.http.HttpServletResponse;
+</#if>
+<#if hasCacheableFillRelation || streamExport || localCache || (approximateCount && countMode == "ESTIMATE")>
+import cn.hutool.cache.CacheUtil;
+</#if>
+<#if localCache || hasCacheableFillRelation>
+import cn.hutool.cache.impl.LRUCache;
+</#if>
+<#if streamExport || (approximateCount && countMode == "ESTIMATE")>
+import cn.hutool.cache.impl.TimedCache;
+</#if>
+<#if batchApi && !converter>
+import cn.hutool.core.bean.BeanUtil;
+</#if>
+<#if hasOneToManyRelation || hasFillRelation || batchApi || hasManyToManyRelation>
+import cn.hutool.core.collection.CollUtil;
+</#if>
+<#if hasFillRelation || oneToManyRelations?filter(r -> r.targetFieldType != "Long")?has_content>
+import cn.hutool.core.convert.Convert;
+</#if>
+<#if streamExport>
+import cn.hutool.core.io.FileUtil;
+import cn.hutool.core.io.IORuntimeException;
+</#if>
+<#if keysetPagination || streamExport || batchApi || converter || hasJoinRelation>
+import cn.hutool.core.lang.Assert;
+</#if>
+<#if streamExport>
+import cn.hutool.core.thread.ExecutorBuilder;
+import cn.hutool.core.thread.ThreadFactoryBuilder;
+import cn.hutool.core.util.IdUtil;
+</#if>
+<#if keysetPagination>
+import cn.hutool.core.util.NumberUtil;
+</#if>
+<#if approximateCount && fieldConfigs?filter(f -> f.showInQuery)?has_content>
+import cn.hutool.core.util.ObjectUtil;
+</#if>
+<#if keysetPagination>
+import cn.hutool.core.util.StrUtil;
+</#if>
+<#if streamExport>
+import cn.hutool.core.util.URLUtil;
+</#if>
+<#if localCache>
+import cn.hutool.json.JSONUtil;
+</#if>
+<#if hasOneToManyRelation || hasFillRelation || partitioned || keysetPagination || streamExport || localCache || batchApi || hasManyToManyRelation>
+
+</#if>
+<#if streamExport>
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+</#if>
+<#if partitioned || keysetPagination>
+import java.time.LocalDateTime;
+</#if>
+<#if keysetPagination>
+import java.time.ZoneOffset;
+</#if>
+<#if hasOneToManyRelation || keysetPagination || streamExport || batchApi>
+import java.util.ArrayList;
+</#if>
+<#if hasFillRelation>
+import java.util.Collection;
+</#if>
+<#if hasOneToManyRelation || hasFillRelation>
+import java.util.HashMap;
+</#if>
+<#if hasFillRelation || hasManyToManyRelation>
+import java.util.HashSet;
+</#if>
+<#if hasOneToManyRelation || partitioned || hasFillRelation || keysetPagination || streamExport || localCache || batchApi || hasManyToManyRelation>
 import java.util.List;
+</#if>
+<#if hasOneToManyRelation || hasFillRelation || batchApi>
+import java.util.Map;
+</#if>
+<#if hasFillRelation>
+import java.util.Objects;
+</#if>
+<#if hasFillRelation || hasManyToManyRelation || batchApi>
+import java.util.Set;
+</#if>
+<#if streamExport>
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+</#if>
+<#if hasFillRelation>
+import java.util.function.Function;
+</#if>
+<#if hasFillRelation || batchApi>
+import java.util.stream.Collectors;
+</#if>
+<#if hasOneToManyRelation>
 <#list oneToManyRelations as relation>
 import ${packageName}.model.resp.${relation.targetClassNamePrefix}Resp;
 </#list>
@@ -34,21 +164,677 @@ import ${packageName}.model.resp.${relation.targetClassNamePrefix}Resp;
 @Service
 @RequiredArgsConstructor
 public class ${className} extends BaseServiceImpl<${classNamePrefix}Mapper, ${classNamePrefix}DO, ${classNamePrefix}Resp, ${classNamePrefix}DetailResp, ${classNamePrefix}Query, ${classNamePrefix}Req> implements ${classNamePrefix}Service {
-<#if hasJoinRelation>
+<#if hasOneToManyRelation || hasFillRelation || batchApi || hasManyToManyRelation>
+
+    /**
+     * 分批处理（批量 IN 查询、批量写入）时每批的最大数量
+     */
+    private static final int BATCH_SIZE = 500;
+</#if>
+<#if batchApi>
+
+    /**
+     * 批量新增、修改按批使用独立事务
+     */
+    private final TransactionTemplate transactionTemplate;
+</#if>
+<#if keysetPagination>
+
+    /**
+     * 游标分页每页最大数量
+     */
+    private static final int MAX_CURSOR_PAGE_SIZE = 1000;
+
+    /**
+     * 每秒的纳秒数（游标时间换算）
+     */
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+</#if>
+<#if streamExport>
+
+    /**
+     * 流式导出单次最多导出的行数
+     */
+    private static final int EXPORT_MAX_ROWS = ${exportMaxRows?c};
+
+    /**
+     * 流式导出每批写入 Excel 的行数（内存中最多保留这么多行）
+     */
+    private static final int EXPORT_BATCH_SIZE = 1000;
+
+    /**
+     * 异步导出任务保留时间（毫秒），超时未下载的任务连同临时文件一起清理
+     */
+    private static final long EXPORT_TASK_TIMEOUT = 60 * 60 * 1000L;
+
+    /**
+     * 异步导出同时执行的任务数上限（每个任务占用一个数据库连接直到导出完成）
+     */
+    private static final int EXPORT_CONCURRENCY = 2;
+
+    /**
+     * 异步导出排队任务数上限，超出时拒绝新的导出请求
+     */
+    private static final int EXPORT_QUEUE_CAPACITY = 16;
+
+    /**
+     * 异步导出专用线程池（有界，不与其他业务共用，避免大量导出占满公共线程池）
+     */
+    private static final ExecutorService EXPORT_EXECUTOR = ExecutorBuilder.create()
+        .setCorePoolSize(EXPORT_CONCURRENCY)
+        .setMaxPoolSize(EXPORT_CONCURRENCY)
+        .setWorkQueue(new ArrayBlockingQueue<>(EXPORT_QUEUE_CAPACITY))
+        .setThreadFactory(ThreadFactoryBuilder.create().setNamePrefix("${apiName}-export-").setDaemon(true).build())
+        .setHandler(new ThreadPoolExecutor.AbortPolicy())
+        .build();
+
+    /**
+     * 异步导出任务（任务 ID -> 导出文件），只保存在当前实例，多实例部署时下载请求需路由到发起导出的实例
+     */
+    private final TimedCache<String, CompletableFuture<File>> exportTasks = newExportTaskCache();
+</#if>
+<#if localCache>
+
+    /**
+     * 本地缓存最大条目数，超出时淘汰最久未访问的条目
+     */
+    private static final int CACHE_CAPACITY = ${cacheMaxSize?c};
+
+    /**
+     * 本地缓存有效期（毫秒），其他实例或直接改库的修改最长在该时间内仍读到旧值
+     */
+    private static final long CACHE_TIMEOUT = ${cacheTtlSeconds?c} * 1000L;
+
+    /**
+     * 详情缓存（ID -> 详情），修改、删除时按 ID 清除
+     */
+    private final LRUCache<Long, ${classNamePrefix}DetailResp> detailCache = CacheUtil.newLRUCache(CACHE_CAPACITY, CACHE_TIMEOUT);
+
+    /**
+     * 字典缓存（查询条件 -> 字典项），任何写操作后整体清空
+     */
+    private final LRUCache<String, List<LabelValueResp>> dictCache = CacheUtil.newLRUCache(CACHE_CAPACITY, CACHE_TIMEOUT);
+</#if>
+<#if approximateCount && countMode == "ESTIMATE">
+
+    /**
+     * 表估算行数缓存有效期（毫秒）
+     */
+    private static final long ROW_ESTIMATE_CACHE_TIMEOUT = 10 * 60 * 1000L;
+
+    /**
+     * 表估算行数缓存（表名 -> 行数），翻页时不再每次查询 information_schema
+     */
+    private final TimedCache<String, Long> rowEstimateCache = CacheUtil.newTimedCache(ROW_ESTIMATE_CACHE_TIMEOUT);
+</#if>
+<#if hasCacheableFillRelation>
+
+    /**
+     * 关联数据进程内缓存最大条目数（每个关联），超出时淘汰最久未访问的条目
+     */
+    private static final int RELATION_CACHE_CAPACITY = <#if localCache>CACHE_CAPACITY<#else>${cacheMaxSize?c}</#if>;
+
+    /**
+     * 关联数据进程内缓存有效期（毫秒），目标表修改后最长在该时间内仍显示旧值
+     */
+    private static final long RELATION_CACHE_TIMEOUT = <#if localCache>CACHE_TIMEOUT<#else>${cacheTtlSeconds?c} * 1000L</#if>;
+<#list fillRelations as relation>
+<#if relation.cacheable>
+
+    /**
+     * ${relation.targetBusinessName!relation.targetTable}显示字段缓存（ID -> 查询结果）
+     */
+    private final LRUCache<Long, Map<String, Object>> ${relation.relationFieldName}Cache = CacheUtil.newLRUCache(RELATION_CACHE_CAPACITY, RELATION_CACHE_TIMEOUT);
+</#if>
+</#list>
+</#if>
+<#if hasJoinRelation || partitioned || hasOneToManyRelation || converter || approximateCount>
 
     @Override
     public PageResp<${classNamePrefix}Resp> page(${classNamePrefix}Query query, PageQuery pageQuery) {
+    <#if partitioned>
+        this.fillDefaultCreateTimeRange(query);
+    </#if>
+    <#if approximateCount>
+        // 未设置查询条件时跳过精确 COUNT，大表全表 COUNT 往往比查询当前页更慢
+        boolean exactCount = !this.isUnfiltered(query);
+    </#if>
+    <#if pageJoinRelations?has_content>
         IPage<${classNamePrefix}Resp> page = baseMapper.selectPageWithJoin(
-            new Page<>(pageQuery.getPage(), pageQuery.getSize()), query);
-        return PageResp.build(page);
+            new Page<>(pageQuery.getPage(), pageQuery.getSize()<#if approximateCount>, exactCount</#if>), query);
+        <#if approximateCount>
+        if (!exactCount) {
+            page.setTotal(this.approximateTotal(page));
+        }
+        </#if>
+        PageResp<${classNamePrefix}Resp> pageResp = PageResp.build(page);
+    <#elseif converter || approximateCount>
+        QueryWrapper<${classNamePrefix}DO> queryWrapper = this.buildQueryWrapper(query);
+        this.sort(queryWrapper, pageQuery);
+        IPage<${classNamePrefix}DO> page = baseMapper.selectPage(new Page<>(pageQuery.getPage(), pageQuery.getSize()<#if approximateCount>, exactCount</#if>), queryWrapper);
+        <#if approximateCount>
+        if (!exactCount) {
+            page.setTotal(this.approximateTotal(page));
+        }
+        </#if>
+        <#if converter>
+        PageResp<${classNamePrefix}Resp> pageResp = PageResp.build(page.convert(${classNamePrefix}Converter::toResp));
+        <#else>
+        // 与基类分页相同的转换方式（整页一次 copyToList），不逐行反射拷贝；需要完全避免反射时开启 converter
+        PageResp<${classNamePrefix}Resp> pageResp = PageResp.build(page, ${classNamePrefix}Resp.class);
+        </#if>
+    <#else>
+        PageResp<${classNamePrefix}Resp> pageResp = super.page(query, pageQuery);
+    </#if>
+    <#if pageJoinRelations?has_content || converter || approximateCount>
+        // 未经过 super.page，与基类分页一致逐条执行 fill（填充创建人、修改人名称等）
+        pageResp.getList().forEach(this::fill);
+    </#if>
+    <#if hasFillRelation>
+        this.fillRelations(pageResp.getList());
+    </#if>
+    <#if hasOneToManyRelation>
+        this.fillChildren(pageResp.getList());
+    </#if>
+        return pageResp;
+    }
+</#if>
+<#if approximateCount>
+
+    /**
+     * 是否未设置任何查询条件
+     */
+    private boolean isUnfiltered(${classNamePrefix}Query query) {
+    <#if fieldConfigs?filter(f -> f.showInQuery)?has_content>
+        return <#list fieldConfigs?filter(f -> f.showInQuery) as fieldConfig>ObjectUtil.isEmpty(query.get${fieldConfig.fieldName?cap_first}())<#sep>
+            && </#sep></#list>;
+    <#else>
+        return true;
+    </#if>
+    }
+
+    /**
+     * 未精确统计时的分页总数：<#if countMode == "ESTIMATE">取表的估算行数，且不小于已翻到的数据量<#else>只保证当前页满页时还能翻到下一页</#if>
+     */
+    private long approximateTotal(IPage<?> page) {
+        long loaded = (page.getCurrent() - 1) * page.getSize() + page.getRecords().size();
+        long lowerBound = page.getRecords().size() < page.getSize() ? loaded : loaded + 1;
+    <#if countMode == "ESTIMATE">
+        Long estimatedRows = rowEstimateCache.get("${tableName}", false, baseMapper::selectEstimatedRows);
+        return Math.max(estimatedRows == null ? 0 : estimatedRows, lowerBound);
+    <#else>
+        return lowerBound;
+    </#if>
+    }
+</#if>
+<#if hasOneToManyRelation>
+
+    /**
+     * 批量填充子表数据：每个关联按 ID 分批 IN 查询后在内存中分组，一页数据只需 1 + 关联数 次查询
+     */
+    private void fillChildren(List<${classNamePrefix}Resp> list) {
+        if (CollUtil.isEmpty(list)) {
+            return;
+        }
+        List<Long> ids = list.stream().map(${classNamePrefix}Resp::getId).toList();
+    <#list oneToManyRelations as relation>
+        Map<Long, List<${relation.targetClassNamePrefix}Resp>> ${relation.relationFieldName}ListMap = new HashMap<>();
+        for (List<Long> batchIds : CollUtil.split(ids, BATCH_SIZE)) {
+            baseMapper.select${relation.targetClassNamePrefix}ListBy${classNamePrefix}Ids(batchIds)
+                .forEach(child -> ${relation.relationFieldName}ListMap.computeIfAbsent(<#if relation.targetFieldType == "Long">child.get${relation.targetColumn?replace('_',' ')?capitalize?replace(' ','')}()<#else>Convert.toLong(child.get${relation.targetColumn?replace('_',' ')?capitalize?replace(' ','')}())</#if>, k -> new ArrayList<>()).add(child));
+        }
+        list.forEach(resp -> resp.set${relation.relationFieldName?cap_first}List(${relation.relationFieldName}ListMap.getOrDefault(resp.getId(), new ArrayList<>())));
+    </#list>
     }
 </#if>
-<#if hasJoinRelation || hasOneToManyRelation>
+<#if keysetPagination>
+
+    @Override
+    public ${classNamePrefix}CursorResp cursorPage(${classNamePrefix}Query query, String cursor, int size) {
+    <#if partitioned>
+        this.fillDefaultCreateTimeRange(query);
+    </#if>
+        int limit = Math.min(Math.max(size, 1), MAX_CURSOR_PAGE_SIZE);
+        // 游标格式：上一页最后一条的 创建时间纳秒值_ID
+        LocalDateTime lastCreateTime = null;
+        Long lastId = null;
+        if (StrUtil.isNotBlank(cursor)) {
+            List<String> parts = StrUtil.split(cursor, '_');
+            Assert.isTrue(parts.size() == 2 && NumberUtil.isLong(parts.get(0)) && NumberUtil.isLong(parts.get(1)), "游标格式错误");
+            lastCreateTime = fromCursorNanos(Long.parseLong(parts.get(0)));
+            lastId = Long.parseLong(parts.get(1));
+        }
+        // 多取一条用于判断是否还有下一页
+        List<${classNamePrefix}Resp> list = baseMapper.selectKeysetPage(query, lastCreateTime, lastId, limit + 1);
+        String nextCursor = null;
+        if (list.size() > limit) {
+            list = new ArrayList<>(list.subList(0, limit));
+            ${classNamePrefix}Resp last = list.get(limit - 1);
+            nextCursor = toCursorNanos(last.getCreateTime()) + "_" + last.getId();
+        }
+        list.forEach(this::fill);
+    <#if hasFillRelation>
+        this.fillRelations(list);
+    </#if>
+    <#if hasOneToManyRelation>
+        this.fillChildren(list);
+    </#if>
+        return new ${classNamePrefix}CursorResp(list, nextCursor);
+    }
+
+    /**
+     * 创建时间换算为游标中的纳秒值（按 UTC 换算，与服务器时区无关；保留完整精度，DATETIME(6) 同一毫秒内的数据不会跳过或重复）
+     */
+    private static long toCursorNanos(LocalDateTime createTime) {
+        return createTime.toEpochSecond(ZoneOffset.UTC) * NANOS_PER_SECOND + createTime.getNano();
+    }
+
+    /**
+     * 游标中的纳秒值还原为创建时间
+     */
+    private static LocalDateTime fromCursorNanos(long nanos) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(nanos, NANOS_PER_SECOND), (int) Math.floorMod(nanos, NANOS_PER_SECOND), ZoneOffset.UTC);
+    }
+</#if>
+<#if hasFillRelation>
+
+    /**
+     * 回填关联显示字段：分页只查主表，每个关联按当前页的外键值分批 IN 查询<#if hasCacheableFillRelation>，可缓存的关联只查询缓存未命中的 ID</#if>
+     */
+    private void fillRelations(List<${classNamePrefix}Resp> list) {
+        if (CollUtil.isEmpty(list)) {
+            return;
+        }
+    <#list fillRelations as relation>
+    <#-- 关联字段不是 Long 时统一转为 Long，与查询结果中的 ID 一致 -->
+    <#assign sourceKey = (relation.sourceFieldType! == "Long")?then("resp.get${relation.sourceFieldName?cap_first}()", "Convert.toLong(resp.get${relation.sourceFieldName?cap_first}())")>
+        Map<Long, Map<String, Object>> ${relation.relationFieldName}Map = this.loadRelationRows(list.stream()
+            .map(<#if relation.sourceFieldType! == "Long">${classNamePrefix}Resp::get${relation.sourceFieldName?cap_first}<#else>resp -> ${sourceKey}</#if>)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toCollection(HashSet::new)), baseMapper::select${relation.relationFieldName?cap_first}ByIds<#if hasCacheableFillRelation>, <#if relation.cacheable>${relation.relationFieldName}Cache<#else>null</#if></#if>);
+        list.forEach(resp -> {
+            Map<String, Object> row = ${relation.relationFieldName}Map.get(${sourceKey});
+            if (row != null) {
+            <#list relation.displayColumns as col>
+                resp.set${relation.relationFieldName?cap_first}${col?replace('_',' ')?capitalize?replace(' ','')}(Convert.toStr(row.get("${relation.relationFieldName}${col?replace('_',' ')?capitalize?replace(' ','')}")));
+            </#list>
+            }
+        });
+    </#list>
+    }
+
+    /**
+     * 按 ID 分批查询关联数据<#if hasCacheableFillRelation>（cache 不为空时先读缓存，只查询未命中的 ID）</#if>
+     */
+<#if hasCacheableFillRelation>
+    private Map<Long, Map<String, Object>> loadRelationRows(Set<Long> ids,
+                                                            Function<Collection<Long>, List<Map<String, Object>>> loader,
+                                                            LRUCache<Long, Map<String, Object>> cache) {
+<#else>
+    private Map<Long, Map<String, Object>> loadRelationRows(Set<Long> ids,
+                                                            Function<Collection<Long>, List<Map<String, Object>>> loader) {
+</#if>
+        Map<Long, Map<String, Object>> rows = new HashMap<>();
+<#if hasCacheableFillRelation>
+        if (cache != null) {
+            ids.removeIf(id -> {
+                Map<String, Object> row = cache.get(id, false);
+                if (row != null) {
+                    rows.put(id, row);
+                }
+                return row != null;
+            });
+        }
+</#if>
+        for (List<Long> batchIds : CollUtil.split(ids, BATCH_SIZE)) {
+            for (Map<String, Object> row : loader.apply(batchIds)) {
+                Long id = Convert.toLong(row.get("id"));
+                rows.put(id, row);
+<#if hasCacheableFillRelation>
+                if (cache != null) {
+                    cache.put(id, row);
+                }
+</#if>
+            }
+        }
+        return rows;
+    }
+</#if>
+<#if streamExport>
+
+    @Override
+    public void export(${classNamePrefix}Query query, SortQuery sortQuery, HttpServletResponse response) {
+    <#if partitioned>
+        this.fillDefaultCreateTimeRange(query);
+    </#if>
+        try {
+            this.setExcelHeaders(response);
+            this.writeExcel(query, response.getOutputStream());
+        } catch (IOException e) {
+            throw new IORuntimeException(e);
+        }
+    }
+
+    /**
+     * 异步导出：导出线程中没有请求上下文，提交时取出当前登录用户，在导出线程中恢复、结束后清除，
+     * 依赖登录用户的逻辑（如数据权限拦截器解析当前用户）按发起导出的用户执行。
+     * 注意 selectForExport 为自定义查询，需要数据权限时在 Mapper 方法上声明 @DataPermission
+     */
+    @Override
+    public String exportAsync(${classNamePrefix}Query query) {
+    <#if partitioned>
+        this.fillDefaultCreateTimeRange(query);
+    </#if>
+        UserContext userContext = UserContextHolder.getContext();
+        String taskId = IdUtil.fastSimpleUUID();
+        CompletableFuture<File> task;
+        try {
+            task = CompletableFuture.supplyAsync(() -> {
+                UserContextHolder.setContext(userContext, false);
+                File file = FileUtil.createTempFile("${apiName}-export-", ".xlsx", true);
+                try (OutputStream out = FileUtil.getOutputStream(file)) {
+                    this.writeExcel(query, out);
+                } catch (IOException e) {
+                    FileUtil.del(file);
+                    throw new IORuntimeException(e);
+                } finally {
+                    UserContextHolder.clearContext();
+                }
+                return file;
+            }, EXPORT_EXECUTOR);
+        } catch (RejectedExecutionException e) {
+            throw new IllegalStateException("导出任务过多，请稍后再试", e);
+        }
+        exportTasks.put(taskId, task);
+        return taskId;
+    }
+
+    @Override
+    public void downloadExport(String taskId, HttpServletResponse response) {
+        CompletableFuture<File> task = exportTasks.get(taskId, false);
+        Assert.notNull(task, "导出任务不存在或已过期");
+        Assert.isTrue(task.isDone(), "导出任务进行中，请稍后再试");
+        try {
+            File file = task.join();
+            this.setExcelHeaders(response);
+            FileUtil.writeToStream(file, response.getOutputStream());
+        } catch (IOException e) {
+            throw new IORuntimeException(e);
+        } finally {
+            // 移除时由缓存监听器删除临时文件
+            exportTasks.remove(taskId);
+        }
+    }
+
+    /**
+     * 逐行读取并分批写入 Excel（不使用 SortQuery，固定按创建时间倒序，最多导出 EXPORT_MAX_ROWS 行）
+     */
+    private void writeExcel(${classNamePrefix}Query query, OutputStream out) {
+        ExcelWriter writer = FastExcel.write(out, ${classNamePrefix}DetailResp.class)
+            .registerConverter(new ExcelBigNumberConverter())
+            .build();
+        try {
+            WriteSheet sheet = FastExcel.writerSheet("导出数据").build();
+            List<${classNamePrefix}DetailResp> batch = new ArrayList<>(EXPORT_BATCH_SIZE);
+            baseMapper.selectForExport(query, EXPORT_MAX_ROWS, context -> {
+                batch.add(context.getResultObject());
+                if (batch.size() >= EXPORT_BATCH_SIZE) {
+                    writer.write(batch, sheet);
+                    batch.clear();
+                }
+            });
+            if (!batch.isEmpty()) {
+                writer.write(batch, sheet);
+            }
+        } finally {
+            writer.finish();
+        }
+    }
+
+    /**
+     * 设置 Excel 下载响应头
+     */
+    private void setExcelHeaders(HttpServletResponse response) {
+        String fileName = URLUtil.encode("${businessName}导出_" + System.currentTimeMillis() + ".xlsx");
+        response.setContentType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader("Content-Disposition", "attachment; filename*=UTF-8''" + fileName);
+    }
+
+    /**
+     * 创建异步导出任务缓存：任务过期或被移除时，等导出完成后删除临时文件
+     */
+    private static TimedCache<String, CompletableFuture<File>> newExportTaskCache() {
+        TimedCache<String, CompletableFuture<File>> cache = CacheUtil.newTimedCache(EXPORT_TASK_TIMEOUT);
+        cache.setListener((taskId, task) -> task.thenAccept(FileUtil::del));
+        cache.schedulePrune(EXPORT_TASK_TIMEOUT);
+        return cache;
+    }
+</#if>
+<#if partitioned || hasOneToManyRelation>
+
+    @Override
+    public List<${classNamePrefix}Resp> list(${classNamePrefix}Query query, SortQuery sortQuery) {
+    <#if partitioned>
+        this.fillDefaultCreateTimeRange(query);
+    </#if>
+    <#if hasOneToManyRelation>
+        List<${classNamePrefix}Resp> list = super.list(query, sortQuery);
+        this.fillChildren(list);
+        return list;
+    <#else>
+        return super.list(query, sortQuery);
+    </#if>
+    }
+</#if>
+<#if partitioned>
+
+    /**
+     * 分区表：未指定创建时间范围时默认查询最近 ${partitionQueryDays?c} 天，保证 MySQL 可以进行分区裁剪
+     */
+    private void fillDefaultCreateTimeRange(${classNamePrefix}Query query) {
+        if (query.getCreateTime() == null || query.getCreateTime().length != 2) {
+            LocalDateTime now = LocalDateTime.now();
+            query.setCreateTime(new LocalDateTime[] {now.minusDays(${partitionQueryDays?c}), now});
+        }
+    }
+</#if>
+<#if localCache>
 
     @Override
     public ${classNamePrefix}DetailResp get(Long id) {
+        return detailCache.get(id, () -> <#if hasJoinRelation || hasOneToManyRelation || hasManyToManyRelation || converter>this.loadDetail(id)<#else>super.get(id)</#if>);
+    }
+
+    @Override
+    public List<LabelValueResp> listDict(${classNamePrefix}Query query, SortQuery sortQuery) {
+        String key = JSONUtil.toJsonStr(query) + JSONUtil.toJsonStr(sortQuery);
+        return dictCache.get(key, () -> super.listDict(query, sortQuery));
+    }
+</#if>
+<#if localCache || hasManyToManyRelation>
+
+    @Override
+    <#if hasManyToManyRelation>
+    @Transactional(rollbackFor = Exception.class)
+    </#if>
+    public Long create(${classNamePrefix}Req req) {
+        Long id = super.create(req);
+    <#list manyToManyRelations as relation>
+        this.sync${relation.relationFieldName?cap_first}(id, req.get${relation.relationFieldName?cap_first}Ids());
+    </#list>
+    <#if localCache>
+        dictCache.clear();
+    </#if>
+        return id;
+    }
+
+    @Override
+    <#if hasManyToManyRelation>
+    @Transactional(rollbackFor = Exception.class)
+    </#if>
+    public void update(${classNamePrefix}Req req, Long id) {
+        super.update(req, id);
+    <#list manyToManyRelations as relation>
+        this.sync${relation.relationFieldName?cap_first}(id, req.get${relation.relationFieldName?cap_first}Ids());
+    </#list>
+    <#if localCache>
+        detailCache.remove(id);
+        dictCache.clear();
+    </#if>
+    }
+</#if>
+<#if hasCascadeDelete || localCache || hasManyToManyRelation>
+
+    @Override
+    <#if hasCascadeDelete || hasManyToManyRelation>
+    @Transactional(rollbackFor = Exception.class)
+    </#if>
+    public void delete(List<Long> ids) {
+    <#if hasCascadeDelete>
+        // 级联删除子表：每张子表一条 IN 语句
+    </#if>
+    <#list cascadeDeleteRelations as relation>
+        baseMapper.delete${relation.targetClassNamePrefix}By${classNamePrefix}Ids(ids);
+    </#list>
+    <#if hasManyToManyRelation>
+        // 删除中间表关联：每张中间表一条 IN 语句
+    </#if>
+    <#list manyToManyRelations as relation>
+        baseMapper.delete${relation.relationFieldName?cap_first}LinksBy${classNamePrefix}Ids(ids);
+    </#list>
+        super.delete(ids);
+    <#if localCache>
+        ids.forEach(detailCache::remove);
+        dictCache.clear();
+    </#if>
+    }
+</#if>
+<#if batchApi>
+
+    /**
+     * 批量新增：逐条执行 beforeCreate / afterCreate 钩子（与单条新增一致），每批在一个事务中写入
+     */
+    @Override
+    public List<Long> batchCreate(List<${classNamePrefix}Req> reqs) {
+        List<Long> ids = new ArrayList<>(reqs.size());
+        for (List<${classNamePrefix}Req> batch : CollUtil.split(reqs, BATCH_SIZE)) {
+            List<${classNamePrefix}DO> entities = transactionTemplate.execute(status -> {
+                batch.forEach(this::beforeCreate);
+<#if converter>
+                List<${classNamePrefix}DO> batchEntities = batch.stream().map(${classNamePrefix}Converter::toEntity).toList();
+<#else>
+                List<${classNamePrefix}DO> batchEntities = BeanUtil.copyToList(batch, ${classNamePrefix}DO.class);
+</#if>
+                // 批量执行器一次提交整批语句，数据源开启 rewriteBatchedStatements 后合并为多值 INSERT
+                this.saveBatch(batchEntities, BATCH_SIZE);
+            <#list manyToManyRelations as relation>
+                List<Long[]> ${relation.relationFieldName}Links = new ArrayList<>();
+            </#list>
+                for (int i = 0; i < batch.size(); i++) {
+                <#if hasManyToManyRelation>
+                    Long id = batchEntities.get(i).getId();
+                </#if>
+                <#list manyToManyRelations as relation>
+                    CollUtil.emptyIfNull(batch.get(i).get${relation.relationFieldName?cap_first}Ids()).stream().distinct()
+                        .forEach(${relation.relationFieldName}Id -> ${relation.relationFieldName}Links.add(new Long[] {id, ${relation.relationFieldName}Id}));
+                </#list>
+                    this.afterCreate(batch.get(i), batchEntities.get(i));
+                }
+            <#if hasManyToManyRelation>
+                // 新增的数据没有已有关联，无需对比差集，整批关联合并为多值 INSERT
+            </#if>
+            <#list manyToManyRelations as relation>
+                for (List<Long[]> batchLinks : CollUtil.split(${relation.relationFieldName}Links, BATCH_SIZE)) {
+                    baseMapper.insert${relation.relationFieldName?cap_first}LinkPairs(batchLinks);
+                }
+            </#list>
+                return batchEntities;
+            });
+            entities.forEach(entity -> ids.add(entity.getId()));
+        }
+    <#if localCache>
+        dictCache.clear();
+    </#if>
+        return ids;
+    }
+
+    /**
+     * 批量修改：先按批校验数据存在，再逐条执行 beforeUpdate / afterUpdate 钩子（与单条修改一致），每批在一个事务中写入
+     */
+    @Override
+    public void batchUpdate(Map<Long, ${classNamePrefix}Req> reqs) {
+        for (List<Map.Entry<Long, ${classNamePrefix}Req>> batch : CollUtil.split(reqs.entrySet(), BATCH_SIZE)) {
+            List<Long> batchIds = batch.stream().map(Map.Entry::getKey).toList();
+            Set<Long> existingIds = this.listByIds(batchIds).stream().map(${classNamePrefix}DO::getId).collect(Collectors.toSet());
+            List<Long> missingIds = batchIds.stream().filter(id -> !existingIds.contains(id)).toList();
+            Assert.isTrue(missingIds.isEmpty(), "${businessName}不存在：{}", missingIds);
+            transactionTemplate.executeWithoutResult(status -> {
+                batch.forEach(entry -> this.beforeUpdate(entry.getValue(), entry.getKey()));
+                List<${classNamePrefix}DO> entities = batch.stream().map(entry -> {
+                    ${classNamePrefix}DO entity = <#if converter>${classNamePrefix}Converter.toEntity(entry.getValue())<#else>BeanUtil.copyProperties(entry.getValue(), ${classNamePrefix}DO.class)</#if>;
+                    entity.setId(entry.getKey());
+                    return entity;
+                }).toList();
+                this.updateBatchById(entities, BATCH_SIZE);
+                for (int i = 0; i < batch.size(); i++) {
+                <#list manyToManyRelations as relation>
+                    this.sync${relation.relationFieldName?cap_first}(batch.get(i).getKey(), batch.get(i).getValue().get${relation.relationFieldName?cap_first}Ids());
+                </#list>
+                    this.afterUpdate(batch.get(i).getValue(), entities.get(i));
+                }
+            });
+        }
+    <#if localCache>
+        reqs.keySet().forEach(detailCache::remove);
+        dictCache.clear();
+    </#if>
+    }
+</#if>
+<#if hasManyToManyRelation>
+<#list manyToManyRelations as relation>
+
+    /**
+     * 同步${relation.targetBusinessName}关联：只读取一次当前关联，按差集分批新增、删除，不做全删全插（ids 为 null 时不修改）
+     */
+    private void sync${relation.relationFieldName?cap_first}(Long ${classNamePrefix?uncap_first}Id, List<Long> ids) {
+        if (ids == null) {
+            return;
+        }
+        Set<Long> currentIds = new HashSet<>(baseMapper.select${relation.relationFieldName?cap_first}IdsBy${classNamePrefix}Id(${classNamePrefix?uncap_first}Id));
+        Set<Long> targetIds = new HashSet<>(ids);
+        List<Long> removedIds = currentIds.stream().filter(id -> !targetIds.contains(id)).toList();
+        List<Long> addedIds = targetIds.stream().filter(id -> !currentIds.contains(id)).toList();
+        for (List<Long> batchIds : CollUtil.split(removedIds, BATCH_SIZE)) {
+            baseMapper.delete${relation.relationFieldName?cap_first}Links(${classNamePrefix?uncap_first}Id, batchIds);
+        }
+        for (List<Long> batchIds : CollUtil.split(addedIds, BATCH_SIZE)) {
+            baseMapper.insert${relation.relationFieldName?cap_first}Links(${classNamePrefix?uncap_first}Id, batchIds);
+        }
+    }
+</#list>
+</#if>
+<#if hasJoinRelation || hasOneToManyRelation || hasManyToManyRelation || converter>
+
+<#if localCache>
+    /**
+     * 查询详情（缓存未命中时调用）
+     */
+    private ${classNamePrefix}DetailResp loadDetail(Long id) {
+<#else>
+    @Override
+    public ${classNamePrefix}DetailResp get(Long id) {
+</#if>
     <#if hasJoinRelation>
         ${classNamePrefix}DetailResp detail = baseMapper.selectDetailById(id);
+        Assert.notNull(detail, "${businessName}不存在");
+        // 未经过 super.get，与基类详情一致执行 fill（填充创建人、修改人名称等）
+        this.fill(detail);
+    <#elseif converter>
+        ${classNamePrefix}DO entity = baseMapper.selectById(id);
+        Assert.notNull(entity, "${businessName}不存在");
+        ${classNamePrefix}DetailResp detail = ${classNamePrefix}Converter.toDetailResp(entity);
+        this.fill(detail);
     <#else>
         ${classNamePrefix}DetailResp detail = super.get(id);
     </#if>
@@ -59,6 +845,9 @@ public class ${className} extends BaseServiceImpl<${classNamePrefix}Mapper, ${cl
         detail.set${relation.relationFieldName?cap_first}List(${relation.relationFieldName}List);
     </#list>
     </#if>
+    <#list manyToManyRelations as relation>
+        detail.set${relation.relationFieldName?cap_first}Ids(baseMapper.select${relation.relationFieldName?cap_first}IdsBy${classNamePrefix}Id(id));
+    </#list>
         return detail;
     }
 </#if>
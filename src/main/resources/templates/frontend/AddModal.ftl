@@ -37,7 +37,14 @@ const formRef = ref<InstanceType<typeof GiForm>>()
 <#if hasDictField>
 const { <#list dictCodes as dictCode>${dictCode}<#if dictCode_has_next>,</#if></#list> } = useDict(<#list dictCodes as dictCode>'${dictCode}'<#if dictCode_has_next>,</#if></#list>)
 </#if>
+<#list fieldConfigs as fieldConfig>
+<#if fieldConfig.showInForm && fieldConfig.formType == 'SELECT' && fieldConfig.localOptions??>
+// ${fieldConfig.comment}选项（取值来自数据抽样，请补充显示文本）
+const ${fieldConfig.localOptionsName} = [<#list fieldConfig.localOptions as option>{ label: '${option?js_string}', value: <#if fieldConfig.tsType == 'number'>${option}<#else>'${option?js_string}'</#if> }<#if option_has_next>, </#if></#list>]
+</#if>
+</#list>
 
+<#assign jsonFormFields = fieldConfigs?filter(f -> f.showInForm && f.typeHandler?has_content)>
 const [form, resetForm] = useResetReactive({
 <#list fieldConfigs as fieldConfig>
 <#if fieldConfig.showInForm>
@@ -54,7 +61,7 @@ const columns: ColumnItem[] = reactive([
     field: '${fieldConfig.fieldName}',
     <#if fieldConfig.formType = 'INPUT'>
     type: 'input',
-    <#elseif fieldConfig.formType = 'TEXT_AREA'>
+    <#elseif fieldConfig.formType = 'TEXT_AREA' || fieldConfig.formType = 'TEXTAREA'>
     type: 'textarea',
     props: {
       autoSize: true
@@ -84,13 +91,17 @@ const columns: ColumnItem[] = reactive([
     type: 'radio-group',
     </#if>
     span: 24,
-    <#if fieldConfig.isRequired>
+    <#if fieldConfig.required>
     required: true,
     </#if>
     <#if fieldConfig.dictCode?? && fieldConfig.dictCode != '' && fieldConfig.formType != 'TEXT_AREA' && fieldConfig.formType != 'DATE_TIME'>
     props: {
       options: ${fieldConfig.dictCode},
     },
+    <#elseif fieldConfig.formType = 'SELECT' && fieldConfig.localOptions??>
+    props: {
+      options: ${fieldConfig.localOptionsName},
+    },
     </#if>
   },
   </#if>
@@ -103,16 +114,39 @@ const reset = () => {
   resetForm()
 }
 
+<#if jsonFormFields?has_content>
+// 解析 JSON 文本（json 字段在表单中以文本编辑，提交时转为对象）
+const parseJson = (value: string | undefined, label: string) => {
+  if (!value) return undefined
+  try {
+    return JSON.parse(value)
+  } catch (error) {
+    Message.error(`<#noparse>${label}</#noparse>不是合法的 JSON`)
+    throw error
+  }
+}
+
+</#if>
 // 保存
 const save = async () => {
   try {
     const isInvalid = await formRef.value?.formRef?.validate()
     if (isInvalid) return false
+<#if jsonFormFields?has_content>
+    const data = {
+      ...form,
+<#list jsonFormFields as fieldConfig>
+      ${fieldConfig.fieldName}: parseJson(form.${fieldConfig.fieldName}, '${fieldConfig.comment?js_string}'),
+</#list>
+    }
+<#else>
+    const data = form
+</#if>
     if (isUpdate.value) {
-      await update${classNamePrefix}(form, dataId.value)
+      await update${classNamePrefix}(data, dataId.value)
       Message.success('修改成功')
     } else {
-      await add${classNamePrefix}(form)
+      await add${classNamePrefix}(data)
       Message.success('新增成功')
     }
     emit('save-success')
@@ -135,6 +169,9 @@ const onUpdate = async (id: string) => {
   dataId.value = id
   const { data } = await get${classNamePrefix}(id)
   Object.assign(form, data)
+<#list jsonFormFields as fieldConfig>
+  form.${fieldConfig.fieldName} = data.${fieldConfig.fieldName} == null ? undefined : JSON.stringify(data.${fieldConfig.fieldName}, null, 2)
+</#list>
   visible.value = true
 }
 
@@ -63,6 +63,18 @@ export function list${classNamePrefix}(query: ${classNamePrefix}PageQuery) {
   return http.get<PageRes<${classNamePrefix}Resp[]>>(BASE_URL, query)
 }
 
+<#if keysetPagination>
+export interface ${classNamePrefix}CursorResp {
+  list: ${classNamePrefix}Resp[]
+  nextCursor?: string
+}
+
+/** @desc 游标分页查询${businessName}列表（首次不传 cursor，之后传上一页的 nextCursor；nextCursor 为空表示没有更多数据） */
+export function list${classNamePrefix}ByCursor(query: ${classNamePrefix}Query, cursor?: string, size = 10) {
+  return http.get<${classNamePrefix}CursorResp>(`${'$'}{BASE_URL}/cursor`, { ...query, cursor, size })
+}
+
+</#if>
 /** @desc 查询${businessName}详情 */
 export function get${classNamePrefix}(id: string) {
   return http.get<${classNamePrefix}DetailResp>(`${'$'}{BASE_URL}/${'$'}{id}`)
@@ -78,6 +90,18 @@ export function update${classNamePrefix}(data: any, id: string) {
   return http.put(`${'$'}{BASE_URL}/${'$'}{id}`, data)
 }
 
+<#if batchApi>
+/** @desc 批量新增${businessName}（返回新增数据的 ID 列表） */
+export function batchAdd${classNamePrefix}(data: any[]) {
+  return http.post<string[]>(`${'$'}{BASE_URL}/batch`, data)
+}
+
+/** @desc 批量修改${businessName}（data 为 ID -> 修改参数） */
+export function batchUpdate${classNamePrefix}(data: Record<string, any>) {
+  return http.put(`${'$'}{BASE_URL}/batch`, data)
+}
+
+</#if>
 /** @desc 删除${businessName} */
 export function delete${classNamePrefix}(id: string) {
   return http.del(BASE_URL, { ids: [id] })
@@ -88,6 +112,18 @@ export function export${classNamePrefix}(query: ${classNamePrefix}Query) {
   return http.download(`${'$'}{BASE_URL}/export`, query)
 }
 
+<#if streamExport>
+/** @desc 异步导出${businessName}（数据量很大时使用，返回任务 ID） */
+export function export${classNamePrefix}Async(query: ${classNamePrefix}Query) {
+  return http.post<string>(`${'$'}{BASE_URL}/export/async`, query)
+}
+
+/** @desc 下载异步导出的${businessName}文件（任务进行中时返回提示，稍后重试） */
+export function download${classNamePrefix}Export(taskId: string) {
+  return http.download(`${'$'}{BASE_URL}/export/async/${'$'}{taskId}`)
+}
+
+</#if>
 /** @desc 查询${businessName}字典 */
 export function list${classNamePrefix}Dict(query?: ${classNamePrefix}Query) {
 return http.get<LabelValueState[]>(`${'$'}{BASE_URL}/dict`, query)
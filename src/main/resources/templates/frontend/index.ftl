@@ -7,7 +7,7 @@
       :columns="columns"
       :loading="loading"
       :scroll="{ x: '100%', y: '100%', minWidth: 1000 }"
-      :pagination="pagination"
+      :pagination="<#if approximateCount>tablePagination<#else>pagination</#if>"
       :disabled-tools="['size']"
       :disabled-column-keys="['name']"
       @refresh="search"
@@ -19,7 +19,7 @@
 	  <#if fieldConfig.formType == "SELECT"><#-- 下拉框 -->
         <a-select
           v-model="queryForm.${fieldConfig.fieldName}"
-          :options="${fieldConfig.dictCode!''}"
+          :options="${fieldConfig.dictCode!(fieldConfig.localOptionsName!'')}"
           placeholder="请选择${fieldConfig.comment}"
           allow-clear
           style="width: 150px"
@@ -65,6 +65,9 @@
         </a-button>
       </template>
       <template #toolbar-right>
+      <#if approximateCount && countMode == "ESTIMATE">
+        <a-tag v-if="approximateTotal" color="gray">约 {{ pagination.total }} 条</a-tag>
+      </#if>
         <a-button v-permission="['${apiModuleName}:${apiName}:create']" type="primary" @click="onAdd">
           <template #icon><icon-plus /></template>
           <template #default>新增</template>
@@ -122,6 +125,12 @@ defineOptions({ name: '${classNamePrefix}' })
 <#if hasDictField>
 const { <#list dictCodes as dictCode>${dictCode}<#if dictCode_has_next>,</#if></#list> } = useDict(<#list dictCodes as dictCode>'${dictCode}'<#if dictCode_has_next>,</#if></#list>)
 </#if>
+<#list fieldConfigs as fieldConfig>
+<#if fieldConfig.showInQuery && fieldConfig.formType == "SELECT" && fieldConfig.localOptions??>
+// ${fieldConfig.comment}选项（取值来自数据抽样，请补充显示文本）
+const ${fieldConfig.localOptionsName} = [<#list fieldConfig.localOptions as option>{ label: '${option?js_string}', value: <#if fieldConfig.tsType == 'number'>${option}<#else>'${option?js_string}'</#if> }<#if option_has_next>, </#if></#list>]
+</#if>
+</#list>
 
 const queryForm = reactive<${classNamePrefix}Query>({
 <#list fieldConfigs as fieldConfig>
@@ -132,13 +141,32 @@ const queryForm = reactive<${classNamePrefix}Query>({
   sort: ['id,desc']
 })
 
+<#if approximateCount>
+// 最近一次提交查询时的条件
+const submittedQuery = ref<${classNamePrefix}Query>({ ...queryForm })
+
+</#if>
 const {
   tableData: dataList,
   loading,
   pagination,
   search,
   handleDelete
+<#if approximateCount>
+} = useTable((page) => {
+  submittedQuery.value = { ...queryForm }
+  return list${classNamePrefix}({ ...queryForm, ...page })
+}, { immediate: true })
+<#else>
 } = useTable((page) => list${classNamePrefix}({ ...queryForm, ...page }), { immediate: true })
+</#if>
+<#if approximateCount>
+// 未设置查询条件时后端不做精确 COUNT，总数为<#if countMode == "ESTIMATE">估算值<#else>已加载数量</#if>，不在分页器中显示
+// 按最近一次提交的查询条件判断（输入框中尚未提交的内容不影响当前页的总数）
+const approximateTotal = computed(() => [<#list fieldConfigs?filter(f -> f.showInQuery) as fieldConfig>submittedQuery.value.${fieldConfig.fieldName}<#sep>, </#sep></#list>]
+  .every((value) => value === undefined || value === null || value === '' || (Array.isArray(value) && !value.length)))
+const tablePagination = computed(() => ({ ...pagination, showTotal: !approximateTotal.value }))
+</#if>
 const columns: TableInstance['columns'] = [
 <#if fieldConfigs??>
   <#list fieldConfigs as fieldConfig>
@@ -0,0 +1,534 @@
+package top.continew.admin.mcp;
+
+import cn.hutool.core.util.StrUtil;
+import cn.hutool.json.JSONObject;
+import cn.hutool.json.JSONUtil;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import javax.sql.DataSource;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Method;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * SSE 会话压测
+ * <p>启动完整的 MCP 服务（虚拟线程），建立 N 个并发 SSE 会话，每个会话并发调用慢工具
+ * generateBusinessPageInfo（经 SingleFlight 加载字段元数据、经 PeriodicRefresher 匹配字典）与 listDicts，
+ * 数据库由带固定延迟的 JdbcTemplate 模拟（字典指纹每次变化，每个检测间隔都在刷新锁内执行慢查询）。
+ * 输出会话数、吞吐、延迟分位、平台线程峰值，并通过 JFR jdk.VirtualThreadPinned 事件确认阻塞路径不钉住载体线程。</p>
+ * <p>默认不执行，运行方式（需 JDK 21）：
+ * {@code mvn test -Pjdk21 -Dtest=McpSessionLoadTest -Dmcp.loadTest=true -Dmcp.loadTest.sessions=1000}，
+ * 加 {@code -Dmcp.loadTest.serverType=ASYNC} 验证 ASYNC 服务类型（工具调用切换到 boundedElastic 执行）</p>
+ *
+ * @author AI Generator
+ */
+@EnabledForJreRange(min = JRE.JAVA_21)
+@EnabledIfSystemProperty(named = "mcp.loadTest", matches = "true")
+class McpSessionLoadTest {
+
+    private static final int SESSIONS = Integer.getInteger("mcp.loadTest.sessions", 500);
+    private static final int CALLS_PER_SESSION = Integer.getInteger("mcp.loadTest.calls", 4);
+    private static final long DB_LATENCY_MILLIS = Long.getLong("mcp.loadTest.dbLatencyMillis", 50);
+    private static final String SERVER_TYPE = System.getProperty("mcp.loadTest.serverType", "SYNC");
+    private static final String REFRESH_INTERVAL = System.getProperty("mcp.loadTest.refreshInterval", "1s");
+    private static final Duration TIMEOUT = Duration.ofMinutes(2);
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final String PROJECT_PACKAGE = "top.continew.admin.mcp.";
+
+    @Test
+    void sustainsConcurrentSessionsWithoutPinning() throws Exception {
+        Report report = run(SESSIONS, CALLS_PER_SESSION);
+        System.out.println(report);
+
+        assertThat(report.detectorVerified()).as("JFR 应能检测到对照组的钉住事件").isTrue();
+        assertThat(report.sessions()).isEqualTo(SESSIONS);
+        assertThat(report.failedCalls()).as("失败调用: %s", report.failures()).isZero();
+        if ("ASYNC".equals(SERVER_TYPE)) {
+            assertThat(report.elasticDbCalls()).as("ASYNC 模式下工具应在 boundedElastic 上执行").isEqualTo(report.dbCalls());
+        } else {
+            assertThat(report.virtualDbCalls()).as("工具应在虚拟线程上执行").isEqualTo(report.dbCalls());
+        }
+        assertThat(report.projectPinnedStacks()).as("项目代码中的钉住点").isEmpty();
+    }
+
+    /**
+     * 执行压测
+     */
+    static Report run(int sessions, int callsPerSession) throws Exception {
+        Path jfrFile = Files.createTempFile("mcp-load", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(PINNED_EVENT).withThreshold(Duration.ZERO).withStackTrace();
+            recording.start();
+
+            // 对照组：synchronized 内阻塞必然钉住，用于确认检测手段有效
+            Thread control = startVirtualThread(() -> {
+                synchronized (McpSessionLoadTest.class) {
+                    sleep(20);
+                }
+            });
+            control.join();
+
+            Report report;
+            ConfigurableApplicationContext context = new SpringApplicationBuilder(McpServerApplication.class)
+                .sources(SlowDatabaseConfig.class)
+                .run("--server.port=0", "--spring.threads.virtual.enabled=true", "--spring.main.banner-mode=off",
+                    "--logging.level.root=WARN", "--logging.level.top.continew.admin.mcp=WARN",
+                    "--logging.level.org.springframework.ai=WARN", "--logging.level.io.modelcontextprotocol=ERROR",
+                    "--logging.level.io.modelcontextprotocol.server.transport=ERROR",
+                    "--continew-generator.cache.refresh-interval=" + REFRESH_INTERVAL,
+                    "--spring.ai.mcp.server.type=" + SERVER_TYPE);
+            try {
+                int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+                SlowJdbcTemplate jdbc = context.getBean(SlowJdbcTemplate.class);
+                report = drive(URI.create("http://127.0.0.1:" + port), sessions, callsPerSession, jdbc);
+            } finally {
+                context.close();
+            }
+
+            recording.stop();
+            recording.dump(jfrFile);
+            List<RecordedEvent> pinned = RecordingFile.readAllEvents(jfrFile).stream()
+                .filter(event -> PINNED_EVENT.equals(event.getEventType().getName()))
+                .toList();
+            boolean detectorVerified = pinned.stream().anyMatch(event -> stackOf(event).contains(McpSessionLoadTest.class.getName()));
+            Set<String> projectStacks = new LinkedHashSet<>();
+            for (RecordedEvent event : pinned) {
+                String stack = stackOf(event);
+                if (stack.contains(PROJECT_PACKAGE) && !stack.contains(McpSessionLoadTest.class.getName())) {
+                    projectStacks.add(stack);
+                }
+            }
+            return report.withPinning(detectorVerified, pinned.size() - (detectorVerified ? 1 : 0), projectStacks);
+        } finally {
+            Files.deleteIfExists(jfrFile);
+        }
+    }
+
+    private static Report drive(URI base, int sessions, int callsPerSession, SlowJdbcTemplate jdbc) throws Exception {
+        HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        List<SseSession> opened = new ArrayList<>();
+        try {
+            // 1. 建立会话并完成初始化握手
+            long connectStart = System.nanoTime();
+            List<CompletableFuture<SseSession>> connecting = new ArrayList<>();
+            for (int i = 0; i < sessions; i++) {
+                connecting.add(SseSession.open(client, base));
+            }
+            for (CompletableFuture<SseSession> future : connecting) {
+                opened.add(future.get(TIMEOUT.toSeconds(), TimeUnit.SECONDS));
+            }
+            List<CompletableFuture<JSONObject>> initializing = new ArrayList<>();
+            for (SseSession session : opened) {
+                initializing.add(session.request("initialize", JSONUtil.createObj()
+                    .set("protocolVersion", "2024-11-05")
+                    .set("capabilities", JSONUtil.createObj())
+                    .set("clientInfo", JSONUtil.createObj().set("name", "load-test").set("version", "1.0"))));
+            }
+            for (int i = 0; i < opened.size(); i++) {
+                initializing.get(i).get(TIMEOUT.toSeconds(), TimeUnit.SECONDS);
+                opened.get(i).notify("notifications/initialized");
+            }
+            long connectMillis = (System.nanoTime() - connectStart) / 1_000_000;
+
+            // 项目路径按 MCP 会话隔离，SYNC / ASYNC 下工具都必须能取到会话 ID
+            List<CompletableFuture<JSONObject>> sessionChecks = new ArrayList<>();
+            for (SseSession session : opened) {
+                sessionChecks.add(session.request("tools/call", JSONUtil.createObj()
+                    .set("name", "getProjectPaths").set("arguments", JSONUtil.createObj())));
+            }
+            for (CompletableFuture<JSONObject> check : sessionChecks) {
+                String text = textOf(check.get(TIMEOUT.toSeconds(), TimeUnit.SECONDS));
+                assertThat(text).doesNotContain("会话 ID");
+            }
+
+            // 2. 所有会话同时发起工具调用
+            threads.resetPeakThreadCount();
+            jdbc.reset();
+            List<CompletableFuture<Long>> calls = new ArrayList<>();
+            List<String> failures = Collections.synchronizedList(new ArrayList<>());
+            long loadStart = System.nanoTime();
+            for (int i = 0; i < opened.size(); i++) {
+                for (int c = 0; c < callsPerSession; c++) {
+                    calls.add(callTool(opened.get(i), i * callsPerSession + c, failures));
+                }
+            }
+            long[] latencies = new long[calls.size()];
+            int failed = 0;
+            for (int i = 0; i < calls.size(); i++) {
+                try {
+                    latencies[i] = calls.get(i).get(TIMEOUT.toSeconds(), TimeUnit.SECONDS);
+                } catch (ExecutionException | TimeoutException e) {
+                    failed++;
+                    failures.add(String.valueOf(e.getCause() != null ? e.getCause().getMessage() : e));
+                    latencies[i] = -1;
+                }
+            }
+            long loadMillis = Math.max(1, (System.nanoTime() - loadStart) / 1_000_000);
+            long[] succeeded = Arrays.stream(latencies).filter(l -> l >= 0).sorted().toArray();
+            return new Report(opened.size(), callsPerSession, DB_LATENCY_MILLIS, connectMillis, calls.size(), failed,
+                List.copyOf(failures.subList(0, Math.min(5, failures.size()))), loadMillis,
+                percentile(succeeded, 50), percentile(succeeded, 99), percentile(succeeded, 100),
+                threads.getPeakThreadCount(), jdbc.calls.get(), jdbc.virtualCalls.get(), jdbc.elasticCalls.get(),
+                false, 0, Set.of());
+        } finally {
+            opened.forEach(SseSession::close);
+        }
+    }
+
+    /**
+     * 偶数次调用 generateBusinessPageInfo（20 张表循环，并发的相同表由 SingleFlight 合并），奇数次调用 listDicts
+     */
+    private static CompletableFuture<Long> callTool(SseSession session, int seq, List<String> failures) {
+        JSONObject params;
+        if (seq % 2 == 0) {
+            int table = seq % 20;
+            String tables = JSONUtil.createArray()
+                .put(JSONUtil.createObj().set("tableName", "biz_order_" + table).set("tableBusinessName", "订单").set("isMain", true))
+                .put(JSONUtil.createObj().set("tableName", "biz_order_item_" + table).set("tableBusinessName", "订单明细")
+                    .set("isMain", false).set("foreignKey", "order_id"))
+                .toString();
+            params = JSONUtil.createObj().set("name", "generateBusinessPageInfo").set("arguments", JSONUtil.createObj()
+                .set("businessName", "订单管理").set("moduleName", "order").set("tablesJson", tables).set("displayMode", "TAB"));
+        } else {
+            params = JSONUtil.createObj().set("name", "listDicts").set("arguments", JSONUtil.createObj().set("keyword", "状态"));
+        }
+        long start = System.nanoTime();
+        return session.request("tools/call", params).thenApply(response -> {
+            String text = textOf(response);
+            if (text.contains("失败：") || text.contains("繁忙")) {
+                throw new CompletionException(new IllegalStateException(text));
+            }
+            return (System.nanoTime() - start) / 1_000_000;
+        });
+    }
+
+    private static String textOf(JSONObject response) {
+        JSONObject result = response.getJSONObject("result");
+        if (result == null || result.getBool("isError", false)) {
+            throw new CompletionException(new IllegalStateException(response.toString()));
+        }
+        return result.getJSONArray("content").getJSONObject(0).getStr("text");
+    }
+
+    private static long percentile(long[] sorted, int p) {
+        if (sorted.length == 0) {
+            return -1;
+        }
+        int index = (int) Math.ceil(p / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    private static String stackOf(RecordedEvent event) {
+        if (event.getStackTrace() == null) {
+            return "";
+        }
+        StringBuilder sb = new StringBuilder();
+        for (RecordedFrame frame : event.getStackTrace().getFrames()) {
+            sb.append("\n    at ").append(frame.getMethod().getType().getName()).append('.')
+                .append(frame.getMethod().getName()).append(':').append(frame.getLineNumber());
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 通过反射启动虚拟线程（测试源码按 Java 17 编译）
+     */
+    private static Thread startVirtualThread(Runnable task) throws Exception {
+        return (Thread) Thread.class.getMethod("startVirtualThread", Runnable.class).invoke(null, task);
+    }
+
+    private static boolean isVirtual(Thread thread) {
+        try {
+            Method method = Thread.class.getMethod("isVirtual");
+            return (Boolean) method.invoke(thread);
+        } catch (ReflectiveOperationException e) {
+            return false;
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 压测结果
+     */
+    record Report(int sessions, int callsPerSession, long dbLatencyMillis, long connectMillis, int totalCalls,
+                  int failedCalls, List<String> failures, long loadMillis, long p50Millis, long p99Millis,
+                  long maxMillis, int peakPlatformThreads, long dbCalls, long virtualDbCalls, long elasticDbCalls,
+                  boolean detectorVerified, long pinnedEvents, Set<String> projectPinnedStacks) {
+
+        Report withPinning(boolean verified, long pinned, Set<String> projectStacks) {
+            return new Report(sessions, callsPerSession, dbLatencyMillis, connectMillis, totalCalls, failedCalls,
+                failures, loadMillis, p50Millis, p99Millis, maxMillis, peakPlatformThreads, dbCalls, virtualDbCalls,
+                elasticDbCalls, verified, pinned, projectStacks);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("""
+                    MCP SSE 压测结果（%s）
+                      会话数: %d（建立并初始化耗时 %d ms），每会话并发调用 %d 次，模拟数据库延迟 %d ms，字典刷新间隔 %s
+                      工具调用: %d 次，失败 %d 次 %s
+                      总耗时: %d ms，吞吐: %.1f 次/秒
+                      延迟: p50 %d ms，p99 %d ms，max %d ms
+                      平台线程峰值（含压测客户端）: %d
+                      数据库调用: %d 次，其中在虚拟线程上: %d 次，在 boundedElastic 上: %d 次
+                      JFR 钉住检测: 对照组%s，压测期间钉住事件 %d 个，项目代码钉住点 %d 个%s""",
+                SERVER_TYPE, sessions, connectMillis, callsPerSession, dbLatencyMillis, REFRESH_INTERVAL, totalCalls, failedCalls,
+                failures.isEmpty() ? "" : failures, loadMillis, totalCalls * 1000.0 / loadMillis,
+                p50Millis, p99Millis, maxMillis, peakPlatformThreads, dbCalls, virtualDbCalls,
+                elasticDbCalls, detectorVerified ? "已检出" : "未检出", pinnedEvents, projectPinnedStacks.size(),
+                projectPinnedStacks.isEmpty() ? "" : String.join("\n", projectPinnedStacks));
+        }
+    }
+
+    /**
+     * 模拟慢数据库（替换自动配置的 JdbcTemplate，不会真正连接数据源）
+     */
+    static class SlowDatabaseConfig {
+
+        @Bean
+        SlowJdbcTemplate jdbcTemplate(DataSource dataSource) {
+            return new SlowJdbcTemplate(dataSource);
+        }
+    }
+
+    /**
+     * 每次查询固定延迟；字段元数据返回订单表结构，字典指纹每次变化以使刷新锁内总是执行重新加载
+     */
+    static class SlowJdbcTemplate extends JdbcTemplate {
+
+        private final AtomicLong calls = new AtomicLong();
+        private final AtomicLong virtualCalls = new AtomicLong();
+        private final AtomicLong elasticCalls = new AtomicLong();
+        private final AtomicInteger dictVersion = new AtomicInteger();
+
+        SlowJdbcTemplate(DataSource dataSource) {
+            super(dataSource, true);
+        }
+
+        void reset() {
+            calls.set(0);
+            virtualCalls.set(0);
+            elasticCalls.set(0);
+        }
+
+        private void simulateLatency() {
+            calls.incrementAndGet();
+            if (isVirtual(Thread.currentThread())) {
+                virtualCalls.incrementAndGet();
+            }
+            // 开启虚拟线程时 Spring Boot 让 boundedElastic 同样使用虚拟线程（线程名 loomBoundedElastic-*）
+            if (StrUtil.containsIgnoreCase(Thread.currentThread().getName(), "boundedElastic")) {
+                elasticCalls.incrementAndGet();
+            }
+            sleep(DB_LATENCY_MILLIS);
+        }
+
+        @Override
+        public List<Map<String, Object>> queryForList(String sql) {
+            return queryForList(sql, new Object[0]);
+        }
+
+        @Override
+        public List<Map<String, Object>> queryForList(String sql, Object... args) {
+            simulateLatency();
+            if (!sql.contains("information_schema.COLUMNS")) {
+                return List.of();
+            }
+            return List.of(
+                column("id", "bigint", "bigint", "ID", "PRI", "NO"),
+                column("order_no", "varchar", "varchar(64)", "订单号", "", "NO"),
+                column("order_id", "bigint", "bigint", "订单 ID", "MUL", "YES"),
+                column("amount", "decimal", "decimal(10,2)", "金额", "", "NO"),
+                column("status", "tinyint", "tinyint unsigned", "状态", "", "NO"),
+                column("remark", "varchar", "varchar(255)", "备注", "", "YES"),
+                column("create_user", "bigint", "bigint", "创建人", "", "NO"),
+                column("create_time", "datetime", "datetime", "创建时间", "", "NO"));
+        }
+
+        @Override
+        public Map<String, Object> queryForMap(String sql) {
+            return queryForMap(sql, new Object[0]);
+        }
+
+        @Override
+        public Map<String, Object> queryForMap(String sql, Object... args) {
+            simulateLatency();
+            Map<String, Object> stamp = new HashMap<>();
+            stamp.put("dict_cnt", 1);
+            stamp.put("dict_modified", dictVersion.incrementAndGet());
+            stamp.put("item_cnt", 2);
+            stamp.put("item_modified", null);
+            return stamp;
+        }
+
+        @Override
+        public void query(String sql, RowCallbackHandler rch) {
+            simulateLatency();
+        }
+
+        private static Map<String, Object> column(String name, String dataType, String columnType, String comment,
+                                                  String key, String nullable) {
+            Map<String, Object> row = new HashMap<>();
+            row.put("COLUMN_NAME", name);
+            row.put("DATA_TYPE", dataType);
+            row.put("COLUMN_TYPE", columnType);
+            row.put("COLUMN_COMMENT", comment);
+            row.put("COLUMN_KEY", key);
+            row.put("IS_NULLABLE", nullable);
+            row.put("EXTRA", "");
+            return row;
+        }
+    }
+
+    /**
+     * 最小 SSE 客户端：所有会话共用一个 HttpClient，按 JSON-RPC id 匹配 SSE 流上的响应
+     */
+    static final class SseSession implements Flow.Subscriber<String> {
+
+        private final HttpClient client;
+        private final URI base;
+        private final CompletableFuture<SseSession> endpointFuture = new CompletableFuture<>();
+        private final Map<Integer, CompletableFuture<JSONObject>> pending = new ConcurrentHashMap<>();
+        private final AtomicInteger nextId = new AtomicInteger();
+        private volatile Flow.Subscription subscription;
+        private volatile URI messageUri;
+        private String event;
+        private final StringBuilder data = new StringBuilder();
+
+        private SseSession(HttpClient client, URI base) {
+            this.client = client;
+            this.base = base;
+        }
+
+        static CompletableFuture<SseSession> open(HttpClient client, URI base) {
+            SseSession session = new SseSession(client, base);
+            HttpRequest request = HttpRequest.newBuilder(base.resolve("/sse"))
+                .header("Accept", "text/event-stream")
+                .GET()
+                .build();
+            client.sendAsync(request, HttpResponse.BodyHandlers.fromLineSubscriber(session))
+                .whenComplete((response, error) -> {
+                    if (error != null) {
+                        session.endpointFuture.completeExceptionally(error);
+                    }
+                });
+            return session.endpointFuture;
+        }
+
+        CompletableFuture<JSONObject> request(String method, JSONObject params) {
+            int id = nextId.getAndIncrement();
+            CompletableFuture<JSONObject> future = new CompletableFuture<>();
+            pending.put(id, future);
+            post(JSONUtil.createObj().set("jsonrpc", "2.0").set("id", id).set("method", method).set("params", params))
+                .whenComplete((status, error) -> {
+                    if (error != null || status >= 300) {
+                        pending.remove(id);
+                        future.completeExceptionally(error != null ? error : new IllegalStateException("HTTP " + status));
+                    }
+                });
+            return future;
+        }
+
+        void notify(String method) {
+            post(JSONUtil.createObj().set("jsonrpc", "2.0").set("method", method)).join();
+        }
+
+        private CompletableFuture<Integer> post(JSONObject message) {
+            HttpRequest request = HttpRequest.newBuilder(messageUri)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(message.toString()))
+                .build();
+            return client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).thenApply(HttpResponse::statusCode);
+        }
+
+        void close() {
+            Flow.Subscription current = subscription;
+            if (current != null) {
+                current.cancel();
+            }
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(String line) {
+            if (line.isEmpty()) {
+                dispatch();
+            } else if (line.startsWith("event:")) {
+                event = line.substring(6).trim();
+            } else if (line.startsWith("data:")) {
+                data.append(line.substring(5).trim());
+            }
+        }
+
+        private void dispatch() {
+            String payload = data.toString();
+            data.setLength(0);
+            if ("endpoint".equals(event)) {
+                messageUri = base.resolve(payload);
+                endpointFuture.complete(this);
+            } else if (!payload.isEmpty()) {
+                JSONObject message = JSONUtil.parseObj(payload);
+                Integer id = message.getInt("id");
+                CompletableFuture<JSONObject> future = id != null ? pending.remove(id) : null;
+                if (future != null) {
+                    future.complete(message);
+                }
+            }
+            event = null;
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            endpointFuture.completeExceptionally(throwable);
+            pending.values().forEach(future -> future.completeExceptionally(throwable));
+        }
+
+        @Override
+        public void onComplete() {
+            onError(new IllegalStateException("SSE 连接已关闭"));
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package top.continew.admin.mcp.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import top.continew.admin.mcp.config.GeneratorProperties;
+import top.continew.admin.mcp.model.FieldConfig;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 字段推断基准
+ * <p>对一张宽表的每个字段执行完整的推断链路（基类字段判断、Java/TS 类型、类型处理器、表单类型、查询配置），
+ * 对比改为 InferenceRules 决策表之前的硬编码实现（{@link Legacy}，取自改动前的 TemplateService）与当前实现。
+ * 两者交替执行多轮，取每轮单字段耗时的中位数，输出纳秒/字段。</p>
+ * <p>默认不执行，运行方式：
+ * {@code mvn test -Dtest=InferenceRulesBenchmark -Dmcp.benchmark=true -Dmcp.benchmark.columns=500}</p>
+ *
+ * @author AI Generator
+ */
+@EnabledIfSystemProperty(named = "mcp.benchmark", matches = "true")
+class InferenceRulesBenchmark {
+
+    private static final int COLUMNS = Integer.getInteger("mcp.benchmark.columns", 500);
+    private static final int ROUNDS = Integer.getInteger("mcp.benchmark.rounds", 15);
+    private static final int ITERATIONS = Integer.getInteger("mcp.benchmark.iterations", 2000);
+
+    private static final String[] NAME_PARTS = {"order", "user", "status", "type", "name", "title", "remark",
+        "description", "content", "amount", "price", "level", "category", "state", "gender", "code", "phone",
+        "email", "address", "start", "end", "time", "date", "count", "flag", "enabled", "sort", "parent", "dept"};
+
+    /**
+     * 数据类型与完整列类型
+     */
+    private static final String[][] TYPES = {{"bigint", "bigint"}, {"int", "int"}, {"int", "int unsigned"},
+        {"tinyint", "tinyint"}, {"tinyint", "tinyint(1)"}, {"smallint", "smallint"}, {"varchar", "varchar(64)"},
+        {"varchar", "varchar(255)"}, {"char", "char(32)"}, {"text", "text"}, {"decimal", "decimal(10,2)"},
+        {"double", "double"}, {"datetime", "datetime"}, {"date", "date"}, {"time", "time"}, {"bit", "bit(1)"},
+        {"json", "json"}, {"year", "year"}, {"enum", "enum('a','b')"}, {"bigint", "bigint unsigned"}};
+
+    private static long sink;
+
+    @Test
+    void inferWideTable() {
+        Result result = run(COLUMNS, ROUNDS, ITERATIONS);
+        System.out.println(result);
+        assertThat(result.currentNanosPerColumn()).isPositive();
+        assertThat(result.legacyNanosPerColumn()).isPositive();
+    }
+
+    /**
+     * 执行基准
+     *
+     * @param columns    宽表字段数
+     * @param rounds     轮数（每轮先后执行两种实现，顺序交替）
+     * @param iterations 每轮对整张表推断的次数
+     */
+    static Result run(int columns, int rounds, int iterations) {
+        List<String[]> table = wideTable(columns);
+        InferenceRules rules = new InferenceRules(new GeneratorProperties());
+        Legacy legacy = new Legacy();
+
+        // 预热，让两种实现都完成 JIT 编译
+        for (int i = 0; i < Math.max(1, iterations / 2); i++) {
+            sink += inferCurrent(rules, table) + inferLegacy(legacy, table);
+        }
+
+        double[] current = new double[rounds];
+        double[] previous = new double[rounds];
+        for (int round = 0; round < rounds; round++) {
+            if (round % 2 == 0) {
+                previous[round] = measure(() -> inferLegacy(legacy, table), iterations, columns);
+                current[round] = measure(() -> inferCurrent(rules, table), iterations, columns);
+            } else {
+                current[round] = measure(() -> inferCurrent(rules, table), iterations, columns);
+                previous[round] = measure(() -> inferLegacy(legacy, table), iterations, columns);
+            }
+        }
+        return new Result(columns, rounds, iterations, median(previous), median(current));
+    }
+
+    private static double measure(Inference inference, int iterations, int columns) {
+        long start = System.nanoTime();
+        long acc = 0;
+        for (int i = 0; i < iterations; i++) {
+            acc += inference.run();
+        }
+        long elapsed = System.nanoTime() - start;
+        sink += acc;
+        return (double) elapsed / iterations / columns;
+    }
+
+    /**
+     * 当前实现（与 TemplateService.toFieldConfigs 中的推断顺序一致，不含字典匹配与数据画像）
+     */
+    private static int inferCurrent(InferenceRules rules, List<String[]> table) {
+        int acc = 0;
+        for (String[] column : table) {
+            if (rules.isBaseField(column[0])) {
+                continue;
+            }
+            FieldConfig field = new FieldConfig();
+            field.setColumnName(column[0]);
+            field.setFieldType(rules.toJavaType(column[1], column[2]));
+            field.setTypeHandler(rules.typeHandler(column[1]));
+            field.setFormType(rules.inferFormType(column[0], field.getFieldType()));
+            rules.applyQueryConfig(field);
+            field.setTsType(rules.toTsType(field.getFieldType()));
+            acc += field.getFormType().length() + field.getQueryType().length() + (field.isShowInQuery() ? 1 : 0);
+        }
+        return acc;
+    }
+
+    private static int inferLegacy(Legacy legacy, List<String[]> table) {
+        int acc = 0;
+        for (String[] column : table) {
+            if (legacy.isBaseField(column[0])) {
+                continue;
+            }
+            FieldConfig field = new FieldConfig();
+            field.setColumnName(column[0]);
+            field.setFieldType(legacy.mapDbTypeToJava(column[1]));
+            field.setFormType(legacy.inferFormType(field));
+            legacy.inferQueryConfig(field);
+            field.setTsType(legacy.mapJavaTypeToTs(field.getFieldType()));
+            acc += field.getFormType().length() + field.getQueryType().length() + (field.isShowInQuery() ? 1 : 0);
+        }
+        return acc;
+    }
+
+    /**
+     * 生成宽表字段（固定随机种子，结果可重复）：字段名 + 数据类型 + 完整列类型
+     */
+    static List<String[]> wideTable(int columns) {
+        Random random = new Random(42);
+        List<String[]> table = new ArrayList<>(columns);
+        table.add(new String[] {"id", "bigint", "bigint"});
+        table.add(new String[] {"create_user", "bigint", "bigint"});
+        table.add(new String[] {"create_time", "datetime", "datetime"});
+        for (int i = table.size(); i < columns; i++) {
+            String name = NAME_PARTS[random.nextInt(NAME_PARTS.length)] + "_" + NAME_PARTS[random.nextInt(NAME_PARTS.length)]
+                + (random.nextBoolean() ? "_" + i : "");
+            String[] type = TYPES[random.nextInt(TYPES.length)];
+            table.add(new String[] {name, type[0], type[1]});
+        }
+        return table;
+    }
+
+    private static double median(double[] values) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    @FunctionalInterface
+    private interface Inference {
+        int run();
+    }
+
+    /**
+     * 基准结果
+     */
+    record Result(int columns, int rounds, int iterations, double legacyNanosPerColumn, double currentNanosPerColumn) {
+
+        @Override
+        public String toString() {
+            return String.format("字段推断基准：%d 列宽表，%d 轮 × %d 次%n  改动前（硬编码）: %.1f ns/字段%n  InferenceRules: %.1f ns/字段（%.2fx）",
+                columns, rounds, iterations, legacyNanosPerColumn, currentNanosPerColumn,
+                legacyNanosPerColumn / currentNanosPerColumn);
+        }
+    }
+
+    /**
+     * 改动前的推断实现（原 TemplateService 私有方法，仅用于对比）
+     */
+    static final class Legacy {
+
+        boolean isBaseField(String columnName) {
+            Set<String> baseFields = Set.of("id", "create_user", "create_time", "update_user", "update_time", "tenant_id");
+            return baseFields.contains(columnName.toLowerCase());
+        }
+
+        String mapDbTypeToJava(String dbType) {
+            if (dbType == null) return "String";
+            dbType = dbType.toLowerCase();
+            return switch (dbType) {
+                case "bigint" -> "Long";
+                case "int", "integer", "tinyint", "smallint", "mediumint" -> "Integer";
+                case "decimal", "numeric" -> "BigDecimal";
+                case "float" -> "Float";
+                case "double" -> "Double";
+                case "bit", "boolean" -> "Boolean";
+                case "date" -> "LocalDate";
+                case "time" -> "LocalTime";
+                case "datetime", "timestamp" -> "LocalDateTime";
+                default -> "String";
+            };
+        }
+
+        String mapJavaTypeToTs(String javaType) {
+            if (javaType == null) return "string";
+            return switch (javaType) {
+                case "Integer", "Long", "Float", "Double", "BigDecimal" -> "number";
+                case "Boolean" -> "boolean";
+                default -> "string";
+            };
+        }
+
+        String inferFormType(FieldConfig field) {
+            String javaType = field.getFieldType();
+            String columnName = field.getColumnName().toLowerCase();
+            if (columnName.contains("remark") || columnName.contains("description") || columnName.contains("content")) {
+                return "TEXTAREA";
+            }
+            return switch (javaType) {
+                case "LocalDate" -> "DATE";
+                case "LocalDateTime" -> "DATE_TIME";
+                case "Boolean" -> "SWITCH";
+                default -> "INPUT";
+            };
+        }
+
+        void inferQueryConfig(FieldConfig field) {
+            String columnName = field.getColumnName().toLowerCase();
+            String javaType = field.getFieldType();
+            field.setShowInQuery(false);
+            field.setQueryType("EQ");
+            if (columnName.contains("status") || columnName.contains("type")
+                || columnName.contains("gender") || columnName.contains("state")
+                || columnName.contains("level") || columnName.contains("category")) {
+                field.setShowInQuery(true);
+                field.setQueryType("EQ");
+                return;
+            }
+            if (columnName.contains("name") || columnName.contains("title")) {
+                field.setShowInQuery(true);
+                field.setQueryType("LIKE");
+                return;
+            }
+            if ("LocalDateTime".equals(javaType) || "LocalDate".equals(javaType)) {
+                field.setQueryType("BETWEEN");
+            }
+        }
+    }
+}
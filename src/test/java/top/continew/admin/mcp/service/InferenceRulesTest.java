@@ -0,0 +1,51 @@
+package top.continew.admin.mcp.service;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import top.continew.admin.mcp.config.GeneratorProperties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 字段类型推断测试（默认规则 inference-rules.yml）
+ * <p>按 DATA_TYPE + COLUMN_TYPE 断言 Java 类型与类型处理器。enum 列的 Java 类型为 String，枚举类由 TemplateService 生成时替换</p>
+ *
+ * @author AI Generator
+ */
+class InferenceRulesTest {
+
+    private static InferenceRules rules;
+
+    @BeforeAll
+    static void setUp() {
+        rules = new InferenceRules(new GeneratorProperties());
+    }
+
+    @ParameterizedTest(name = "{1} -> {2}")
+    @CsvSource(delimiter = '|', quoteCharacter = '"', nullValues = "null", textBlock = """
+        tinyint   | tinyint(1)                | Boolean             | null
+        tinyint   | tinyint(1) unsigned       | Boolean             | null
+        tinyint   | tinyint(4)                | Integer             | null
+        tinyint   | tinyint unsigned          | Integer             | null
+        bit       | bit(1)                    | Boolean             | null
+        bit       | bit(8)                    | Boolean             | null
+        int       | int                       | Integer             | null
+        int       | int(10) unsigned          | Long                | null
+        int       | int unsigned zerofill     | Long                | null
+        bigint    | bigint                    | Long                | null
+        bigint    | bigint unsigned           | BigInteger          | null
+        bigint    | bigint(20) unsigned       | BigInteger          | null
+        year      | year                      | Integer             | null
+        json      | json                      | Map<String, Object> | com.baomidou.mybatisplus.extension.handlers.JacksonTypeHandler
+        enum      | enum('pending','paid')    | String              | null
+        char      | char(32)                  | String              | null
+        varchar   | varchar(255)              | String              | null
+        decimal   | decimal(10,2) unsigned    | BigDecimal          | null
+        datetime  | datetime(6)               | LocalDateTime       | null
+        """)
+    void inferJavaTypeAndTypeHandler(String dataType, String columnType, String javaType, String typeHandler) {
+        assertThat(rules.toJavaType(dataType, columnType)).isEqualTo(javaType);
+        assertThat(rules.typeHandler(dataType)).isEqualTo(typeHandler);
+    }
+}
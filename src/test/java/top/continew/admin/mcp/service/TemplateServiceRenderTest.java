@@ -0,0 +1,88 @@
+package top.continew.admin.mcp.service;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import top.continew.admin.mcp.config.GeneratorProperties;
+import top.continew.admin.mcp.model.FieldConfig;
+import top.continew.admin.mcp.model.GeneratorContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 模板渲染测试（json 列）
+ * <p>json 列按默认规则映射为 Map 并使用 JacksonTypeHandler：不参与 Excel 导出，表单以文本编辑、提交时解析为对象</p>
+ *
+ * @author AI Generator
+ */
+class TemplateServiceRenderTest {
+
+    private static InferenceRules rules;
+
+    private static TemplateService templateService;
+
+    @BeforeAll
+    static void setUp() {
+        GeneratorProperties properties = new GeneratorProperties();
+        rules = new InferenceRules(properties);
+        templateService = new TemplateService(null, null, null, rules, properties);
+    }
+
+    @Test
+    void renderJsonColumn() {
+        GeneratorContext ctx = buildContext();
+
+        Map<String, String> backend = templateService.previewBackend(ctx);
+        assertThat(backend.get("Entity.java")).contains("@TableField(typeHandler = JacksonTypeHandler.class)")
+            .contains("private Map<String, Object> ext;");
+        assertThat(backend.get("Req.java")).contains("private Map<String, Object> ext;");
+        // 无 Excel 转换器的 json 字段不参与导出，普通字段照常导出
+        assertThat(backend.get("DetailResp.java")).contains("@ExcelProperty(value = \"名称\")")
+            .doesNotContain("@ExcelProperty(value = \"扩展信息\")")
+            .contains("private Map<String, Object> ext;");
+
+        String addModal = templateService.render("frontend/AddModal.ftl", ctx);
+        assertThat(addModal).contains("field: 'ext',\n    type: 'textarea',")
+            .contains("ext: parseJson(form.ext, '扩展信息'),")
+            .contains("form.ext = data.ext == null ? undefined : JSON.stringify(data.ext, null, 2)")
+            .doesNotContain("name: parseJson(");
+    }
+
+    private static GeneratorContext buildContext() {
+        GeneratorContext ctx = new GeneratorContext();
+        ctx.setTableName("biz_order");
+        ctx.setBusinessName("订单");
+        ctx.setClassNamePrefix("Order");
+        ctx.setModuleName("shop");
+        ctx.setPackageName("top.continew.admin.shop");
+        ctx.setApiModuleName("shop");
+        ctx.setApiName("order");
+        ctx.setDatetime("2026-01-01");
+        List<FieldConfig> fields = new ArrayList<>();
+        fields.add(field("name", "varchar", "varchar(64)", "名称"));
+        fields.add(field("ext", "json", "json", "扩展信息"));
+        ctx.setFieldConfigs(fields);
+        ctx.setRelations(new ArrayList<>());
+        ctx.computeFlags();
+        return ctx;
+    }
+
+    private static FieldConfig field(String columnName, String dataType, String columnType, String comment) {
+        FieldConfig field = new FieldConfig();
+        field.setColumnName(columnName);
+        field.setFieldName(columnName);
+        field.setColumnType(columnType);
+        field.setComment(comment);
+        field.setFieldType(rules.toJavaType(dataType, columnType));
+        field.setTypeHandler(rules.typeHandler(dataType));
+        // 与 TemplateService 一致：类型处理器字段以文本域编辑
+        field.setFormType(field.getTypeHandler() != null ? "TEXTAREA" : "INPUT");
+        field.setTsType(rules.toTsType(field.getFieldType()));
+        field.setShowInList(true);
+        field.setShowInForm(true);
+        return field;
+    }
+}